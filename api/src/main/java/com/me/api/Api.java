@@ -6,4 +6,8 @@ public interface Api {
 	public static final String RECOMMENDATION_PATH = "recommendations";
 	public static final String REVIEW_PATH = "reviews";
 	public static final String PRODUCT_COMPOSITE_PATH = "products-composite";
+	public static final String BATCH_PATH = "batch";
+	public static final String BATCH_GET_PATH = "batch-get";
+	public static final String EXPORT_PATH = "export";
+	public static final String STATISTICS_PATH = "statistics";
 }
@@ -1,9 +1,12 @@
 package com.me.api.core.product.async;
 
+import reactor.core.publisher.Mono;
+
 public interface ProductAsyncService {
 
 	/**
 	 * @param productID
+	 * @return mono of {@link Void}, completed when the delete event is accepted for publication
 	 */
-	void deleteProductAsync(Integer productID);
+	Mono<Void> deleteProductAsync(Integer productID);
 }
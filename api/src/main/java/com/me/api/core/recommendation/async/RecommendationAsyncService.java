@@ -1,9 +1,12 @@
 package com.me.api.core.recommendation.async;
 
+import reactor.core.publisher.Mono;
+
 public interface RecommendationAsyncService {
 
 	/**
 	 * @param productID
+	 * @return mono of {@link Void}, completed when the delete event is accepted for publication
 	 */
-	public void deleteRecommendationsAsync(Integer productID);
+	public Mono<Void> deleteRecommendationsAsync(Integer productID);
 }
@@ -1,9 +1,12 @@
 package com.me.api.core.review.async;
 
+import reactor.core.publisher.Mono;
+
 public interface ReviewAsyncService {
 
 	/**
 	 * @param productID
+	 * @return mono of {@link Void}, completed when the delete event is accepted for publication
 	 */
-	public void deleteReviewsAsync(Integer productID);
+	public Mono<Void> deleteReviewsAsync(Integer productID);
 }
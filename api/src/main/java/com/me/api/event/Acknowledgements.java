@@ -0,0 +1,65 @@
+package com.me.api.event;
+
+import java.io.IOException;
+
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+
+import com.rabbitmq.client.Channel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Manual acknowledgment of a RabbitMQ message (<i>acknowledge-mode: MANUAL</i>), shared by the consumers of the {@link Event}.
+ * Without the channel header (test binder for example), there is nothing to acknowledge.
+ * A {@link Channel} isn't thread-safe and the batches are acknowledged from several threads : the calls are serialized on the channel.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+public final class Acknowledgements {
+	
+	private Acknowledgements() {}
+	
+	/**
+	 * @param message : the message has been processed
+	 */
+	public static void ack(Message<?> message) {
+		
+		Channel channel = message.getHeaders().get(AmqpHeaders.CHANNEL, Channel.class);
+		Long deliveryTag = message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+		
+		if(channel == null || deliveryTag == null) return;
+		
+		try {
+			
+			synchronized(channel) {
+				channel.basicAck(deliveryTag, false);
+			}
+		}
+		catch(IOException e) {
+			log.error(" > The message {} can't be acknowledged, it will be redelivered.", deliveryTag, e);
+		}
+	}
+	
+	/**
+	 * The message isn't requeued, the dead letter exchange of the queue routes it to the DLQ.
+	 * @param message : the message can't be processed
+	 */
+	public static void reject(Message<?> message) {
+		
+		Channel channel = message.getHeaders().get(AmqpHeaders.CHANNEL, Channel.class);
+		Long deliveryTag = message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+		
+		if(channel == null || deliveryTag == null) return;
+		
+		try {
+			
+			synchronized(channel) {
+				channel.basicNack(deliveryTag, false, false);
+			}
+		}
+		catch(IOException e) {
+			log.error(" > The message {} can't be rejected, it will be redelivered.", deliveryTag, e);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.me.api.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.me.api.trace.Tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Metrics of the services, scanned with the package <i>com.me.api.metrics</i>. 
+ * The percentiles and the histograms are set with <i>management.metrics.distribution</i>.
+ * @author rudysaniez @since 0.0.1
+ */
+@Configuration
+public class MetricsConfiguration {
+	
+	@Bean
+	public OperationTagsContributor operationTagsContributor() {
+		return new OperationTagsContributor();
+	}
+	
+	/**
+	 * Timers and spans of the repositories, in the services with Spring-Data only.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Configuration
+	@ConditionalOnClass(name="org.springframework.data.repository.Repository")
+	public static class RepositoryMetricsConfiguration {
+		
+		@Bean
+		public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registry, 
+				ObjectProvider<Tracing> tracing) {
+			
+			return new RepositoryMetricsPostProcessor(registry, tracing);
+		}
+	}
+}
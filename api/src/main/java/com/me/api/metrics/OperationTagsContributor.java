@@ -0,0 +1,35 @@
+package com.me.api.metrics;
+
+import org.springframework.boot.actuate.metrics.web.reactive.server.WebFluxTagsContributor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Tag <i>operation</i> of the <i>http.server.requests</i> timers : the name of the handler method, 
+ * which is the operationId of the OpenAPI contract (<i>getCompositeProduct</i>, <i>findByName</i>...).
+ * @author rudysaniez @since 0.0.1
+ */
+public class OperationTagsContributor implements WebFluxTagsContributor {
+	
+	public static final String OPERATION_TAG = "operation";
+	
+	private static final Tag OPERATION_NONE = Tag.of(OPERATION_TAG, "none");
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterable<Tag> httpRequestTags(ServerWebExchange exchange, Throwable ex) {
+		
+		Object handler = exchange.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+		
+		if(handler instanceof HandlerMethod)
+			return Tags.of(OPERATION_TAG, ((HandlerMethod)handler).getMethod().getName());
+		
+		return Tags.of(OPERATION_NONE);
+	}
+}
@@ -0,0 +1,112 @@
+package com.me.api.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Timer <i>spring.data.repository.invocations</i> of the reactive repository methods, 
+ * with the tags <i>repository</i>, <i>method</i>, <i>state</i> and <i>exception</i>.
+ * The query runs when the result is subscribed : the sample starts at the subscription and stops at the termination.
+ * The {@link MeterRegistry} is resolved at the first query.
+ * @author rudysaniez @since 0.0.1
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+	
+	public static final String METRIC_NAME = "spring.data.repository.invocations";
+	
+	private final ObjectProvider<MeterRegistry> registryProvider;
+	private final String repository;
+	private volatile MeterRegistry registry;
+	
+	/**
+	 * @param registryProvider
+	 * @param repository : simple name of the repository interface
+	 */
+	public RepositoryMetricsInterceptor(ObjectProvider<MeterRegistry> registryProvider, String repository) {
+		
+		this.registryProvider = registryProvider;
+		this.repository = repository;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		
+		Object result = invocation.proceed();
+		String method = invocation.getMethod().getName();
+		
+		if(result instanceof Mono) return timed((Mono<?>)result, method);
+		if(result instanceof Flux) return timed((Flux<?>)result, method);
+		
+		return result;
+	}
+	
+	/**
+	 * @param <T>
+	 * @param mono
+	 * @param method
+	 * @return timed mono
+	 */
+	private <T> Mono<T> timed(Mono<T> mono, String method) {
+		
+		return Mono.defer(() -> {
+			
+			Timer.Sample sample = Timer.start(registry());
+			return mono.doOnSuccess(v -> stop(sample, method, "SUCCESS", null)).
+					doOnError(e -> stop(sample, method, "ERROR", e)).
+					doOnCancel(() -> stop(sample, method, "CANCELED", null));
+		});
+	}
+	
+	/**
+	 * @param <T>
+	 * @param flux
+	 * @param method
+	 * @return timed flux
+	 */
+	private <T> Flux<T> timed(Flux<T> flux, String method) {
+		
+		return Flux.defer(() -> {
+			
+			Timer.Sample sample = Timer.start(registry());
+			return flux.doOnComplete(() -> stop(sample, method, "SUCCESS", null)).
+					doOnError(e -> stop(sample, method, "ERROR", e)).
+					doOnCancel(() -> stop(sample, method, "CANCELED", null));
+		});
+	}
+	
+	/**
+	 * @param sample
+	 * @param method
+	 * @param state
+	 * @param error
+	 */
+	private void stop(Timer.Sample sample, String method, String state, Throwable error) {
+		
+		sample.stop(Timer.builder(METRIC_NAME).
+				tag("repository", repository).
+				tag("method", method).
+				tag("state", state).
+				tag("exception", error != null ? error.getClass().getSimpleName() : "None").
+				register(registry()));
+	}
+	
+	/**
+	 * @return {@link MeterRegistry}
+	 */
+	private MeterRegistry registry() {
+		
+		MeterRegistry resolved = registry;
+		if(resolved == null) registry = resolved = registryProvider.getObject();
+		
+		return resolved;
+	}
+}
@@ -0,0 +1,70 @@
+package com.me.api.metrics;
+
+import java.util.Arrays;
+
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+
+import com.me.api.trace.RepositoryTracingInterceptor;
+import com.me.api.trace.Tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The Spring-Data repositories are wrapped by a single proxy : the {@link RepositoryTracingInterceptor} around the {@link RepositoryMetricsInterceptor}.
+ * The {@link MeterRegistry} and the {@link Tracing} are resolved by the interceptors at the first query, not when the repositories are created.
+ * @author rudysaniez @since 0.0.1
+ */
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+	
+	private final ObjectProvider<MeterRegistry> registry;
+	private final ObjectProvider<Tracing> tracing;
+	
+	/**
+	 * @param registry
+	 * @param tracing
+	 */
+	public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registry, ObjectProvider<Tracing> tracing) {
+		
+		this.registry = registry;
+		this.tracing = tracing;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		
+		if(!(bean instanceof Repository)) return bean;
+		
+		Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(bean);
+		String repository = repositoryName(interfaces, beanName);
+		
+		ProxyFactory proxyFactory = new ProxyFactory();
+		proxyFactory.setTarget(bean);
+		proxyFactory.setInterfaces(interfaces);
+		proxyFactory.addAdvice(new RepositoryTracingInterceptor(tracing, repository));
+		proxyFactory.addAdvice(new RepositoryMetricsInterceptor(registry, repository));
+		
+		return proxyFactory.getProxy(bean.getClass().getClassLoader());
+	}
+	
+	/**
+	 * The proxied interfaces aren't ordered : the name is the one of the most specific interface which extends {@link Repository}.
+	 * @param interfaces
+	 * @param beanName
+	 * @return simple name of the repository interface, <i>ReviewRepository</i> for example
+	 */
+	private static String repositoryName(Class<?>[] interfaces, String beanName) {
+		
+		return Arrays.stream(interfaces).
+				filter(Repository.class::isAssignableFrom).
+				reduce((first, second) -> first.isAssignableFrom(second) ? second : first).
+				map(Class::getSimpleName).
+				orElse(beanName);
+	}
+}
@@ -0,0 +1,57 @@
+package com.me.api.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the last <i>max-spans</i> spans in memory, for the tests (<i>app.tracing.exporter: memory</i>).
+ * @author rudysaniez @since 0.0.1
+ */
+public class InMemorySpanExporter implements SpanExporter {
+	
+	private final int maxSpans;
+	private final ConcurrentLinkedDeque<Span> spans = new ConcurrentLinkedDeque<>();
+	private final AtomicInteger size = new AtomicInteger();
+	
+	/**
+	 * @param maxSpans
+	 */
+	public InMemorySpanExporter(int maxSpans) {
+		this.maxSpans = maxSpans;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void export(Span span) {
+		
+		spans.addLast(span);
+		
+		if(size.incrementAndGet() > maxSpans && spans.pollFirst() != null) size.decrementAndGet();
+	}
+	
+	/**
+	 * @return the exported spans, the oldest first
+	 */
+	public List<Span> getSpans() {
+		return new ArrayList<>(spans);
+	}
+	
+	/**
+	 * @param traceId
+	 * @return the exported spans of the trace, the oldest first
+	 */
+	public List<Span> getSpans(String traceId) {
+		return spans.stream().filter(span -> span.getContext().getTraceId().equals(traceId)).collect(Collectors.toList());
+	}
+	
+	public void clear() {
+		
+		spans.clear();
+		size.set(0);
+	}
+}
@@ -0,0 +1,21 @@
+package com.me.api.trace;
+
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+/**
+ * One log line per span, the default exporter.
+ * @author rudysaniez @since 0.0.1
+ */
+public class LoggingSpanExporter implements SpanExporter {
+	
+	private static final Logger log = Loggers.getLogger(LoggingSpanExporter.class);
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void export(Span span) {
+		log.info("span {}", span);
+	}
+}
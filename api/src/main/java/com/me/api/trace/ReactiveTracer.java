@@ -0,0 +1,108 @@
+package com.me.api.trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Spans of the operations of a service, on top of the {@link Tracing}, instead of the <i>log()</i> operator which logs every signal.
+ * The span of an operation is an internal span, child of the current span of the reactor context (the server span of the
+ * {@link TracingWebFilter} for example), tagged with the key and the number of elements. It follows the sampling decision of its trace.
+ * When the tracing is disabled, the pipeline is returned as it is : no operator is added.
+ * @author rudysaniez @since 0.0.1
+ */
+public class ReactiveTracer {
+	
+	private final Tracing tracing;
+	
+	/**
+	 * @param tracing
+	 */
+	public ReactiveTracer(Tracing tracing) {
+		this.tracing = tracing;
+	}
+	
+	/**
+	 * @param <T>
+	 * @param operation
+	 * @return function for the <i>transform</i> operator
+	 */
+	public <T> Function<Mono<T>, Mono<T>> mono(String operation) {
+		return mono(operation, null, null);
+	}
+	
+	/**
+	 * @param <T>
+	 * @param operation : operationId of the contract, <i>getProduct</i> for example
+	 * @param keyName : <i>productId</i> for example
+	 * @param key
+	 * @return function for the <i>transform</i> operator
+	 */
+	public <T> Function<Mono<T>, Mono<T>> mono(String operation, String keyName, Object key) {
+		
+		if(!tracing.isEnabled()) return Function.identity();
+		
+		return mono -> Mono.subscriberContext().flatMap(context -> {
+			
+			if(unsampled(context)) return mono;
+			
+			return tracing.mono(operation, Span.Kind.INTERNAL, span -> {
+				
+				AtomicLong elements = new AtomicLong();
+				if(keyName != null) span.tag(keyName, key);
+				
+				return mono.doOnNext(value -> elements.incrementAndGet()).
+						doOnTerminate(() -> span.tag("elements", elements.get())).
+						doOnCancel(() -> span.tag("elements", elements.get()).tag("cancelled", true));
+			});
+		});
+	}
+	
+	/**
+	 * @param <T>
+	 * @param operation
+	 * @return function for the <i>transform</i> operator
+	 */
+	public <T> Function<Flux<T>, Flux<T>> flux(String operation) {
+		return flux(operation, null, null);
+	}
+	
+	/**
+	 * @param <T>
+	 * @param operation : operationId of the contract, <i>exportReviews</i> for example
+	 * @param keyName : <i>productId</i> for example
+	 * @param key
+	 * @return function for the <i>transform</i> operator
+	 */
+	public <T> Function<Flux<T>, Flux<T>> flux(String operation, String keyName, Object key) {
+		
+		if(!tracing.isEnabled()) return Function.identity();
+		
+		return flux -> Mono.subscriberContext().flatMapMany(context -> {
+			
+			if(unsampled(context)) return flux;
+			
+			return tracing.flux(operation, Span.Kind.INTERNAL, span -> {
+				
+				AtomicLong elements = new AtomicLong();
+				if(keyName != null) span.tag(keyName, key);
+				
+				return flux.doOnNext(value -> elements.incrementAndGet()).
+						doOnTerminate(() -> span.tag("elements", elements.get())).
+						doOnCancel(() -> span.tag("elements", elements.get()).tag("cancelled", true));
+			});
+		});
+	}
+	
+	/**
+	 * The operation of an unsampled trace isn't wrapped : its span would never be exported.
+	 * @param context
+	 * @return true when the current trace isn't sampled
+	 */
+	private static boolean unsampled(Context context) {
+		return Tracing.current(context).map(parent -> !parent.isSampled()).orElse(false);
+	}
+}
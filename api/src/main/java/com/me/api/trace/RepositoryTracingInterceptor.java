@@ -0,0 +1,91 @@
+package com.me.api.trace;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Span of the reactive repository methods, named <i>&lt;repository&gt;.&lt;method&gt;</i>.
+ * A query is traced when it runs in a trace only : the repositories never start a trace.
+ * The {@link Tracing} is resolved at the first query.
+ * @author rudysaniez @since 0.0.1
+ */
+public class RepositoryTracingInterceptor implements MethodInterceptor {
+	
+	private final ObjectProvider<Tracing> tracingProvider;
+	private final String repository;
+	private volatile Tracing tracing;
+	
+	/**
+	 * @param tracingProvider
+	 * @param repository : simple name of the repository interface
+	 */
+	public RepositoryTracingInterceptor(ObjectProvider<Tracing> tracingProvider, String repository) {
+		
+		this.tracingProvider = tracingProvider;
+		this.repository = repository;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		
+		Object result = invocation.proceed();
+		if(!tracing().isEnabled()) return result;
+		
+		String name = repository + "." + invocation.getMethod().getName();
+		
+		if(result instanceof Mono) return traced((Mono<?>)result, name);
+		if(result instanceof Flux) return traced((Flux<?>)result, name);
+		
+		return result;
+	}
+	
+	/**
+	 * @param <T>
+	 * @param mono
+	 * @param name
+	 * @return traced mono
+	 */
+	private <T> Mono<T> traced(Mono<T> mono, String name) {
+		
+		return Mono.subscriberContext().flatMap(context -> Tracing.current(context).isPresent() ? 
+				tracing().mono(name, Span.Kind.CLIENT, span -> {
+					
+					span.tag("db.system", "mongodb");
+					return mono;
+				}) : mono);
+	}
+	
+	/**
+	 * @param <T>
+	 * @param flux
+	 * @param name
+	 * @return traced flux
+	 */
+	private <T> Flux<T> traced(Flux<T> flux, String name) {
+		
+		return Mono.subscriberContext().flatMapMany(context -> Tracing.current(context).isPresent() ? 
+				tracing().flux(name, Span.Kind.CLIENT, span -> {
+					
+					span.tag("db.system", "mongodb");
+					return flux;
+				}) : flux);
+	}
+	
+	/**
+	 * @return {@link Tracing}
+	 */
+	private Tracing tracing() {
+		
+		Tracing resolved = tracing;
+		if(resolved == null) tracing = resolved = tracingProvider.getObject();
+		
+		return resolved;
+	}
+}
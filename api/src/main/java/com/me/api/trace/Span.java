@@ -0,0 +1,91 @@
+package com.me.api.trace;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.Getter;
+
+/**
+ * Timed operation of a trace. A sampled span is exported by the {@link SpanExporter} when it ends.
+ * @author rudysaniez @since 0.0.1
+ */
+@Getter
+public class Span {
+	
+	public enum Kind {SERVER, CLIENT, PRODUCER, CONSUMER, INTERNAL;}
+	
+	private final TraceContext context;
+	private final String parentSpanId;
+	private final String name;
+	private final Kind kind;
+	private final long startEpochMillis = System.currentTimeMillis();
+	private final Map<String, String> tags = Collections.synchronizedMap(new LinkedHashMap<>());
+	private volatile long durationNanos;
+	private volatile String error;
+	
+	private final long start = System.nanoTime();
+	private final AtomicBoolean ended = new AtomicBoolean();
+	private final SpanExporter exporter;
+	
+	Span(TraceContext context, String parentSpanId, String name, Kind kind, SpanExporter exporter) {
+		
+		this.context = context;
+		this.parentSpanId = parentSpanId;
+		this.name = name;
+		this.kind = kind;
+		this.exporter = exporter;
+	}
+	
+	/**
+	 * @param key
+	 * @param value
+	 * @return {@link Span}
+	 */
+	public Span tag(String key, Object value) {
+		
+		if(context.isSampled() && value != null) tags.put(key, String.valueOf(value));
+		return this;
+	}
+	
+	/**
+	 * @param e
+	 */
+	public void error(Throwable e) {
+		this.error = e.getClass().getSimpleName();
+	}
+	
+	/**
+	 * Only the first end is exported.
+	 */
+	public void end() {
+		
+		if(!ended.compareAndSet(false, true)) return;
+		
+		durationNanos = System.nanoTime() - start;
+		if(context.isSampled()) exporter.export(this);
+	}
+	
+	/**
+	 * @return duration in milliseconds
+	 */
+	public long getDurationMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+	}
+	
+	@Override
+	public String toString() {
+		
+		return new StringBuilder("traceId=").append(context.getTraceId()).
+				append(" spanId=").append(context.getSpanId()).
+				append(" parentSpanId=").append(parentSpanId).
+				append(" name=").append(name).
+				append(" kind=").append(kind).
+				append(" durationMs=").append(getDurationMillis()).
+				append(error != null ? " error=" + error : "").
+				append(" tags=").append(tags).
+				toString();
+	}
+}
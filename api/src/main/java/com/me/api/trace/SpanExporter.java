@@ -0,0 +1,15 @@
+package com.me.api.trace;
+
+/**
+ * Destination of the sampled spans.
+ * @author rudysaniez @since 0.0.1
+ */
+@FunctionalInterface
+public interface SpanExporter {
+	
+	/**
+	 * Called by the thread which ends the span : it must not block.
+	 * @param span
+	 */
+	void export(Span span);
+}
@@ -0,0 +1,94 @@
+package com.me.api.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * W3C trace context : <i>traceparent: 00-&lt;trace-id&gt;-&lt;parent-id&gt;-&lt;trace-flags&gt;</i>.
+ * It's propagated in the http header and in the message header <i>traceparent</i>, and in the reactor context
+ * with the key {@link TraceContext}.
+ * @author rudysaniez @since 0.0.1
+ */
+@Getter
+@EqualsAndHashCode
+public final class TraceContext {
+	
+	public static final String TRACEPARENT = "traceparent";
+	
+	private static final Pattern FORMAT = Pattern.compile("[0-9a-f]{2}-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}");
+	private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+	private static final String INVALID_SPAN_ID = "0000000000000000";
+	
+	private final String traceId;
+	private final String spanId;
+	private final boolean sampled;
+	
+	private TraceContext(String traceId, String spanId, boolean sampled) {
+		
+		this.traceId = traceId;
+		this.spanId = spanId;
+		this.sampled = sampled;
+	}
+	
+	/**
+	 * @param sampled
+	 * @return the context of a new trace
+	 */
+	public static TraceContext root(boolean sampled) {
+		return new TraceContext(hex(nonZero()) + hex(nonZero()), hex(nonZero()), sampled);
+	}
+	
+	/**
+	 * @return the context of a child span, in the same trace
+	 */
+	public TraceContext child() {
+		return new TraceContext(traceId, hex(nonZero()), sampled);
+	}
+	
+	/**
+	 * @param traceparent
+	 * @return {@link TraceContext}, null when the header is absent or invalid
+	 */
+	public static TraceContext parse(String traceparent) {
+		
+		if(traceparent == null) return null;
+		
+		String value = traceparent.trim();
+		if(value.length() < 55 || !FORMAT.matcher(value.substring(0, 55)).matches() || value.startsWith("ff")) return null;
+		
+		String traceId = value.substring(3, 35);
+		String spanId = value.substring(36, 52);
+		if(INVALID_TRACE_ID.equals(traceId) || INVALID_SPAN_ID.equals(spanId)) return null;
+		
+		boolean sampled = (Integer.parseInt(value.substring(53, 55), 16) & 1) == 1;
+		return new TraceContext(traceId, spanId, sampled);
+	}
+	
+	/**
+	 * @return the value of the header <i>traceparent</i>
+	 */
+	public String traceparent() {
+		return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+	}
+	
+	@Override
+	public String toString() {
+		return traceparent();
+	}
+	
+	private static long nonZero() {
+		
+		long id;
+		do id = ThreadLocalRandom.current().nextLong(); while(id == 0);
+		return id;
+	}
+	
+	private static String hex(long id) {
+		
+		String hex = Long.toHexString(id);
+		return "0000000000000000".substring(hex.length()) + hex;
+	}
+}
@@ -0,0 +1,123 @@
+package com.me.api.trace;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Spans of the distributed traces. The current {@link TraceContext} is read from the reactor context, 
+ * the spans started in a pipeline are the children of the current one.
+ * A trace started here is sampled with the probability <i>sample-rate</i>, a propagated trace keeps the decision of its caller.
+ * When the tracing is disabled, the pipelines are returned as they are.
+ * @author rudysaniez @since 0.0.1
+ */
+public class Tracing {
+	
+	private final boolean enabled;
+	private final double sampleRate;
+	private final SpanExporter exporter;
+	
+	/**
+	 * @param enabled
+	 * @param sampleRate : between 0 and 1
+	 * @param exporter
+	 */
+	public Tracing(boolean enabled, double sampleRate, SpanExporter exporter) {
+		
+		this.enabled = enabled;
+		this.sampleRate = sampleRate;
+		this.exporter = exporter;
+	}
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	/**
+	 * @param name
+	 * @param kind
+	 * @param parent : null for a new trace
+	 * @return started {@link Span}, it must be ended
+	 */
+	public Span start(String name, Span.Kind kind, TraceContext parent) {
+		
+		TraceContext context = parent != null ? parent.child() : 
+			TraceContext.root(sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+		
+		return new Span(context, parent != null ? parent.getSpanId() : null, name, kind, exporter);
+	}
+	
+	/**
+	 * @param <T>
+	 * @param name
+	 * @param kind
+	 * @param body : the pipeline of the span, it's subscribed with the span in its reactor context
+	 * @return mono of the body, the span ends with it
+	 */
+	public <T> Mono<T> mono(String name, Span.Kind kind, Function<Span, Mono<T>> body) {
+		
+		if(!enabled) return Mono.defer(() -> body.apply(unsampled(name, kind)));
+		
+		return Mono.subscriberContext().flatMap(context -> {
+			
+			Span span = start(name, kind, current(context).orElse(null));
+			
+			return body.apply(span).
+					doOnError(span::error).
+					doFinally(signal -> span.end()).
+					subscriberContext(c -> with(c, span.getContext()));
+		});
+	}
+	
+	/**
+	 * @param <T>
+	 * @param name
+	 * @param kind
+	 * @param body : the pipeline of the span, it's subscribed with the span in its reactor context
+	 * @return flux of the body, the span ends with it
+	 */
+	public <T> Flux<T> flux(String name, Span.Kind kind, Function<Span, Flux<T>> body) {
+		
+		if(!enabled) return Flux.defer(() -> body.apply(unsampled(name, kind)));
+		
+		return Mono.subscriberContext().flatMapMany(context -> {
+			
+			Span span = start(name, kind, current(context).orElse(null));
+			
+			return body.apply(span).
+					doOnError(span::error).
+					doFinally(signal -> span.end()).
+					subscriberContext(c -> with(c, span.getContext()));
+		});
+	}
+	
+	/**
+	 * @param name
+	 * @param kind
+	 * @return span which is never exported, when the tracing is disabled
+	 */
+	private Span unsampled(String name, Span.Kind kind) {
+		return new Span(TraceContext.root(false), null, name, kind, exporter);
+	}
+	
+	/**
+	 * @param context
+	 * @return the current {@link TraceContext} of the reactor context
+	 */
+	public static Optional<TraceContext> current(Context context) {
+		return context.getOrEmpty(TraceContext.class);
+	}
+	
+	/**
+	 * @param context
+	 * @param traceContext
+	 * @return reactor context with the {@link TraceContext}
+	 */
+	public static Context with(Context context, TraceContext traceContext) {
+		return context.put(TraceContext.class, traceContext);
+	}
+}
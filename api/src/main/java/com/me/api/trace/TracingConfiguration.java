@@ -0,0 +1,58 @@
+package com.me.api.trace;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Distributed {@link Tracing} of the services, scanned with the package <i>com.me.api.trace</i>.
+ * The server spans come from the {@link TracingWebFilter}, the operation spans from the {@link ReactiveTracer}
+ * and the repository spans from the {@link RepositoryTracingInterceptor}.
+ * @author rudysaniez @since 0.0.1
+ */
+@Configuration
+@EnableConfigurationProperties(value={TracingConfiguration.TracingInformation.class})
+public class TracingConfiguration {
+	
+	@Bean
+	public SpanExporter spanExporter(TracingInformation information) {
+		
+		return TracingInformation.Exporter.MEMORY.equals(information.getExporter()) ? 
+				new InMemorySpanExporter(information.getMaxSpans()) : new LoggingSpanExporter();
+	}
+	
+	@Bean
+	public Tracing tracing(TracingInformation information, SpanExporter spanExporter) {
+		return new Tracing(information.isEnabled(), information.getSampleRate(), spanExporter);
+	}
+	
+	@Bean
+	public ReactiveTracer reactiveTracer(Tracing tracing) {
+		return new ReactiveTracer(tracing);
+	}
+	
+	@Bean
+	public TracingWebFilter tracingWebFilter(Tracing tracing) {
+		return new TracingWebFilter(tracing);
+	}
+	
+	/**
+	 * Sampling and export of the spans.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="app.tracing")
+	public static class TracingInformation {
+		
+		public enum Exporter {LOGGING, MEMORY;}
+		
+		private boolean enabled = true;
+		private double sampleRate = 0.01;
+		private Exporter exporter = Exporter.LOGGING;
+		private int maxSpans = 10000;
+	}
+}
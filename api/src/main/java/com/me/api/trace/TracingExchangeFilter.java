@@ -0,0 +1,47 @@
+package com.me.api.trace;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Client span of each exchange of a {@link org.springframework.web.reactive.function.client.WebClient}, 
+ * the request carries the header <i>traceparent</i> of the span.
+ * @author rudysaniez @since 0.0.1
+ */
+public class TracingExchangeFilter implements ExchangeFilterFunction {
+	
+	private final Tracing tracing;
+	private final String service;
+	
+	/**
+	 * @param tracing
+	 * @param service : name of the downstream service, <i>review-service</i> for example
+	 */
+	public TracingExchangeFilter(Tracing tracing, String service) {
+		
+		this.tracing = tracing;
+		this.service = service;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		
+		if(!tracing.isEnabled()) return next.exchange(request);
+		
+		return tracing.mono(service + " " + request.method(), Span.Kind.CLIENT, span -> next.
+				exchange(ClientRequest.from(request).
+						header(TraceContext.TRACEPARENT, span.getContext().traceparent()).
+						build()).
+				doOnNext(response -> span.tag("peer.service", service).
+						tag("http.method", request.method()).
+						tag("http.path", request.url().getPath()).
+						tag("http.status", response.rawStatusCode())));
+	}
+}
@@ -0,0 +1,61 @@
+package com.me.api.trace;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Server span of each request, child of the header <i>traceparent</i> when the caller sends it.
+ * The span is named with the handler method, which is the operationId of the contract. 
+ * The response returns the <i>traceparent</i> of the span.
+ * @author rudysaniez @since 0.0.1
+ */
+public class TracingWebFilter implements WebFilter, Ordered {
+	
+	private final Tracing tracing;
+	
+	public TracingWebFilter(Tracing tracing) {
+		this.tracing = tracing;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		
+		if(!tracing.isEnabled()) return chain.filter(exchange);
+		
+		TraceContext parent = TraceContext.parse(exchange.getRequest().getHeaders().getFirst(TraceContext.TRACEPARENT));
+		Span span = tracing.start(exchange.getRequest().getMethodValue() + " " + exchange.getRequest().getPath().value(), Span.Kind.SERVER, parent);
+		
+		exchange.getResponse().getHeaders().set(TraceContext.TRACEPARENT, span.getContext().traceparent());
+		
+		return chain.filter(exchange).
+				doOnError(span::error).
+				doFinally(signal -> {
+					
+					Object handler = exchange.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+					if(handler instanceof HandlerMethod) span.tag("operation", ((HandlerMethod)handler).getMethod().getName());
+					
+					span.tag("http.method", exchange.getRequest().getMethodValue()).
+						tag("http.path", exchange.getRequest().getPath().value()).
+						tag("http.status", exchange.getResponse().getRawStatusCode()).
+						end();
+				}).
+				subscriberContext(context -> Tracing.with(context, span.getContext()));
+	}
+	
+	/**
+	 * The span covers the filters which follow, the security and the handler.
+	 */
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE + 10;
+	}
+}
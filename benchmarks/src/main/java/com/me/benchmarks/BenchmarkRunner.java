@@ -0,0 +1,74 @@
+package com.me.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main class of the <i>benchmarks.jar</i>. The arguments are the ones of JMH, by default the results are written
+ * in JSON in <i>benchmarks/target/jmh/&lt;yyyyMMdd-HHmmss&gt;.json</i> (the directory is the <i>benchmarks.results</i> property)
+ * and the {@link GCProfiler} reports the allocation rate and the bytes allocated by operation.
+ * The files of two releases are compared with the JMH visualizer, or with <i>jq</i> on <i>primaryMetric.score</i> and
+ * <i>secondaryMetrics."·gc.alloc.rate.norm".score</i>.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar                  # all the benchmarks
+ * java -jar benchmarks/target/benchmarks.jar MapperBenchmark  # a regular expression on the benchmarks
+ * java -jar benchmarks/target/benchmarks.jar -rf text -prof stack
+ * </pre>
+ * @author rudysaniez @since 0.0.1
+ */
+public class BenchmarkRunner {
+	
+	private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+	
+	/**
+	 * @param args : options of JMH
+	 * @throws CommandLineOptionException
+	 * @throws RunnerException
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+		
+		CommandLineOptions cli = new CommandLineOptions(args);
+		
+		/**
+		 * The help and the lists are printed by JMH.
+		 */
+		if(cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams() || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+			
+			Main.main(args);
+			return;
+		}
+		
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+		
+		if(cli.getProfilers().isEmpty()) options.addProfiler(GCProfiler.class);
+		
+		if(!cli.getResultFormat().hasValue()) {
+			
+			options.resultFormat(ResultFormatType.JSON);
+			
+			if(!cli.getResult().hasValue()) {
+				
+				Path directory = Paths.get(System.getProperty("benchmarks.results", "benchmarks/target/jmh"));
+				Files.createDirectories(directory);
+				options.result(directory.resolve(LocalDateTime.now().format(TIMESTAMP) + ".json").toString());
+			}
+		}
+		
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,108 @@
+package com.me.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.me.microservices.core.product.api.model.Product;
+import com.me.microservices.core.recommendation.api.model.PagedRecommendation;
+import com.me.microservices.core.recommendation.api.model.Recommendation;
+import com.me.microservices.core.review.api.model.PageMetadata;
+import com.me.microservices.core.review.api.model.PagedReview;
+import com.me.microservices.core.review.api.model.Review;
+
+/**
+ * Data of the benchmarks, shaped like the responses of the core services : a page of <i>size</i> elements
+ * with texts of a real review.
+ * @author rudysaniez @since 0.0.1
+ */
+public final class Fixtures {
+	
+	public static final int PRODUCT_ID = 1;
+	
+	private static final String SUBJECT = "Good product, fast delivery";
+	private static final String CONTENT = "The product is exactly as described, the quality is good and the delivery was fast. " +
+			"I have used it every day for two weeks without any problem, I recommend it.";
+	private static final LocalDateTime DATE = LocalDateTime.of(2020, 11, 1, 10, 30);
+	
+	private Fixtures() {}
+	
+	/**
+	 * @return {@link Product}
+	 */
+	public static Product product() {
+		return new Product().productID(PRODUCT_ID).name("Product " + PRODUCT_ID).weight(250);
+	}
+	
+	/**
+	 * @param size
+	 * @return list of {@link Review}
+	 */
+	public static List<Review> reviews(int size) {
+		
+		List<Review> reviews = new ArrayList<>(size);
+		
+		for(int i = 1; i <= size; i++)
+			reviews.add(new Review().reviewID(i).productID(PRODUCT_ID).author("author-" + i).
+					subject(SUBJECT).content(CONTENT).creationDate(DATE).updateDate(DATE));
+		
+		return reviews;
+	}
+	
+	/**
+	 * @param size
+	 * @return list of {@link Recommendation}
+	 */
+	public static List<Recommendation> recommendations(int size) {
+		
+		List<Recommendation> recommendations = new ArrayList<>(size);
+		
+		for(int i = 1; i <= size; i++)
+			recommendations.add(new Recommendation().recommendationID(i).productID(PRODUCT_ID).author("author-" + i).
+					rate(i % 5 + 1).content(CONTENT).creationDate(DATE).updateDate(DATE));
+		
+		return recommendations;
+	}
+	
+	/**
+	 * @param size
+	 * @return {@link PagedReview}, the first page of the reviews
+	 */
+	public static PagedReview pagedReview(int size) {
+		
+		PagedReview page = new PagedReview();
+		page.setContent(reviews(size));
+		page.setPage(new PageMetadata().size((long)size).number(0L).totalElements(size * 10L).totalPages(10L).hasNext(true));
+		return page;
+	}
+	
+	/**
+	 * @param size
+	 * @return {@link PagedRecommendation}, the first page of the recommendations
+	 */
+	public static PagedRecommendation pagedRecommendation(int size) {
+		
+		PagedRecommendation page = new PagedRecommendation();
+		page.setContent(recommendations(size));
+		page.setPage(new com.me.microservices.core.recommendation.api.model.PageMetadata().
+				size((long)size).number(0L).totalElements(size * 10L).totalPages(10L).hasNext(true));
+		return page;
+	}
+	
+	/**
+	 * @return {@link ObjectMapper}, configured like the <i>spring.jackson</i> properties of the services
+	 */
+	public static ObjectMapper jack() {
+		
+		return new ObjectMapper().registerModule(new JavaTimeModule()).
+				setSerializationInclusion(JsonInclude.Include.NON_NULL).
+				disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).
+				enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY).
+				disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+	}
+}
@@ -0,0 +1,66 @@
+package com.me.benchmarks.json;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.me.api.event.Event;
+import com.me.benchmarks.Fixtures;
+
+/**
+ * Throughput of the Jackson serialization of an {@link Event}, the payload of the messages sent by the composite
+ * and read by the consumers of the core services.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar EventBenchmark
+ * </pre>
+ * @author rudysaniez @since 0.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class EventBenchmark {
+	
+	private ObjectWriter writer;
+	private ObjectReader reader;
+	
+	private Event<Integer> event;
+	private byte[] json;
+	
+	@Setup
+	public void setup() throws IOException {
+		
+		ObjectMapper jack = Fixtures.jack();
+		writer = jack.writerFor(new TypeReference<Event<Integer>>() {});
+		reader = jack.readerFor(new TypeReference<Event<Integer>>() {});
+		
+		event = new Event<>(Fixtures.PRODUCT_ID, Event.Type.DELETE);
+		json = writer.writeValueAsBytes(event);
+	}
+	
+	@Benchmark
+	public byte[] write() throws IOException {
+		return writer.writeValueAsBytes(event);
+	}
+	
+	@Benchmark
+	public Event<Integer> read() throws IOException {
+		return reader.readValue(json);
+	}
+}
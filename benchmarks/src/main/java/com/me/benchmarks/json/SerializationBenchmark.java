@@ -0,0 +1,91 @@
+package com.me.benchmarks.json;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.me.benchmarks.Fixtures;
+import com.me.microservices.core.composite.services.AggregateFixtures;
+import com.me.microservices.core.productcomposite.api.model.ProductAggregate;
+import com.me.microservices.core.review.api.model.PagedReview;
+
+/**
+ * Throughput of the Jackson serialization of the responses : a {@link ProductAggregate} written by the composite
+ * and a {@link PagedReview} written by the review-service and read by the composite.
+ * The <i>size</i> is the number of reviews and of recommendations, 10 is the default page size.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar SerializationBenchmark
+ * </pre>
+ * @author rudysaniez @since 0.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class SerializationBenchmark {
+	
+	@Param({"10", "100"})
+	private int size;
+	
+	private ObjectWriter aggregateWriter;
+	private ObjectReader aggregateReader;
+	private ObjectWriter reviewWriter;
+	private ObjectReader reviewReader;
+	
+	private ProductAggregate aggregate;
+	private byte[] aggregateJson;
+	private PagedReview pagedReview;
+	private byte[] pagedReviewJson;
+	
+	@Setup
+	public void setup() throws IOException {
+		
+		ObjectMapper jack = Fixtures.jack();
+		aggregateWriter = jack.writerFor(ProductAggregate.class);
+		aggregateReader = jack.readerFor(ProductAggregate.class);
+		reviewWriter = jack.writerFor(PagedReview.class);
+		reviewReader = jack.readerFor(PagedReview.class);
+		
+		aggregate = AggregateFixtures.productAggregate(size);
+		aggregateJson = aggregateWriter.writeValueAsBytes(aggregate);
+		
+		pagedReview = Fixtures.pagedReview(size);
+		pagedReviewJson = reviewWriter.writeValueAsBytes(pagedReview);
+	}
+	
+	@Benchmark
+	public byte[] writeProductAggregate() throws IOException {
+		return aggregateWriter.writeValueAsBytes(aggregate);
+	}
+	
+	@Benchmark
+	public ProductAggregate readProductAggregate() throws IOException {
+		return aggregateReader.readValue(aggregateJson);
+	}
+	
+	@Benchmark
+	public byte[] writePagedReview() throws IOException {
+		return reviewWriter.writeValueAsBytes(pagedReview);
+	}
+	
+	@Benchmark
+	public PagedReview readPagedReview() throws IOException {
+		return reviewReader.readValue(pagedReviewJson);
+	}
+}
@@ -0,0 +1,124 @@
+package com.me.benchmarks.mapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.me.benchmarks.Fixtures;
+import com.me.microservices.core.composite.mapper.PagedMapper;
+import com.me.microservices.core.composite.mapper.RecommendationMapper;
+import com.me.microservices.core.composite.mapper.ReviewMapper;
+import com.me.microservices.core.product.api.model.Product;
+import com.me.microservices.core.product.bo.ProductEntity;
+import com.me.microservices.core.product.mapper.ProductMapper;
+import com.me.microservices.core.productcomposite.api.model.PagedRecommendationSummary;
+import com.me.microservices.core.productcomposite.api.model.PagedReviewSummary;
+import com.me.microservices.core.productcomposite.api.model.RecommendationSummary;
+import com.me.microservices.core.productcomposite.api.model.ReviewSummary;
+import com.me.microservices.core.recommendation.api.model.PagedRecommendation;
+import com.me.microservices.core.recommendation.api.model.Recommendation;
+import com.me.microservices.core.review.api.model.PagedReview;
+import com.me.microservices.core.review.api.model.Review;
+
+/**
+ * Throughput of the MapStruct mappers, on one element and on a page of <i>size</i> elements.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar MapperBenchmark
+ * </pre>
+ * @author rudysaniez @since 0.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class MapperBenchmark {
+	
+	@Param({"10", "100"})
+	private int size;
+	
+	private final ReviewMapper reviewMapper = Mappers.getMapper(ReviewMapper.class);
+	private final RecommendationMapper recommendationMapper = Mappers.getMapper(RecommendationMapper.class);
+	private final PagedMapper pagedMapper = Mappers.getMapper(PagedMapper.class);
+	private final ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
+	
+	private List<Review> reviews;
+	private List<ReviewSummary> reviewSummaries;
+	private List<Recommendation> recommendations;
+	private List<RecommendationSummary> recommendationSummaries;
+	private PagedReview pagedReview;
+	private PagedRecommendation pagedRecommendation;
+	private Product product;
+	private ProductEntity productEntity;
+	
+	@Setup
+	public void setup() {
+		
+		reviews = Fixtures.reviews(size);
+		reviewSummaries = reviewMapper.toSummaries(reviews);
+		recommendations = Fixtures.recommendations(size);
+		recommendationSummaries = recommendationMapper.toSummaries(recommendations);
+		pagedReview = Fixtures.pagedReview(size);
+		pagedRecommendation = Fixtures.pagedRecommendation(size);
+		product = Fixtures.product();
+		productEntity = productMapper.toEntity(product);
+	}
+	
+	@Benchmark
+	public ReviewSummary reviewToSummary() {
+		return reviewMapper.toSummary(reviews.get(0));
+	}
+	
+	@Benchmark
+	public List<ReviewSummary> reviewsToSummaries() {
+		return reviewMapper.toSummaries(reviews);
+	}
+	
+	@Benchmark
+	public List<Review> reviewSummariesToCoreModels() {
+		return reviewMapper.toCoreModels(reviewSummaries);
+	}
+	
+	@Benchmark
+	public List<RecommendationSummary> recommendationsToSummaries() {
+		return recommendationMapper.toSummaries(recommendations);
+	}
+	
+	@Benchmark
+	public List<Recommendation> recommendationSummariesToCoreModels() {
+		return recommendationMapper.toCoreModels(recommendationSummaries);
+	}
+	
+	@Benchmark
+	public PagedReviewSummary pagedReviewToSummary() {
+		return pagedMapper.toPageReviewSummary(pagedReview);
+	}
+	
+	@Benchmark
+	public PagedRecommendationSummary pagedRecommendationToSummary() {
+		return pagedMapper.toPagedRecommendationSummary(pagedRecommendation);
+	}
+	
+	@Benchmark
+	public Product productToModel() {
+		return productMapper.toModel(productEntity);
+	}
+	
+	@Benchmark
+	public ProductEntity productToEntity() {
+		return productMapper.toEntity(product);
+	}
+}
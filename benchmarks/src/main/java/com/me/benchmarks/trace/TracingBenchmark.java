@@ -0,0 +1,87 @@
+package com.me.benchmarks.trace;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.me.api.trace.LoggingSpanExporter;
+import com.me.api.trace.ReactiveTracer;
+import com.me.api.trace.Tracing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Throughput of a pipeline shaped like the services ones (a lookup, two maps and a page of ten elements) with 
+ * the <i>log()</i> operator after each step, and with the {@link ReactiveTracer} disabled, sampled at 1% and always on.
+ * <pre>
+ * mvn -pl benchmarks -am package
+ * java -jar benchmarks/target/benchmarks.jar TracingBenchmark -rf json -rff target/tracing.json
+ * </pre>
+ * @author rudysaniez @since 0.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class TracingBenchmark {
+	
+	private static final int PAGE_SIZE = 10;
+	
+	private final ReactiveTracer disabled = new ReactiveTracer(new Tracing(false, 0.01, new LoggingSpanExporter()));
+	private final ReactiveTracer sampled = new ReactiveTracer(new Tracing(true, 0.01, new LoggingSpanExporter()));
+	private final ReactiveTracer always = new ReactiveTracer(new Tracing(true, 1, new LoggingSpanExporter()));
+	
+	@Benchmark
+	public Integer withoutTracing() {
+		return pipeline().block();
+	}
+	
+	@Benchmark
+	public Integer logPerOperator() {
+		
+		return Mono.just(1).log().
+				map(id -> id + 1).log().
+				flatMapMany(id -> Flux.range(id, PAGE_SIZE)).log().
+				map(id -> id * 2).log().
+				reduce(Integer::sum).log().
+				block();
+	}
+	
+	@Benchmark
+	public Integer tracerDisabled() {
+		return pipeline().transform(disabled.mono("getProduct", "productId", 1)).block();
+	}
+	
+	@Benchmark
+	public Integer tracerSampled() {
+		return pipeline().transform(sampled.mono("getProduct", "productId", 1)).block();
+	}
+	
+	@Benchmark
+	public Integer tracerAlways() {
+		return pipeline().transform(always.mono("getProduct", "productId", 1)).block();
+	}
+	
+	/**
+	 * @return mono of the sum of the page
+	 */
+	private static Mono<Integer> pipeline() {
+		
+		return Mono.just(1).
+				map(id -> id + 1).
+				flatMapMany(id -> Flux.range(id, PAGE_SIZE)).
+				map(id -> id * 2).
+				reduce(Integer::sum);
+	}
+}
@@ -0,0 +1,24 @@
+package com.me.microservices.core.composite.services;
+
+import com.me.benchmarks.Fixtures;
+import com.me.microservices.core.productcomposite.api.model.ProductAggregate;
+
+/**
+ * Product-aggregates of the benchmarks, assembled by the composite from the {@link Fixtures}.
+ * @author rudysaniez @since 0.0.1
+ */
+public final class AggregateFixtures {
+	
+	private AggregateFixtures() {}
+	
+	/**
+	 * @param size : number of recommendations and of reviews
+	 * @return complete {@link ProductAggregate}
+	 */
+	public static ProductAggregate productAggregate(int size) {
+		
+		return new ProductCompositeServiceImpl().createProductAggregate(Fixtures.product(),
+				AggregateSection.complete(Fixtures.pagedRecommendation(size)),
+				AggregateSection.complete(Fixtures.pagedReview(size)));
+	}
+}
@@ -0,0 +1,69 @@
+package com.me.microservices.core.composite.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.me.benchmarks.Fixtures;
+import com.me.microservices.core.product.api.model.Product;
+import com.me.microservices.core.productcomposite.api.model.ProductAggregate;
+import com.me.microservices.core.recommendation.api.model.PagedRecommendation;
+import com.me.microservices.core.review.api.model.PagedReview;
+
+/**
+ * Throughput of the assembly of a product-aggregate by {@link ProductCompositeServiceImpl#createProductAggregate},
+ * with complete sections of <i>size</i> elements and with a degraded aggregate.
+ * The service is created without its integrations, the assembly only uses the mappers. The benchmark is in the package
+ * of the service : <i>createProductAggregate</i> stays package-private.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ProductAggregateBenchmark
+ * </pre>
+ * @author rudysaniez @since 0.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class ProductAggregateBenchmark {
+	
+	@Param({"10", "100"})
+	private int size;
+	
+	private final ProductCompositeServiceImpl service = new ProductCompositeServiceImpl();
+	
+	private Product product;
+	private AggregateSection<PagedRecommendation> recommendations;
+	private AggregateSection<PagedReview> reviews;
+	private AggregateSection<PagedReview> staleReviews;
+	
+	@Setup
+	public void setup() {
+		
+		product = Fixtures.product();
+		recommendations = AggregateSection.complete(Fixtures.pagedRecommendation(size));
+		reviews = AggregateSection.complete(Fixtures.pagedReview(size));
+		staleReviews = AggregateSection.stale(Fixtures.pagedReview(size));
+	}
+	
+	@Benchmark
+	public ProductAggregate complete() {
+		return service.createProductAggregate(product, recommendations, reviews);
+	}
+	
+	@Benchmark
+	public ProductAggregate degraded() {
+		return service.createProductAggregate(product, AggregateSection.unavailable(), staleReviews);
+	}
+}
@@ -13,6 +13,7 @@ import com.me.handler.exception.AlreadyExistsException;
 import com.me.handler.exception.DeletionException;
 import com.me.handler.exception.InvalidInputException;
 import com.me.handler.exception.NotFoundException;
+import com.me.handler.exception.ServiceUnavailableException;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -64,6 +65,17 @@ public class MainControllerExceptionHandler {
 		return createHttpErrorInfo(HttpStatus.UNPROCESSABLE_ENTITY, request, ex);
 	}
 	
+	/**
+	 * @param request
+	 * @param ex
+	 * @return {@link HttpErrorInfo}
+	 */
+	@ResponseStatus(value=HttpStatus.SERVICE_UNAVAILABLE)
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public @ResponseBody HttpErrorInfo handlerServiceUnavailableException(ServerHttpRequest request, Exception ex) {
+		return createHttpErrorInfo(HttpStatus.SERVICE_UNAVAILABLE, request, ex);
+	}
+	
 	/**
 	 * @param httpStatus
 	 * @param request
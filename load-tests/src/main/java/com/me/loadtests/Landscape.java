@@ -0,0 +1,199 @@
+package com.me.loadtests;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.stream.test.binder.MessageCollector;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+
+import com.me.microservices.core.composite.producer.MessageProcessor;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The four services started in this JVM, each one in its own application context with its own configuration
+ * (the <i>config/application.yml</i> of its jar) and a random port.
+ * The core services use an embedded MongoDB, all the services use the test binder of Spring Cloud Stream :
+ * the events published by the composite are relayed to the input of the core services, like a broker.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+public class Landscape implements AutoCloseable {
+	
+	private static final String MONGO_AUTOCONFIGURATIONS = String.join(",",
+			"org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration",
+			"org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration",
+			"org.springframework.boot.autoconfigure.mongo.embedded.EmbeddedMongoAutoConfiguration",
+			"org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration",
+			"org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration",
+			"org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration",
+			"org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration");
+	
+	private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+	private final ExecutorService bridges = Executors.newCachedThreadPool(runnable -> {
+		
+		Thread thread = new Thread(runnable, "event-bridge");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final Map<String, AtomicLong> relayedEvents = new LinkedHashMap<>();
+	
+	private int compositePort;
+	
+	/**
+	 * The core services are started before the composite, which needs their ports.
+	 * @return {@link Landscape}
+	 */
+	public static Landscape start() {
+		
+		Landscape landscape = new Landscape();
+		
+		try {
+			
+			ConfigurableApplicationContext product = landscape.run(com.me.microservices.core.product.Application.class);
+			ConfigurableApplicationContext recommendation = landscape.run(com.me.microservices.core.recommendation.Application.class);
+			ConfigurableApplicationContext review = landscape.run(com.me.microservices.core.review.Application.class);
+			
+			ConfigurableApplicationContext composite = landscape.run(com.me.microservices.core.composite.Application.class,
+					"app.product-service.host=localhost",
+					"app.product-service.port=" + port(product),
+					"app.recommendation-service.host=localhost",
+					"app.recommendation-service.port=" + port(recommendation),
+					"app.review-service.host=localhost",
+					"app.review-service.port=" + port(review),
+					"app.outbox.directory=" + Paths.get(System.getProperty("java.io.tmpdir"), "load-test-outbox-" + UUID.randomUUID()),
+					"spring.autoconfigure.exclude=" + MONGO_AUTOCONFIGURATIONS);
+			
+			landscape.compositePort = port(composite);
+			
+			MessageProcessor channels = composite.getBean(MessageProcessor.class);
+			MessageCollector collector = composite.getBean(MessageCollector.class);
+			
+			landscape.bridge("products", collector.forChannel(channels.outputProducts()),
+					product.getBean(com.me.microservices.core.product.consumer.ProductConsumer.BINDING_NAME, MessageChannel.class));
+			landscape.bridge("recommendations", collector.forChannel(channels.outputRecommendations()),
+					recommendation.getBean(com.me.microservices.core.recommendation.consumer.RecommendationConsumer.BINDING_NAME, MessageChannel.class));
+			landscape.bridge("reviews", collector.forChannel(channels.outputReviews()),
+					review.getBean(com.me.microservices.core.review.consumer.ReviewConsumer.BINDING_NAME, MessageChannel.class));
+			
+			return landscape;
+		}
+		catch(RuntimeException e) {
+			
+			landscape.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * @return the URL of the API of the composite
+	 */
+	public String getCompositeUrl() {
+		return "http://localhost:" + compositePort + "/api/v1";
+	}
+	
+	/**
+	 * @return number of events relayed to each core service
+	 */
+	public Map<String, Long> getRelayedEvents() {
+		
+		Map<String, Long> events = new LinkedHashMap<>();
+		relayedEvents.forEach((destination, count) -> events.put(destination, count.get()));
+		return events;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() {
+		
+		bridges.shutdownNow();
+		
+		for(int i = contexts.size() - 1; i >= 0; i--) contexts.get(i).close();
+	}
+	
+	/**
+	 * The configuration is the <i>config/application.yml</i> of the jar of the application : the four jars have one,
+	 * only the first one of the classpath would be read by default.
+	 * @param application
+	 * @param properties
+	 * @return {@link ConfigurableApplicationContext}
+	 */
+	private ConfigurableApplicationContext run(Class<?> application, String... properties) {
+		
+		List<String> args = new ArrayList<>();
+		args.add("--spring.config.location=" + configLocation(application));
+		args.add("--server.port=0");
+		args.add("--logging.level.root=WARN");
+		args.add("--logging.level.com.me.loadtests=INFO");
+		for(String property : properties) args.add("--" + property);
+		
+		log.info(" > Start {}", application.getName());
+		
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(application).
+				web(WebApplicationType.REACTIVE).
+				bannerMode(Banner.Mode.OFF).
+				run(args.toArray(new String[0]));
+		
+		contexts.add(context);
+		return context;
+	}
+	
+	/**
+	 * @param destination
+	 * @param output : messages published by the composite
+	 * @param input : input of the core service
+	 */
+	private void bridge(String destination, BlockingQueue<Message<?>> output, MessageChannel input) {
+		
+		AtomicLong relayed = new AtomicLong();
+		relayedEvents.put(destination, relayed);
+		
+		bridges.execute(() -> {
+			
+			try {
+				
+				while(!Thread.currentThread().isInterrupted()) {
+					
+					input.send(output.take());
+					relayed.incrementAndGet();
+				}
+			}
+			catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+	}
+	
+	/**
+	 * @param application
+	 * @return location of the configuration of the application, in its jar or in its classes directory
+	 */
+	private static String configLocation(Class<?> application) {
+		
+		String location = application.getProtectionDomain().getCodeSource().getLocation().toString();
+		return location.endsWith(".jar") ? "jar:" + location + "!/config/application.yml" : location + "config/application.yml";
+	}
+	
+	/**
+	 * @param context
+	 * @return the port of the web server
+	 */
+	private static int port(ConfigurableApplicationContext context) {
+		return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+	}
+}
@@ -0,0 +1,63 @@
+package com.me.loadtests;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Load test of the product-composite, without Docker : the four services are started in this JVM ({@link Landscape}),
+ * the products are created, then the mixed {@link Workload} runs during the warm-up and during the measured duration.
+ * The {@link Report} is written in the logs and in <i>load-tests/target/load-test/&lt;yyyyMMdd-HHmmss&gt;.json</i>.
+ * <pre>
+ * mvn -pl load-tests -am install -DskipTests
+ * mvn -pl load-tests exec:exec -Dload-test.args="duration=2m concurrency=64 mix=get=90,create=10"
+ * </pre>
+ * The load generator runs in the same JVM as the services : compare the reports of two versions on the same machine.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+public class LoadTest {
+	
+	private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+	
+	/**
+	 * @param args : options, see {@link LoadTestOptions}
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		
+		LoadTestOptions options = LoadTestOptions.parse(args);
+		log.info(" > {}", options);
+		
+		Report report;
+		
+		try(Landscape landscape = Landscape.start(); Workload workload = new Workload(landscape.getCompositeUrl(), options)) {
+			
+			long seedStart = System.nanoTime();
+			workload.seed().block();
+			log.info(" > {} product-composites created in {} ms", options.getProducts(), Duration.ofNanos(System.nanoTime() - seedStart).toMillis());
+			
+			log.info(" > Warm-up during {}", options.getWarmup());
+			workload.run(options.getWarmup()).block();
+			workload.getStats().values().forEach(OperationStats::reset);
+			
+			log.info(" > Measure during {}", options.getDuration());
+			long start = System.nanoTime();
+			workload.run(options.getDuration()).block();
+			
+			report = new Report(options, Duration.ofNanos(System.nanoTime() - start), workload.getStats().values(), landscape.getRelayedEvents());
+			log.info(report.toTable());
+		}
+		
+		Path file = Paths.get(options.getResults(), LocalDateTime.now().format(TIMESTAMP) + ".json");
+		report.write(file);
+		log.info(" > The report is written in {}", file.toAbsolutePath());
+		
+		System.exit(report.getTotal().getRequests() > 0 ? 0 : 1);
+	}
+}
@@ -0,0 +1,117 @@
+package com.me.loadtests;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import com.me.loadtests.Workload.Operation;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Options of the load test, given as <i>key=value</i> arguments :
+ * <ul>
+ * <li><b>duration</b> : measured duration, 60s by default</li>
+ * <li><b>warmup</b> : duration of the warm-up, not measured, 20s by default</li>
+ * <li><b>concurrency</b> : number of requests in progress, 32 by default</li>
+ * <li><b>rate</b> : requests per second, 0 by default. With 0, each of the <i>concurrency</i> clients sends a request when
+ * the previous one is completed (closed model). Otherwise, the requests are sent at this rate whatever the latency (open model) and the
+ * latency is measured from the scheduled time</li>
+ * <li><b>mix</b> : weight of each operation, get=70,batch-get=10,create=15,delete=5 by default</li>
+ * <li><b>products</b> : number of product-composites created before the warm-up, 1000 by default</li>
+ * <li><b>recommendations</b>, <b>reviews</b> : number of recommendations and of reviews by product-composite, 5 by default</li>
+ * <li><b>batch-size</b> : number of productIDs of a batch-get, 10 by default</li>
+ * <li><b>timeout</b> : timeout of a request, 10s by default</li>
+ * <li><b>results</b> : directory of the JSON reports, load-tests/target/load-test by default</li>
+ * </ul>
+ * @author rudysaniez @since 0.0.1
+ */
+@Getter @ToString
+public class LoadTestOptions {
+	
+	private Duration duration = Duration.ofSeconds(60);
+	private Duration warmup = Duration.ofSeconds(20);
+	private int concurrency = 32;
+	private int rate = 0;
+	private Map<Operation, Integer> mix = parseMix("get=70,batch-get=10,create=15,delete=5");
+	private int products = 1000;
+	private int recommendations = 5;
+	private int reviews = 5;
+	private int batchSize = 10;
+	private Duration timeout = Duration.ofSeconds(10);
+	private String results = "load-tests/target/load-test";
+	
+	/**
+	 * @param args : <i>key=value</i> arguments, several arguments can be separated by spaces in one argument
+	 * @return {@link LoadTestOptions}
+	 */
+	public static LoadTestOptions parse(String... args) {
+		
+		LoadTestOptions options = new LoadTestOptions();
+		
+		for(String arg : args) {
+			
+			for(String option : arg.trim().split("\\s+")) {
+				
+				if(option.isEmpty()) continue;
+				
+				int separator = option.indexOf('=');
+				if(separator < 1) throw new IllegalArgumentException(String.format("The option %s should be key=value.", option));
+				
+				options.set(option.substring(0, separator), option.substring(separator + 1));
+			}
+		}
+		
+		if(options.concurrency < 1) throw new IllegalArgumentException("The concurrency should be greater than 0.");
+		if(options.products < options.batchSize) throw new IllegalArgumentException("The products should be greater than the batch-size.");
+		
+		return options;
+	}
+	
+	/**
+	 * @param key
+	 * @param value
+	 */
+	private void set(String key, String value) {
+		
+		switch(key) {
+			
+			case "duration": duration = DurationStyle.detectAndParse(value); break;
+			case "warmup": warmup = DurationStyle.detectAndParse(value); break;
+			case "concurrency": concurrency = Integer.parseInt(value); break;
+			case "rate": rate = Integer.parseInt(value); break;
+			case "mix": mix = parseMix(value); break;
+			case "products": products = Integer.parseInt(value); break;
+			case "recommendations": recommendations = Integer.parseInt(value); break;
+			case "reviews": reviews = Integer.parseInt(value); break;
+			case "batch-size": batchSize = Integer.parseInt(value); break;
+			case "timeout": timeout = DurationStyle.detectAndParse(value); break;
+			case "results": results = value; break;
+			default: throw new IllegalArgumentException(String.format("The option %s is unknown.", key));
+		}
+	}
+	
+	/**
+	 * @param value : <i>get=70,batch-get=10,create=15,delete=5</i> for example, a missing operation isn't sent
+	 * @return weight of each operation
+	 */
+	private static Map<Operation, Integer> parseMix(String value) {
+		
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		
+		for(String weight : value.split(",")) {
+			
+			String[] pair = weight.split("=");
+			if(pair.length != 2) throw new IllegalArgumentException(String.format("The weight %s should be operation=weight.", weight));
+			
+			mix.put(Operation.of(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+		}
+		
+		if(mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) throw new IllegalArgumentException("The mix should have a weight greater than 0.");
+		
+		return mix;
+	}
+}
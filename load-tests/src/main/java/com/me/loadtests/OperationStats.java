@@ -0,0 +1,89 @@
+package com.me.loadtests;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies and outcomes of an operation. The latencies are recorded in nanoseconds in a HdrHistogram,
+ * with 3 significant digits.
+ * @author rudysaniez @since 0.0.1
+ */
+public class OperationStats {
+	
+	private final String name;
+	private final Recorder latencies = new Recorder(3);
+	private final LongAdder successes = new LongAdder();
+	private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+	
+	public OperationStats(String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * @param status : HTTP status of the response, an error when it isn't 2xx
+	 * @param latencyNanos
+	 */
+	public void record(int status, long latencyNanos) {
+		
+		latencies.recordValue(latencyNanos);
+		
+		if(status >= 200 && status < 300) successes.increment();
+		else errors.computeIfAbsent(String.valueOf(status), s -> new LongAdder()).increment();
+	}
+	
+	/**
+	 * @param error : timeout or connection error, without response
+	 * @param latencyNanos
+	 */
+	public void record(Throwable error, long latencyNanos) {
+		
+		latencies.recordValue(latencyNanos);
+		errors.computeIfAbsent(error.getClass().getSimpleName(), s -> new LongAdder()).increment();
+	}
+	
+	/**
+	 * The warm-up is forgotten.
+	 */
+	public void reset() {
+		
+		latencies.reset();
+		successes.reset();
+		errors.clear();
+	}
+	
+	/**
+	 * @return the name of the operation
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * @return the latencies recorded since the last call, or since the reset
+	 */
+	public Histogram takeLatencies() {
+		return latencies.getIntervalHistogram();
+	}
+	
+	/**
+	 * @return number of responses 2xx
+	 */
+	public long getSuccesses() {
+		return successes.sum();
+	}
+	
+	/**
+	 * @return number of errors by HTTP status or by exception
+	 */
+	public Map<String, Long> getErrors() {
+		
+		Map<String, Long> counts = new TreeMap<>();
+		errors.forEach((error, count) -> counts.put(error, count.sum()));
+		return counts;
+	}
+}
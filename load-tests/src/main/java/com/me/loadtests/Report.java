@@ -0,0 +1,155 @@
+package com.me.loadtests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of a load test : throughput, latency percentiles and error rate of each operation and of the whole mix.
+ * It's written in the logs and in a JSON file, to compare two runs.
+ * @author rudysaniez @since 0.0.1
+ */
+@Getter
+public class Report {
+	
+	private final LocalDateTime date = LocalDateTime.now();
+	private final LoadTestOptions options;
+	private final double durationSeconds;
+	private final List<OperationReport> operations = new ArrayList<>();
+	private final OperationReport total;
+	private final Map<String, Long> relayedEvents;
+	
+	/**
+	 * @param options
+	 * @param duration : measured duration
+	 * @param stats : stats of each operation, since the end of the warm-up
+	 * @param relayedEvents : events received by the core services
+	 */
+	public Report(LoadTestOptions options, Duration duration, Iterable<OperationStats> stats, Map<String, Long> relayedEvents) {
+		
+		this.options = options;
+		this.durationSeconds = duration.toNanos() / 1e9;
+		this.relayedEvents = relayedEvents;
+		
+		Histogram all = null;
+		long successes = 0;
+		Map<String, Long> errors = new LinkedHashMap<>();
+		
+		for(OperationStats operation : stats) {
+			
+			Histogram latencies = operation.takeLatencies();
+			operations.add(OperationReport.of(operation.getName(), latencies, operation.getSuccesses(), operation.getErrors(), durationSeconds));
+			
+			if(all == null) all = latencies.copy();
+			else all.add(latencies);
+			
+			successes += operation.getSuccesses();
+			operation.getErrors().forEach((error, count) -> errors.merge(error, count, Long::sum));
+		}
+		
+		this.total = OperationReport.of("total", all != null ? all : new Histogram(3), successes, errors, durationSeconds);
+	}
+	
+	/**
+	 * @return the report as a table
+	 */
+	public String toTable() {
+		
+		StringBuilder table = new StringBuilder(String.format("%n%-10s %10s %10s %8s %9s %9s %9s %9s %9s%n",
+				"operation", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms"));
+		
+		operations.forEach(operation -> table.append(operation.toRow()));
+		table.append(total.toRow());
+		
+		if(!total.getErrors().isEmpty()) table.append(String.format("errors : %s%n", total.getErrors()));
+		table.append(String.format("events relayed to the core services : %s%n", relayedEvents));
+		
+		return table.toString();
+	}
+	
+	/**
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write(Path file) throws IOException {
+		
+		Files.createDirectories(file.getParent());
+		
+		new ObjectMapper().registerModule(new JavaTimeModule()).
+				disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).
+				disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS).
+				enable(SerializationFeature.INDENT_OUTPUT).
+				writeValue(file.toFile(), this);
+	}
+	
+	/**
+	 * Result of an operation, the latencies are in milliseconds.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter
+	@AllArgsConstructor
+	public static class OperationReport {
+		
+		private final String operation;
+		private final long requests;
+		private final double throughput;
+		private final double errorRate;
+		private final Map<String, Long> errors;
+		private final double p50;
+		private final double p95;
+		private final double p99;
+		private final double p999;
+		private final double max;
+		
+		/**
+		 * @param operation
+		 * @param latencies : in nanoseconds
+		 * @param successes
+		 * @param errors
+		 * @param durationSeconds
+		 * @return {@link OperationReport}
+		 */
+		static OperationReport of(String operation, Histogram latencies, long successes, Map<String, Long> errors, double durationSeconds) {
+			
+			long failures = errors.values().stream().mapToLong(Long::longValue).sum();
+			long requests = successes + failures;
+			
+			return new OperationReport(operation, requests, requests / durationSeconds, requests > 0 ? (double)failures / requests : 0, errors,
+					millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(95)),
+					millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue()));
+		}
+		
+		/**
+		 * @return a row of the table
+		 */
+		String toRow() {
+			
+			return String.format("%-10s %10d %10.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+					operation, requests, throughput, errorRate * 100, p50, p95, p99, p999, max);
+		}
+		
+		/**
+		 * @param nanos
+		 * @return milliseconds
+		 */
+		private static double millis(long nanos) {
+			return nanos / (double)TimeUnit.MILLISECONDS.toNanos(1);
+		}
+	}
+}
@@ -0,0 +1,290 @@
+package com.me.loadtests;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.me.microservices.core.productcomposite.api.model.ProductComposite;
+import com.me.microservices.core.productcomposite.api.model.RecommendationSummary;
+import com.me.microservices.core.productcomposite.api.model.ReviewSummary;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Mixed workload of <i>/products-composite</i>. The operations are drawn at random with the weights of the mix :
+ * <ul>
+ * <li><b>get</b> : a product-aggregate among the created ones</li>
+ * <li><b>batch-get</b> : <i>batch-size</i> product-aggregates</li>
+ * <li><b>create</b> : a new product-composite with its recommendations and its reviews</li>
+ * <li><b>delete</b> : a product-composite created by the workload, the core services delete it when they receive the events</li>
+ * </ul>
+ * @author rudysaniez @since 0.0.1
+ */
+public class Workload implements AutoCloseable {
+	
+	private static final int IDS_BY_PRODUCT = 100;
+	
+	private final LoadTestOptions options;
+	private final ConnectionProvider provider;
+	private final WebClient client;
+	private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+	private final Operation[] operations;
+	private final int[] cumulativeWeights;
+	
+	private final AtomicInteger nextProductID;
+	private final Queue<Integer> deletable = new ConcurrentLinkedQueue<>();
+	
+	public Workload(String baseUrl, LoadTestOptions options) {
+		
+		this.options = options;
+		this.provider = ConnectionProvider.builder("load-test").
+				maxConnections(Math.max(options.getConcurrency(), 100)).
+				pendingAcquireMaxCount(-1).
+				build();
+		this.client = WebClient.builder().
+				baseUrl(baseUrl).
+				clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider))).
+				build();
+		this.nextProductID = new AtomicInteger(options.getProducts() + 1);
+		
+		List<Operation> drawn = new ArrayList<>();
+		List<Integer> weights = new ArrayList<>();
+		int total = 0;
+		
+		for(Map.Entry<Operation, Integer> weight : options.getMix().entrySet()) {
+			
+			if(weight.getValue() <= 0) continue;
+			
+			total += weight.getValue();
+			drawn.add(weight.getKey());
+			weights.add(total);
+			stats.put(weight.getKey(), new OperationStats(weight.getKey().getName()));
+		}
+		
+		this.operations = drawn.toArray(new Operation[0]);
+		this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+	}
+	
+	/**
+	 * The products 1 to <i>products</i> read by the workload, they are never deleted.
+	 * @return mono of {@link Void}, completed when all the product-composites are created
+	 */
+	public Mono<Void> seed() {
+		
+		return Flux.range(1, options.getProducts()).
+				flatMap(productID -> create(productID).
+						filter(status -> status == 201).
+						switchIfEmpty(Mono.error(() -> new IllegalStateException(String.format("The product-composite %d can't be created.", productID)))),
+						Math.min(options.getConcurrency(), 16)).
+				then();
+	}
+	
+	/**
+	 * Without <i>rate</i>, each of the <i>concurrency</i> clients sends a request when the previous one is completed.
+	 * With <i>rate</i>, a request is scheduled every <i>1s / rate</i>, its latency includes the wait for a free client.
+	 * @param duration
+	 * @return mono of {@link Void}, completed at the end of the duration, when the last requests are completed
+	 */
+	public Mono<Void> run(Duration duration) {
+		
+		if(options.getRate() > 0) {
+			
+			long period = Duration.ofSeconds(1).toNanos() / options.getRate();
+			
+			return Mono.defer(() -> {
+				
+				long start = System.nanoTime();
+				
+				return Flux.interval(Duration.ofNanos(period)).
+						take(duration).
+						onBackpressureBuffer().
+						flatMap(tick -> execute(draw(), start + (tick + 1) * period), options.getConcurrency()).
+						then();
+			});
+		}
+		
+		return Mono.defer(() -> {
+			
+			long end = System.nanoTime() + duration.toNanos();
+			
+			return Flux.range(0, options.getConcurrency()).
+					flatMap(client -> Mono.defer(() -> execute(draw(), System.nanoTime())).
+							repeat(() -> System.nanoTime() < end),
+							options.getConcurrency()).
+					then();
+		});
+	}
+	
+	/**
+	 * @return stats of each operation of the mix
+	 */
+	public Map<Operation, OperationStats> getStats() {
+		return stats;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() {
+		provider.dispose();
+	}
+	
+	/**
+	 * @return an operation, drawn with the weights of the mix
+	 */
+	private Operation draw() {
+		
+		int drawn = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		
+		for(int i = 0; i < cumulativeWeights.length; i++)
+			if(drawn < cumulativeWeights[i]) return operations[i];
+		
+		return operations[operations.length - 1];
+	}
+	
+	/**
+	 * An error is recorded, it doesn't stop the workload.
+	 * @param operation
+	 * @param scheduledAt : from {@link System#nanoTime()}
+	 * @return mono of {@link Void}, completed when the response is read
+	 */
+	private Mono<Void> execute(Operation operation, long scheduledAt) {
+		
+		OperationStats operationStats = stats.get(operation);
+		
+		return call(operation).
+				timeout(options.getTimeout()).
+				doOnNext(status -> operationStats.record(status, System.nanoTime() - scheduledAt)).
+				onErrorResume(e -> {
+					
+					operationStats.record(e, System.nanoTime() - scheduledAt);
+					return Mono.empty();
+				}).
+				then();
+	}
+	
+	/**
+	 * @param operation
+	 * @return mono of the HTTP status
+	 */
+	private Mono<Integer> call(Operation operation) {
+		
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		
+		switch(operation) {
+			
+			case GET:
+				return status(client.get().uri("/products-composite/{productId}", random.nextInt(1, options.getProducts() + 1)).
+						accept(MediaType.APPLICATION_JSON).exchange());
+			
+			case BATCH_GET:
+				int first = random.nextInt(1, options.getProducts() - options.getBatchSize() + 2);
+				return status(client.post().uri("/products-composite/batch-get").
+						contentType(MediaType.APPLICATION_JSON).
+						accept(MediaType.APPLICATION_JSON).
+						bodyValue(IntStream.range(first, first + options.getBatchSize()).boxed().collect(Collectors.toList())).
+						exchange());
+			
+			case CREATE:
+				int productID = nextProductID.getAndIncrement();
+				return create(productID).
+						doOnNext(status -> {
+							if(status == 201) deletable.offer(productID);
+						});
+			
+			case DELETE:
+				Integer deleted = deletable.poll();
+				return status(client.delete().uri("/products-composite/{productId}", deleted != null ? deleted : nextProductID.getAndIncrement()).
+						exchange());
+			
+			default:
+				return Mono.error(new IllegalArgumentException(operation.getName()));
+		}
+	}
+	
+	/**
+	 * @param productID
+	 * @return mono of the HTTP status
+	 */
+	private Mono<Integer> create(int productID) {
+		
+		ProductComposite product = new ProductComposite().productID(productID).
+				name("product-" + productID).weight(ThreadLocalRandom.current().nextInt(1, 1000));
+		
+		for(int i = 1; i <= options.getRecommendations(); i++)
+			product.addRecommendationsItem(new RecommendationSummary().recommendationID(productID * IDS_BY_PRODUCT + i).
+					author("author-" + i).rate(i % 5 + 1).content("Recommendation " + i + " of the product " + productID));
+		
+		for(int i = 1; i <= options.getReviews(); i++)
+			product.addReviewsItem(new ReviewSummary().reviewID(productID * IDS_BY_PRODUCT + i).
+					author("author-" + i).subject("Review " + i).content("Review " + i + " of the product " + productID));
+		
+		return status(client.post().uri("/products-composite").
+				contentType(MediaType.APPLICATION_JSON).
+				accept(MediaType.APPLICATION_JSON).
+				bodyValue(product).
+				exchange());
+	}
+	
+	/**
+	 * The body is read : the latency includes the transfer of the response.
+	 * @param response
+	 * @return mono of the HTTP status
+	 */
+	private static Mono<Integer> status(Mono<ClientResponse> response) {
+		
+		return response.flatMap(r -> r.bodyToMono(byte[].class).
+				then(Mono.fromSupplier(r::rawStatusCode)));
+	}
+	
+	/**
+	 * Operations of the workload.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	public enum Operation {
+		
+		GET("get"), BATCH_GET("batch-get"), CREATE("create"), DELETE("delete");
+		
+		private final String name;
+		
+		private Operation(String name) {
+			this.name = name;
+		}
+		
+		/**
+		 * @return the name of the operation in the mix
+		 */
+		public String getName() {
+			return name;
+		}
+		
+		/**
+		 * @param name
+		 * @return {@link Operation}
+		 */
+		public static Operation of(String name) {
+			
+			for(Operation operation : values())
+				if(operation.name.equals(name)) return operation;
+			
+			throw new IllegalArgumentException(String.format("The operation %s is unknown, it should be get, batch-get, create or delete.", name));
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package com.me.microservices.core.composite;
 
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,19 +17,31 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.stream.annotation.EnableBinding;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.util.unit.DataSize;
 
 import com.me.api.core.product.health.ProductHealth;
 import com.me.api.core.recommendation.health.RecommendationHealth;
 import com.me.api.core.review.health.ReviewHealth;
+import com.me.microservices.core.composite.cache.AggregateKey;
+import com.me.microservices.core.composite.cache.LastKnownGoodCache;
+import com.me.microservices.core.composite.cache.RequestCoalescer;
 import com.me.microservices.core.composite.producer.MessageProcessor;
+import com.me.microservices.core.productcomposite.api.model.ProductAggregate;
+import com.me.microservices.core.recommendation.api.model.PagedRecommendation;
+import com.me.microservices.core.review.api.model.PagedReview;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import lombok.Setter;
 import reactor.core.publisher.Mono;
 
 @EnableBinding(value = MessageProcessor.class)
-@EnableConfigurationProperties(value=Application.PaginationInformation.class)
-@ComponentScan(basePackages= {"com.me.microservices.core", "com.me.handler.http"})
+@EnableConfigurationProperties(value={Application.PaginationInformation.class, Application.AggregateCacheInformation.class, 
+		Application.DegradationInformation.class, Application.PublisherInformation.class, 
+		Application.OutboxInformation.class, Application.BatchGetInformation.class})
+@ComponentScan(basePackages= {"com.me.microservices.core.composite", "com.me.handler.http", "com.me.api.trace", "com.me.api.metrics"})
 @SpringBootApplication
 public class Application {
 	
@@ -43,10 +57,148 @@ public class Application {
 		private int pageSize;
 	}
 	
+	/**
+	 * Bulk read of product-aggregates : maximum number of productIDs in one request.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="api.batch-get")
+	public static class BatchGetInformation {
+		
+		private int maxKeys = 100;
+	}
+	
+	/**
+	 * Product-aggregate cache settings.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="app.aggregate-cache")
+	public static class AggregateCacheInformation {
+		
+		private boolean enabled = true;
+		private Duration timeToLive = Duration.ofSeconds(10);
+		private long maximumSize = 10_000;
+	}
+	
+	/**
+	 * Partial-degradation of the product-aggregate : the recommendations and the reviews have their own deadline, 
+	 * after it the last known good section is returned, or no section.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="app.aggregate-degradation")
+	public static class DegradationInformation {
+		
+		private boolean enabled = true;
+		private Duration recommendationsDeadline = Duration.ofMillis(150);
+		private Duration reviewsDeadline = Duration.ofMillis(150);
+		private Duration lastKnownGoodTimeToLive = Duration.ofMinutes(30);
+		private long lastKnownGoodMaximumSize = 10_000;
+	}
+	
+	/**
+	 * Outboxes of the event publisher : capacity, send timeout and publisher confirms.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="app.event-publisher")
+	public static class PublisherInformation {
+		
+		private int capacity = 10_000;
+		private Duration sendTimeout = Duration.ofSeconds(5);
+		private boolean confirms = false;
+		private Duration confirmTimeout = Duration.ofSeconds(5);
+	}
+	
+	/**
+	 * Durable outbox of the delete events and its relay to the broker.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="app.outbox")
+	public static class OutboxInformation {
+		
+		private String directory = Paths.get(System.getProperty("java.io.tmpdir"), "product-composite-outbox").toString();
+		private boolean sync = true;
+		private int capacity = 1_000_000;
+		private DataSize maxJournalSize = DataSize.ofMegabytes(64);
+		private Duration relayInterval = Duration.ofMillis(100);
+		private int batchSize = 500;
+		private Duration firstBackoff = Duration.ofMillis(500);
+		private Duration maxBackoff = Duration.ofSeconds(30);
+		private int maxAttempts = 10;
+	}
+	
+	/**
+	 * Connection pool and HTTP client settings of a downstream service, bound from <i>app.&lt;service&gt;.pool</i>.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	public static class ConnectionPoolInformation {
+		
+		private int maxConnections = 50;
+		private int pendingAcquireMaxCount = 500;
+		private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+		private Duration maxIdleTime = Duration.ofSeconds(30);
+		private Duration maxLifeTime = Duration.ofMinutes(5);
+		private Duration connectTimeout = Duration.ofSeconds(2);
+		private Duration responseTimeout = Duration.ofSeconds(5);
+		private boolean keepAlive = true;
+		private boolean h2c = false;
+	}
+	
+	/**
+	 * Timeouts and retries of the calls to a downstream service, bound from <i>app.&lt;service&gt;.resilience</i>.
+	 * The retries are reserved to the reads.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	public static class ResilienceInformation {
+		
+		private Duration readTimeout = Duration.ofSeconds(3);
+		private Duration writeTimeout = Duration.ofSeconds(10);
+		private int maxRetries = 2;
+		private Duration firstBackoff = Duration.ofMillis(100);
+		private Duration maxBackoff = Duration.ofSeconds(1);
+		private double jitter = 0.5;
+	}
+	
+	/**
+	 * @param registry
+	 * @return {@link RequestCoalescer} of the product-aggregate reads
+	 */
+	@Bean
+	public RequestCoalescer<AggregateKey, ProductAggregate> aggregateCoalescer(MeterRegistry registry) {
+		return new RequestCoalescer<>("product-aggregate", registry);
+	}
+	
+	/**
+	 * @param information
+	 * @param registry
+	 * @return {@link LastKnownGoodCache} of the recommendations sections
+	 */
+	@Bean
+	public LastKnownGoodCache<AggregateKey, PagedRecommendation> lastKnownRecommendations(DegradationInformation information, MeterRegistry registry) {
+		return new LastKnownGoodCache<>("last-known-recommendations", information.getLastKnownGoodTimeToLive(), 
+				information.getLastKnownGoodMaximumSize(), registry);
+	}
+	
+	/**
+	 * @param information
+	 * @param registry
+	 * @return {@link LastKnownGoodCache} of the reviews sections
+	 */
+	@Bean
+	public LastKnownGoodCache<AggregateKey, PagedReview> lastKnownReviews(DegradationInformation information, MeterRegistry registry) {
+		return new LastKnownGoodCache<>("last-known-reviews", information.getLastKnownGoodTimeToLive(), 
+				information.getLastKnownGoodMaximumSize(), registry);
+	}
 	
 	@Autowired private ProductHealth productHealth;
 	@Autowired private RecommendationHealth recommendationHealth;
 	@Autowired private ReviewHealth reviewHealth;
+	@Autowired private CircuitBreakerRegistry circuitBreakerRegistry;
 	
 	@Bean
 	public CompositeReactiveHealthContributor coreMicroservices() {
@@ -54,21 +206,21 @@ public class Application {
 		ReactiveHealthContributor productContributor = new ReactiveHealthIndicator() {
 			@Override
 			public Mono<Health> health() {
-				return productHealth.getProductHealth();
+				return productHealth.getProductHealth().map(h -> withCircuitBreaker(h, "product-service"));
 			}
 		};
 		
 		ReactiveHealthContributor recommendationContributor = new ReactiveHealthIndicator() {
 			@Override
 			public Mono<Health> health() {
-				return recommendationHealth.getRecommendationHealth();
+				return recommendationHealth.getRecommendationHealth().map(h -> withCircuitBreaker(h, "recommendation-service"));
 			}
 		};
 		
 		ReactiveHealthContributor reviewContributor = new ReactiveHealthIndicator() {
 			@Override
 			public Mono<Health> health() {
-				return reviewHealth.getReviewHealth();
+				return reviewHealth.getReviewHealth().map(h -> withCircuitBreaker(h, "review-service"));
 			}
 		};
 		
@@ -79,4 +231,31 @@ public class Application {
 		
 		return CompositeReactiveHealthContributor.fromMap(contributors);
 	}
+	
+	/**
+	 * @param health : health of the downstream service
+	 * @param service
+	 * @return {@link Health} with the state of the circuit breaker, down when the circuit breaker is open
+	 */
+	private Health withCircuitBreaker(Health health, String service) {
+		
+		CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(service);
+		CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+		
+		Map<String, Object> details = new HashMap<>();
+		details.put("state", circuitBreaker.getState());
+		details.put("failureRate", metrics.getFailureRate());
+		details.put("slowCallRate", metrics.getSlowCallRate());
+		details.put("bufferedCalls", metrics.getNumberOfBufferedCalls());
+		details.put("failedCalls", metrics.getNumberOfFailedCalls());
+		details.put("notPermittedCalls", metrics.getNumberOfNotPermittedCalls());
+		
+		boolean open = CircuitBreaker.State.OPEN.equals(circuitBreaker.getState()) || 
+				CircuitBreaker.State.FORCED_OPEN.equals(circuitBreaker.getState());
+		
+		return (open ? Health.down() : Health.status(health.getStatus())).
+				withDetails(health.getDetails()).
+				withDetail("circuitBreaker", details).
+				build();
+	}
 }
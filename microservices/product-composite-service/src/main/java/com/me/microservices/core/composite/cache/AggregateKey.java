@@ -0,0 +1,56 @@
+package com.me.microservices.core.composite.cache;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Identify a product-aggregate : the product and the page of recommendations and reviews attached.
+ * The page is given by its number, or by the cursors of the recommendations and the reviews.
+ * The first page of a bulk read has its own key : its sections have no total, they aren't interchangeable with the sections of a GET.
+ * @author rudysaniez @since 0.0.1
+ */
+@Getter @EqualsAndHashCode @ToString
+@AllArgsConstructor(access=AccessLevel.PRIVATE)
+public class AggregateKey {
+
+	private final Integer productID;
+	private final Integer pageNumber;
+	private final Integer pageSize;
+	private final String recommendationsCursor;
+	private final String reviewsCursor;
+	private final boolean bulk;
+	
+	/**
+	 * @param productID
+	 * @param pageNumber
+	 * @param pageSize
+	 * @param recommendationsCursor
+	 * @param reviewsCursor
+	 * @return {@link AggregateKey}
+	 */
+	public static AggregateKey of(Integer productID, Integer pageNumber, Integer pageSize, String recommendationsCursor, String reviewsCursor) {
+		return new AggregateKey(productID, pageNumber, pageSize, recommendationsCursor, reviewsCursor, false);
+	}
+	
+	/**
+	 * @param productID
+	 * @param pageNumber
+	 * @param pageSize
+	 * @return {@link AggregateKey} without cursor
+	 */
+	public static AggregateKey of(Integer productID, Integer pageNumber, Integer pageSize) {
+		return of(productID, pageNumber, pageSize, null, null);
+	}
+	
+	/**
+	 * @param productID
+	 * @param pageSize
+	 * @return {@link AggregateKey} of the first page read in bulk
+	 */
+	public static AggregateKey bulk(Integer productID, Integer pageSize) {
+		return new AggregateKey(productID, 0, pageSize, null, null, true);
+	}
+}
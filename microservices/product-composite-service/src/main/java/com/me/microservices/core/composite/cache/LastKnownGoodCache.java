@@ -0,0 +1,63 @@
+package com.me.microservices.core.composite.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Last successful response of a downstream service, returned as a stale value when the service is slow or down.
+ * Its time to live is longer than the one of the {@link ProductAggregateCache}, it's never used when the service responds in time.
+ * @author rudysaniez @since 0.0.1
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LastKnownGoodCache<K, V> {
+	
+	private final Cache<K, V> cache;
+	
+	/**
+	 * @param name : name of the cache in the metrics
+	 * @param timeToLive
+	 * @param maximumSize
+	 * @param registry
+	 */
+	public LastKnownGoodCache(String name, Duration timeToLive, long maximumSize, MeterRegistry registry) {
+		
+		this.cache = Caffeine.newBuilder().
+				maximumSize(maximumSize).
+				expireAfterWrite(timeToLive).
+				recordStats().
+				build();
+		
+		CaffeineCacheMetrics.monitor(registry, cache, name);
+	}
+	
+	/**
+	 * @param key
+	 * @param value
+	 */
+	public void put(K key, V value) {
+		cache.put(key, value);
+	}
+	
+	/**
+	 * @param key
+	 * @return optional of the last known value
+	 */
+	public Optional<V> get(K key) {
+		return Optional.ofNullable(cache.getIfPresent(key));
+	}
+	
+	/**
+	 * @param filter : the keys to remove
+	 */
+	public void invalidate(Predicate<K> filter) {
+		cache.asMap().keySet().removeIf(filter);
+	}
+}
@@ -0,0 +1,137 @@
+package com.me.microservices.core.composite.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.me.microservices.core.composite.Application.AggregateCacheInformation;
+import com.me.microservices.core.productcomposite.api.model.ProductAggregate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded in-memory cache of {@link ProductAggregate}.
+ * The hit, miss and eviction metrics are published under the cache name {@value #CACHE_NAME}.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+@Component
+public class ProductAggregateCache {
+
+	public static final String CACHE_NAME = "product-aggregate";
+
+	private static final long TOMBSTONE = Long.MAX_VALUE;
+
+	private final Cache<AggregateKey, ProductAggregate> cache;
+	private final boolean enabled;
+
+	/**
+	 * Incremented on each invalidation : its value is the stamp of the invalidated product.
+	 */
+	private final AtomicLong sequence = new AtomicLong();
+
+	/**
+	 * Stamp of the last invalidation of each product, a load started before the invalidation of its product is not cached.
+	 * The stamps live as long as the product-aggregates : a load longer than the time-to-live isn't guarded.
+	 */
+	private final Cache<Integer, Long> stamps;
+
+	public ProductAggregateCache(AggregateCacheInformation information, MeterRegistry registry) {
+
+		this.enabled = information.isEnabled();
+		this.cache = Caffeine.newBuilder().
+				maximumSize(information.getMaximumSize()).
+				expireAfterWrite(information.getTimeToLive()).
+				recordStats().
+				build();
+		this.stamps = Caffeine.newBuilder().
+				maximumSize(information.getMaximumSize()).
+				expireAfterWrite(information.getTimeToLive()).
+				build();
+
+		CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+
+		log.debug(" > Product-aggregate cache enabled={}, ttl={}, maximum size={}", enabled,
+				information.getTimeToLive(), information.getMaximumSize());
+	}
+
+	/**
+	 * A degraded product-aggregate is not cached, the next read calls again the downstream services.
+	 * @param key
+	 * @param loader : called when the product-aggregate isn't in the cache
+	 * @return mono of {@link ProductAggregate}
+	 */
+	public Mono<ProductAggregate> get(AggregateKey key, Supplier<Mono<ProductAggregate>> loader) {
+
+		if(!enabled) return Mono.defer(loader);
+
+		return Mono.defer(() -> {
+
+			ProductAggregate cached = cache.getIfPresent(key);
+			if(cached != null) return Mono.just(cached);
+
+			long start = sequence.get();
+
+			return loader.get().doOnNext(pa -> {
+				if(!Boolean.TRUE.equals(pa.getDegraded())) putIfNotInvalidated(key, pa, start);
+			});
+		});
+	}
+
+	/**
+	 * Invalidate all the pages of a product.
+	 * @param productID
+	 */
+	public void invalidate(Integer productID) {
+
+		if(!enabled || productID == null) return;
+
+		stamps.put(productID, sequence.incrementAndGet());
+		evict(productID);
+
+		log.debug(" > The product-aggregate with productID={} has been invalidated", productID);
+	}
+
+	/**
+	 * Invalidate all the pages of a deleted product, then no page of the product is cached during the time-to-live :
+	 * the core services still return the product until they have consumed the delete events.
+	 * @param productID
+	 */
+	public void tombstone(Integer productID) {
+
+		if(!enabled || productID == null) return;
+
+		stamps.put(productID, TOMBSTONE);
+		evict(productID);
+
+		log.debug(" > The product-aggregate with productID={} is not cached until the deletion is done", productID);
+	}
+
+	/**
+	 * The stamp is checked and the product-aggregate is put under the lock of the stamp : an invalidation can't happen in between.
+	 * @param key
+	 * @param aggregate
+	 * @param start : value of the sequence when the load has started
+	 */
+	private void putIfNotInvalidated(AggregateKey key, ProductAggregate aggregate, long start) {
+
+		stamps.asMap().compute(key.getProductID(), (productID, stamp) -> {
+
+			if(stamp == null || stamp <= start) cache.put(key, aggregate);
+			return stamp;
+		});
+	}
+
+	/**
+	 * @param productID
+	 */
+	private void evict(Integer productID) {
+		cache.asMap().keySet().removeIf(key -> productID.equals(key.getProductID()));
+	}
+}
@@ -0,0 +1,81 @@
+package com.me.microservices.core.composite.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Single-flight execution : the concurrent subscribers of the same key share one upstream call.
+ * The key is released as soon as the upstream call terminates, nothing is kept afterwards.
+ * @author rudysaniez @since 0.0.1
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class RequestCoalescer<K, V> {
+
+	private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+	private final Counter originated;
+	private final Counter coalesced;
+
+	/**
+	 * @param name : value of the tag <i>name</i> of the counters
+	 * @param registry
+	 */
+	public RequestCoalescer(String name, MeterRegistry registry) {
+
+		this.originated = Counter.builder("coalescer.requests").tag("name", name).tag("result", "originated").
+				description("Requests which have triggered an upstream call").register(registry);
+		this.coalesced = Counter.builder("coalescer.requests").tag("name", name).tag("result", "coalesced").
+				description("Requests which have joined an upstream call in flight").register(registry);
+	}
+
+	/**
+	 * @param key
+	 * @param loader : the upstream call
+	 * @return mono of the value, shared with the other subscribers of the same key
+	 */
+	public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+
+		return Mono.defer(() -> {
+
+			boolean[] created = {false};
+
+			Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+				created[0] = true;
+				return share(k, loader);
+			});
+
+			(created[0] ? originated : coalesced).increment();
+			return shared;
+		});
+	}
+
+	/**
+	 * @return the number of upstream calls in flight
+	 */
+	public int inFlight() {
+		return inFlight.size();
+	}
+
+	/**
+	 * @param key
+	 * @param loader
+	 * @return mono which replays the upstream signal to its late subscribers
+	 */
+	private Mono<V> share(K key, Supplier<Mono<V>> loader) {
+
+		AtomicReference<Mono<V>> self = new AtomicReference<>();
+
+		Mono<V> shared = Mono.defer(loader).
+				doFinally(signal -> inFlight.remove(key, self.get())).
+				cache();
+
+		self.set(shared);
+		return shared;
+	}
+}
@@ -0,0 +1,106 @@
+package com.me.microservices.core.composite.integration;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+
+/**
+ * Write to a downstream service in batches with a bounded number of requests in flight.
+ * The items are requested from the source only when a request slot is free, this way a large import is slowed down
+ * instead of flooding the downstream service.
+ * The gauges <i>integration.writes.queued</i> and <i>integration.writes.in-flight</i> are published with the tag <i>integration</i>.
+ * @author rudysaniez @since 0.0.1
+ */
+public class BoundedWriter {
+	
+	private final int maxConcurrency;
+	private final int batchSize;
+	private final boolean ordered;
+	
+	/**
+	 * Items received from the source and waiting for a request slot.
+	 */
+	private final AtomicInteger queued = new AtomicInteger();
+	
+	/**
+	 * Requests sent to the downstream service and not yet terminated.
+	 */
+	private final AtomicInteger inFlight = new AtomicInteger();
+	
+	/**
+	 * @param name : value of the tag <i>integration</i> of the gauges
+	 * @param maxConcurrency : maximum number of requests in flight
+	 * @param batchSize : maximum number of items sent in one request
+	 * @param ordered : the results are emitted in the order of the source
+	 * @param registry
+	 */
+	public BoundedWriter(String name, int maxConcurrency, int batchSize, boolean ordered, MeterRegistry registry) {
+		
+		if(maxConcurrency < 1) throw new IllegalArgumentException("The max-concurrency should be greater than 0.");
+		if(batchSize < 1) throw new IllegalArgumentException("The batch-size should be greater than 0.");
+		
+		this.maxConcurrency = maxConcurrency;
+		this.batchSize = batchSize;
+		this.ordered = ordered;
+		
+		Gauge.builder("integration.writes.queued", queued, AtomicInteger::get).tag("integration", name).
+			description("Items waiting for a request slot").register(registry);
+		Gauge.builder("integration.writes.in-flight", inFlight, AtomicInteger::get).tag("integration", name).
+			description("Write requests in flight").register(registry);
+	}
+	
+	/**
+	 * @param <T> the item type
+	 * @param <R> the result type
+	 * @param source
+	 * @param write : send one batch to the downstream service
+	 * @return flux of the results
+	 */
+	public <T, R> Flux<R> write(Flux<T> source, Function<List<T>, Publisher<R>> write) {
+		
+		return Flux.defer(() -> {
+			
+			AtomicInteger pending = new AtomicInteger();
+			
+			Flux<List<T>> batches = source.
+					doOnNext(item -> {
+						pending.incrementAndGet();
+						queued.incrementAndGet();
+					}).
+					buffer(batchSize);
+			
+			Function<List<T>, Publisher<R>> bounded = batch -> Flux.defer(() -> {
+				
+				pending.addAndGet(-batch.size());
+				queued.addAndGet(-batch.size());
+				inFlight.incrementAndGet();
+				return write.apply(batch);
+			}).
+			doFinally(signal -> inFlight.decrementAndGet());
+			
+			Flux<R> results = ordered ? batches.flatMapSequential(bounded, maxConcurrency) : batches.flatMap(bounded, maxConcurrency);
+			
+			return results.doFinally(signal -> queued.addAndGet(-pending.getAndSet(0)));
+		});
+	}
+	
+	/**
+	 * @return the number of items waiting for a request slot
+	 */
+	public int queued() {
+		return queued.get();
+	}
+	
+	/**
+	 * @return the number of requests in flight
+	 */
+	public int inFlight() {
+		return inFlight.get();
+	}
+}
@@ -0,0 +1,151 @@
+package com.me.microservices.core.composite.integration;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.me.handler.exception.InvalidInputException;
+import com.me.handler.exception.NotFoundException;
+import com.me.handler.exception.ServiceUnavailableException;
+import com.me.microservices.core.composite.Application.ResilienceInformation;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Timeout, retries and circuit breaker of the calls to a downstream service.
+ * Each attempt goes through the circuit breaker, the reads are retried with an exponential backoff and a jitter
+ * when the error is transient. An open circuit breaker or a timeout is returned as a {@link ServiceUnavailableException}.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+public class IntegrationResilience {
+	
+	private final String service;
+	private final ResilienceInformation information;
+	
+	@Getter
+	private final CircuitBreaker circuitBreaker;
+	
+	/**
+	 * @param service
+	 * @param circuitBreaker
+	 * @param information
+	 */
+	public IntegrationResilience(String service, CircuitBreaker circuitBreaker, ResilienceInformation information) {
+		
+		this.service = service;
+		this.circuitBreaker = circuitBreaker;
+		this.information = information;
+	}
+	
+	/**
+	 * Idempotent call : timeout, circuit breaker and retries.
+	 * @param <T>
+	 * @param call
+	 * @return mono of T
+	 */
+	public <T> Mono<T> read(Mono<T> call) {
+		
+		return call.timeout(information.getReadTimeout()).
+				transformDeferred(CircuitBreakerOperator.of(circuitBreaker)).
+				retryWhen(retry(IntegrationResilience::isTransient)).
+				onErrorMap(this::unavailable);
+	}
+	
+	/**
+	 * Idempotent streamed call : timeout between two elements, circuit breaker and retries.
+	 * The call is retried only when no element has been received, a retry after would return the first elements twice.
+	 * @param <T>
+	 * @param call
+	 * @return flux of T
+	 */
+	public <T> Flux<T> read(Flux<T> call) {
+		
+		return Flux.defer(() -> {
+			
+			AtomicBoolean received = new AtomicBoolean();
+			
+			return call.timeout(information.getReadTimeout()).
+					transformDeferred(CircuitBreakerOperator.of(circuitBreaker)).
+					doOnNext(value -> received.set(true)).
+					retryWhen(retry(e -> !received.get() && isTransient(e))).
+					onErrorMap(this::unavailable);
+		});
+	}
+	
+	/**
+	 * Non idempotent call : timeout and circuit breaker, no retry.
+	 * @param <T>
+	 * @param call
+	 * @return mono of T
+	 */
+	public <T> Mono<T> write(Mono<T> call) {
+		
+		return call.timeout(information.getWriteTimeout()).
+				transformDeferred(CircuitBreakerOperator.of(circuitBreaker)).
+				onErrorMap(this::unavailable);
+	}
+	
+	/**
+	 * Non idempotent call : timeout between two elements and circuit breaker, no retry.
+	 * @param <T>
+	 * @param call
+	 * @return flux of T
+	 */
+	public <T> Flux<T> write(Flux<T> call) {
+		
+		return call.timeout(information.getWriteTimeout()).
+				transformDeferred(CircuitBreakerOperator.of(circuitBreaker)).
+				onErrorMap(this::unavailable);
+	}
+	
+	/**
+	 * @param retryable
+	 * @return {@link Retry}
+	 */
+	private Retry retry(Predicate<Throwable> retryable) {
+		
+		return Retry.backoff(information.getMaxRetries(), information.getFirstBackoff()).
+				maxBackoff(information.getMaxBackoff()).
+				jitter(information.getJitter()).
+				filter(retryable).
+				doBeforeRetry(signal -> log.debug(" > Retry {} of the call to {} : {}", signal.totalRetries() + 1, service, signal.failure().toString())).
+				onRetryExhaustedThrow((spec, signal) -> signal.failure());
+	}
+	
+	/**
+	 * @param e
+	 * @return true when the same call can succeed later
+	 */
+	public static boolean isTransient(Throwable e) {
+		
+		if(e instanceof CallNotPermittedException || e instanceof NotFoundException || e instanceof InvalidInputException) return false;
+		if(e instanceof WebClientResponseException) return ((WebClientResponseException)e).getRawStatusCode() >= 500;
+		
+		return true;
+	}
+	
+	/**
+	 * @param e
+	 * @return {@link Throwable}
+	 */
+	private Throwable unavailable(Throwable e) {
+		
+		if(e instanceof CallNotPermittedException)
+			return new ServiceUnavailableException(String.format("The %s is unavailable, its circuit breaker is open.", service), e);
+		
+		if(e instanceof TimeoutException)
+			return new ServiceUnavailableException(String.format("The %s has not responded in time.", service), e);
+		
+		return e;
+	}
+}
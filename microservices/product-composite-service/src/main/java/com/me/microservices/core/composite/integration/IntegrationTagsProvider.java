@@ -0,0 +1,62 @@
+package com.me.microservices.core.composite.integration;
+
+import java.io.IOException;
+
+import org.springframework.boot.actuate.metrics.web.reactive.client.WebClientExchangeTagsProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Tags of the <i>http.client.requests</i> timers : the downstream service, the method, the path without the identifiers, 
+ * the status and the outcome. The service is the request attribute set by the {@link WebClientFactory}.
+ * @author rudysaniez @since 0.0.1
+ */
+@Component
+public class IntegrationTagsProvider implements WebClientExchangeTagsProvider {
+	
+	public static final String SERVICE_ATTRIBUTE = IntegrationTagsProvider.class.getName() + ".service";
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterable<Tag> tags(ClientRequest request, ClientResponse response, Throwable throwable) {
+		
+		return Tags.of("service", request.attribute(SERVICE_ATTRIBUTE).map(String::valueOf).orElse("none"),
+				"method", request.method().name(),
+				"uri", request.url().getPath().replaceAll("/\\d+(?=/|$)", "/{id}"),
+				"status", status(response, throwable),
+				"outcome", outcome(response));
+	}
+	
+	/**
+	 * @param response
+	 * @param throwable
+	 * @return the http status, <i>IO_ERROR</i> or <i>CLIENT_ERROR</i> without response
+	 */
+	private static String status(ClientResponse response, Throwable throwable) {
+		
+		if(response != null) return String.valueOf(response.rawStatusCode());
+		return throwable instanceof IOException ? "IO_ERROR" : "CLIENT_ERROR";
+	}
+	
+	/**
+	 * @param response
+	 * @return the family of the http status, <i>UNKNOWN</i> without response
+	 */
+	private static String outcome(ClientResponse response) {
+		
+		if(response == null) return "UNKNOWN";
+		
+		int status = response.rawStatusCode();
+		if(status < 200) return "INFORMATIONAL";
+		if(status < 300) return "SUCCESS";
+		if(status < 400) return "REDIRECTION";
+		if(status < 500) return "CLIENT_ERROR";
+		return "SERVER_ERROR";
+	}
+}
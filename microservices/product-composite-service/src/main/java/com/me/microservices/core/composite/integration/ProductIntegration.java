@@ -4,14 +4,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ServerWebExchange;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import com.me.api.Actuator;
 import com.me.api.Api;
@@ -19,12 +17,16 @@ import com.me.api.core.product.async.ProductAsyncService;
 import com.me.api.core.product.health.ProductHealth;
 import com.me.api.event.Event;
 import com.me.microservices.core.composite.handler.exception.HandleHttpClientException;
+import com.me.microservices.core.composite.producer.OutboxJournal;
 import com.me.microservices.core.composite.producer.MessageProcessor;
 import com.me.microservices.core.product.api.ProductsApi;
 import com.me.microservices.core.product.api.model.PagedProduct;
 import com.me.microservices.core.product.api.model.Product;
+import com.me.microservices.core.product.api.model.ProductPatch;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Slf4j
@@ -32,17 +34,19 @@ import reactor.core.publisher.Mono;
 public class ProductIntegration implements ProductsApi, ProductAsyncService, ProductHealth {
 
 	private final WebClient productClient;
-	private final MessageProcessor messageProcessor;
+	private final OutboxJournal outboxJournal;
 	private final HandleHttpClientException handleException;
+	private final IntegrationResilience resilience;
 	
-	public ProductIntegration(WebClient.Builder webClientBuilder, MessageProcessor messageProcessor,
+	public ProductIntegration(WebClientFactory webClientFactory, ResilienceFactory resilienceFactory, OutboxJournal outboxJournal,
 			HandleHttpClientException handleException,
 			@Value("${app.product-service.host}") String productServiceHost,
 			@Value("${app.product-service.port}") int productServicePort,
 			@Value("${spring.webflux.base-path}") String basePath) {
 		
-		this.messageProcessor = messageProcessor;
+		this.outboxJournal = outboxJournal;
 		this.handleException = handleException;
+		this.resilience = resilienceFactory.create("product-service");
 		
 		String productServiceUrl = new StringBuilder("http://").
 				append(productServiceHost).append(":").append(productServicePort).
@@ -50,7 +54,7 @@ public class ProductIntegration implements ProductsApi, ProductAsyncService, Pro
 		
 		log.debug(" > Product service : " + productServiceUrl);
 		
-		this.productClient = webClientBuilder.uriBuilderFactory(new DefaultUriBuilderFactory(productServiceUrl)).build();
+		this.productClient = webClientFactory.create("product-service", productServiceUrl);
 	}
 	
 	/**
@@ -59,18 +63,33 @@ public class ProductIntegration implements ProductsApi, ProductAsyncService, Pro
 	@Override
 	public Mono<ResponseEntity<Product>> getProduct(Integer productID, ServerWebExchange exchange) {
 		
-		return productClient.get().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH, productID.toString()).build()).
+		return resilience.read(productClient.get().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH, productID.toString()).build()).
 				accept(MediaType.APPLICATION_JSON).retrieve().
-				bodyToMono(Product.class).log().
+				bodyToMono(Product.class).
 				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(p -> ResponseEntity.ok(p));
+				map(p -> ResponseEntity.ok(p)));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<Product>>> getProductsByIds(Flux<Integer> productIds, ServerWebExchange exchange) {
+		
+		Flux<Product> products = resilience.read(productClient.post().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH, Api.BATCH_GET_PATH).build()).
+				contentType(MediaType.APPLICATION_JSON).
+				body(productIds, Integer.class).accept(MediaType.APPLICATION_STREAM_JSON).retrieve().
+				bodyToFlux(Product.class).
+					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)));
+		
+		return Mono.just(ResponseEntity.ok(products));
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Mono<ResponseEntity<PagedProduct>> findByName(String name, Integer pageNumber, Integer pageSize, ServerWebExchange exchange) {
+	public Mono<ResponseEntity<PagedProduct>> findByName(String name, Integer pageNumber, Integer pageSize, Boolean withTotal, ServerWebExchange exchange) {
 		
 		MultiValueMap<String, String> params = new LinkedMultiValueMap<>(3);
 		params.add("name", name);
@@ -81,11 +100,13 @@ public class ProductIntegration implements ProductsApi, ProductAsyncService, Pro
 			params.add("pageSize", String.valueOf(pageSize));
 		}
 		
-		return productClient.get().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH).queryParams(params).build()).
+		if(withTotal != null) params.add("withTotal", String.valueOf(withTotal));
+		
+		return resilience.read(productClient.get().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH).queryParams(params).build()).
 				accept(MediaType.APPLICATION_JSON).retrieve().
-				bodyToMono(PagedProduct.class).log().
+				bodyToMono(PagedProduct.class).
 				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(pp -> ResponseEntity.ok(pp));
+				map(pp -> ResponseEntity.ok(pp)));
 	}
 
 	/**
@@ -94,11 +115,11 @@ public class ProductIntegration implements ProductsApi, ProductAsyncService, Pro
 	@Override
 	public Mono<ResponseEntity<Product>> save(Mono<Product> product, ServerWebExchange exchange) {
 		
-		return productClient.post().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH).build()).
+		return resilience.write(productClient.post().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH).build()).
 				body(product, Product.class).accept(MediaType.APPLICATION_JSON).retrieve().
-				bodyToMono(Product.class).log().
+				bodyToMono(Product.class).
 				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(p -> ResponseEntity.ok(p));
+				map(p -> ResponseEntity.ok(p)));
 	}
 
 	/**
@@ -107,11 +128,25 @@ public class ProductIntegration implements ProductsApi, ProductAsyncService, Pro
 	@Override
 	public Mono<ResponseEntity<Product>> update(Integer productID, Mono<Product> product, ServerWebExchange exchange) {
 		
-		return productClient.put().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH, String.valueOf(productID)).build()).
+		return resilience.write(productClient.put().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH, String.valueOf(productID)).build()).
 				body(product, Product.class).accept(MediaType.APPLICATION_JSON).retrieve().
-				bodyToMono(Product.class).log().
+				bodyToMono(Product.class).
 				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(p -> ResponseEntity.ok(p));
+				map(p -> ResponseEntity.ok(p)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Product>> patchProduct(Integer productID, Mono<ProductPatch> productPatch, ServerWebExchange exchange) {
+		
+		return resilience.write(productClient.patch().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH, String.valueOf(productID)).build()).
+				contentType(MediaType.valueOf("application/merge-patch+json")).
+				body(productPatch, ProductPatch.class).accept(MediaType.APPLICATION_JSON).retrieve().
+				bodyToMono(Product.class).
+				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
+				map(p -> ResponseEntity.ok(p)));
 	}
 
 	/**
@@ -120,21 +155,28 @@ public class ProductIntegration implements ProductsApi, ProductAsyncService, Pro
 	@Override
 	public Mono<ResponseEntity<Void>> deleteProduct(Integer productID, ServerWebExchange exchange) {
 		
-		return productClient.delete().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH, String.valueOf(productID)).build()).
-				accept(MediaType.APPLICATION_JSON).retrieve().bodyToMono(Void.class).log().
+		return resilience.write(productClient.delete().uri(uri -> uri.pathSegment(Api.PRODUCT_PATH, String.valueOf(productID)).build()).
+				accept(MediaType.APPLICATION_JSON).retrieve().bodyToMono(Void.class).
 				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(v -> ResponseEntity.ok(v));
+				map(v -> ResponseEntity.ok(v)));
 	}
 	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void deleteProductAsync(Integer productID) {
+	public Mono<Void> deleteProductAsync(Integer productID) {
 		
 		Event<Integer> event = new Event<>(productID, Event.Type.DELETE);
 		log.info(" > A product delete event will be sent : {}", event);
-		messageProcessor.outputProducts().send(MessageBuilder.withPayload(event).build());
+		return outboxJournal.append(MessageProcessor.OUTPUT_PRODUCTS, event);
+	}
+	
+	/**
+	 * @return {@link CircuitBreaker} of the product-service
+	 */
+	public CircuitBreaker getCircuitBreaker() {
+		return resilience.getCircuitBreaker();
 	}
 	
 	/**
@@ -145,6 +187,6 @@ public class ProductIntegration implements ProductsApi, ProductAsyncService, Pro
 		
 		return productClient.get().uri(uri -> uri.pathSegment(Actuator.BASE_PATH, Actuator.HEALTH_PATH).build()).
 				retrieve().bodyToMono(String.class).map(s -> new Health.Builder().up().build()).
-				onErrorResume(e -> Mono.just(new Health.Builder().down().build())).log();
+				onErrorResume(e -> Mono.just(new Health.Builder().down().build()));
 	}
 }
@@ -4,14 +4,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ServerWebExchange;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import com.me.api.Actuator;
 import com.me.api.Api;
@@ -19,12 +17,19 @@ import com.me.api.core.recommendation.async.RecommendationAsyncService;
 import com.me.api.core.recommendation.health.RecommendationHealth;
 import com.me.api.event.Event;
 import com.me.microservices.core.composite.handler.exception.HandleHttpClientException;
+import com.me.microservices.core.composite.producer.OutboxJournal;
 import com.me.microservices.core.composite.producer.MessageProcessor;
 import com.me.microservices.core.recommendation.api.RecommendationsApi;
 import com.me.microservices.core.recommendation.api.model.PagedRecommendation;
 import com.me.microservices.core.recommendation.api.model.Recommendation;
+import com.me.microservices.core.recommendation.api.model.RecommendationBatchResult;
+import com.me.microservices.core.recommendation.api.model.RecommendationPatch;
+import com.me.microservices.core.recommendation.api.model.RecommendationStatistics;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Slf4j
@@ -32,17 +37,24 @@ import reactor.core.publisher.Mono;
 public class RecommendationIntegration implements RecommendationsApi, RecommendationAsyncService, RecommendationHealth {
 
 	private final WebClient recommendationClient;
-	private final MessageProcessor messageProcessor;
+	private final OutboxJournal outboxJournal;
 	private final HandleHttpClientException handleException;
+	private final IntegrationResilience resilience;
+	private final BoundedWriter writer;
 	
-	public RecommendationIntegration(WebClient.Builder webClientBuilder, MessageProcessor messageProcessor, 
-			HandleHttpClientException handleException,
+	public RecommendationIntegration(WebClientFactory webClientFactory, ResilienceFactory resilienceFactory, OutboxJournal outboxJournal, 
+			HandleHttpClientException handleException, MeterRegistry registry,
 			@Value("${app.recommendation-service.host}") String recommendationServiceHost,
 			@Value("${app.recommendation-service.port}") int recommendationServicePort,
+			@Value("${app.recommendation-service.max-concurrency:4}") int maxConcurrency,
+			@Value("${app.recommendation-service.batch-size:100}") int batchSize,
+			@Value("${app.recommendation-service.ordered:false}") boolean ordered,
 			@Value("${spring.webflux.base-path}") String basePath) {
 		
-		this.messageProcessor = messageProcessor;
+		this.outboxJournal = outboxJournal;
 		this.handleException = handleException;
+		this.resilience = resilienceFactory.create("recommendation-service");
+		this.writer = new BoundedWriter("recommendation-service", maxConcurrency, batchSize, ordered, registry);
 		
 		String recommendationServiceUrl = new StringBuilder("http://").
 				append(recommendationServiceHost).append(":").append(recommendationServicePort).
@@ -50,7 +62,7 @@ public class RecommendationIntegration implements RecommendationsApi, Recommenda
 		
 		log.debug(" > Recommendation service : " + recommendationServiceUrl);
 		
-		this.recommendationClient = webClientBuilder.uriBuilderFactory(new DefaultUriBuilderFactory(recommendationServiceUrl)).build();
+		this.recommendationClient = webClientFactory.create("recommendation-service", recommendationServiceUrl);
 	}
 	
 	/**
@@ -59,17 +71,17 @@ public class RecommendationIntegration implements RecommendationsApi, Recommenda
 	@Override
 	public Mono<ResponseEntity<Recommendation>> getRecommendation(Integer recommendationID, ServerWebExchange exchange) {
 		
-		return recommendationClient.get().uri(uriFunction -> uriFunction.pathSegment(Api.RECOMMENDATION_PATH, String.valueOf(recommendationID)).build()).
-				accept(MediaType.APPLICATION_JSON).retrieve().bodyToMono(Recommendation.class).log().
+		return resilience.read(recommendationClient.get().uri(uriFunction -> uriFunction.pathSegment(Api.RECOMMENDATION_PATH, String.valueOf(recommendationID)).build()).
+				accept(MediaType.APPLICATION_JSON).retrieve().bodyToMono(Recommendation.class).
 				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(r -> ResponseEntity.ok(r));
+				map(r -> ResponseEntity.ok(r)));
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Mono<ResponseEntity<PagedRecommendation>> getRecommendationByProductId(Integer productID, Integer pageNumber, Integer pageSize, ServerWebExchange exchange) {
+	public Mono<ResponseEntity<PagedRecommendation>> getRecommendationByProductId(Integer productID, Integer pageNumber, Integer pageSize, Boolean withTotal, String cursor, ServerWebExchange exchange) {
 		
 		MultiValueMap<String, String> params = new LinkedMultiValueMap<>(3);
 		params.add("productId", String.valueOf(productID));
@@ -80,24 +92,97 @@ public class RecommendationIntegration implements RecommendationsApi, Recommenda
 			params.add("pageSize", String.valueOf(pageSize));
 		}
 		
-		return recommendationClient.get().uri(uriFunction -> uriFunction.pathSegment(Api.RECOMMENDATION_PATH).queryParams(params).build()).
+		if(withTotal != null) params.add("withTotal", String.valueOf(withTotal));
+		if(cursor != null) params.add("cursor", cursor);
+		
+		return resilience.read(recommendationClient.get().uri(uriFunction -> uriFunction.pathSegment(Api.RECOMMENDATION_PATH).queryParams(params).build()).
 				accept(MediaType.APPLICATION_JSON).retrieve().
-				bodyToMono(PagedRecommendation.class).log().
-				onErrorResume(e -> Mono.empty()).
-				map(r -> ResponseEntity.ok(r));
+				bodyToMono(PagedRecommendation.class).
+				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
+				map(r -> ResponseEntity.ok(r)));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<Recommendation>>> getRecommendationsByProductIds(Flux<Integer> productIds, Integer pageSize, ServerWebExchange exchange) {
+		
+		MultiValueMap<String, String> params = new LinkedMultiValueMap<>(1);
+		if(pageSize != null) params.add("pageSize", String.valueOf(pageSize));
+		
+		Flux<Recommendation> recommendations = resilience.read(recommendationClient.post().uri(uri -> uri.pathSegment(Api.RECOMMENDATION_PATH, Api.BATCH_GET_PATH).queryParams(params).build()).
+				contentType(MediaType.APPLICATION_JSON).
+				body(productIds, Integer.class).accept(MediaType.APPLICATION_STREAM_JSON).retrieve().
+				bodyToFlux(Recommendation.class).
+					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)));
+		
+		return Mono.just(ResponseEntity.ok(recommendations));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<Recommendation>>> exportRecommendations(Integer productID, ServerWebExchange exchange) {
+		
+		Flux<Recommendation> recommendations = resilience.read(recommendationClient.get().uri(uri -> uri.pathSegment(Api.RECOMMENDATION_PATH, Api.EXPORT_PATH).queryParam("productId", productID).build()).
+				accept(MediaType.APPLICATION_STREAM_JSON).retrieve().
+				bodyToFlux(Recommendation.class).
+					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)));
+		
+		return Mono.just(ResponseEntity.ok(recommendations));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<RecommendationStatistics>> getRecommendationStatistics(Integer productID, ServerWebExchange exchange) {
+		
+		return resilience.read(recommendationClient.get().uri(uri -> uri.pathSegment(Api.RECOMMENDATION_PATH, Api.STATISTICS_PATH).queryParam("productId", productID).build()).
+				accept(MediaType.APPLICATION_JSON).retrieve().
+				bodyToMono(RecommendationStatistics.class).
+					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
+				map(s -> ResponseEntity.ok(s)));
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public Mono<ResponseEntity<Recommendation>> save(Mono<Recommendation> recommendation, ServerWebExchange exchange) {
 		
-		return recommendationClient.post().uri(uri -> uri.pathSegment(Api.RECOMMENDATION_PATH).build()).
+		return resilience.write(recommendationClient.post().uri(uri -> uri.pathSegment(Api.RECOMMENDATION_PATH).build()).
 				body(recommendation, Recommendation.class).accept(MediaType.APPLICATION_JSON).retrieve().
-				bodyToMono(Recommendation.class).log().
+				bodyToMono(Recommendation.class).
 				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(r -> ResponseEntity.ok(r));
+				map(r -> ResponseEntity.ok(r)));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<RecommendationBatchResult>>> saveAll(Flux<Recommendation> recommendations, ServerWebExchange exchange) {
+		
+		Flux<RecommendationBatchResult> results = resilience.write(recommendationClient.post().uri(uri -> uri.pathSegment(Api.RECOMMENDATION_PATH, Api.BATCH_PATH).build()).
+				contentType(MediaType.APPLICATION_STREAM_JSON).
+				body(recommendations, Recommendation.class).accept(MediaType.APPLICATION_STREAM_JSON).retrieve().
+				bodyToFlux(RecommendationBatchResult.class).
+					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)));
+		
+		return Mono.just(ResponseEntity.ok(results));
+	}
+	
+	/**
+	 * @param recommendations
+	 * @return flux of {@link RecommendationBatchResult}, the recommendations are sent in batches with a bounded number of requests in flight
+	 */
+	public Flux<RecommendationBatchResult> saveInBatches(Flux<Recommendation> recommendations) {
+		
+		return writer.write(recommendations, batch -> saveAll(Flux.fromIterable(batch), null).
+				flatMapMany(re -> re.getBody()));
 	}
 	
 	/**
@@ -106,11 +191,25 @@ public class RecommendationIntegration implements RecommendationsApi, Recommenda
 	@Override
 	public Mono<ResponseEntity<Recommendation>> update(Integer recommendationID, Mono<Recommendation> recommendation, ServerWebExchange exchange) {
 		
-		return recommendationClient.put().uri(uriFunction -> uriFunction.pathSegment(Api.RECOMMENDATION_PATH, String.valueOf(recommendationID)).build()).
+		return resilience.write(recommendationClient.put().uri(uriFunction -> uriFunction.pathSegment(Api.RECOMMENDATION_PATH, String.valueOf(recommendationID)).build()).
 				body(recommendation, Recommendation.class).accept(MediaType.APPLICATION_JSON).retrieve().
-				bodyToMono(Recommendation.class).log().
+				bodyToMono(Recommendation.class).
 				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(r -> ResponseEntity.ok(r));
+				map(r -> ResponseEntity.ok(r)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Recommendation>> patchRecommendation(Integer recommendationID, Mono<RecommendationPatch> recommendationPatch, ServerWebExchange exchange) {
+		
+		return resilience.write(recommendationClient.patch().uri(uriFunction -> uriFunction.pathSegment(Api.RECOMMENDATION_PATH, String.valueOf(recommendationID)).build()).
+				contentType(MediaType.valueOf("application/merge-patch+json")).
+				body(recommendationPatch, RecommendationPatch.class).accept(MediaType.APPLICATION_JSON).retrieve().
+				bodyToMono(Recommendation.class).
+				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
+				map(r -> ResponseEntity.ok(r)));
 	}
 
 	/**
@@ -119,22 +218,29 @@ public class RecommendationIntegration implements RecommendationsApi, Recommenda
 	@Override
 	public Mono<ResponseEntity<Void>> deleteRecommendations(Integer recommendationID, ServerWebExchange exchange) {
 		
-		return recommendationClient.delete().uri(uriFunction -> uriFunction.pathSegment(Api.RECOMMENDATION_PATH, String.valueOf(recommendationID)).build()).
+		return resilience.write(recommendationClient.delete().uri(uriFunction -> uriFunction.pathSegment(Api.RECOMMENDATION_PATH, String.valueOf(recommendationID)).build()).
 				accept(MediaType.APPLICATION_JSON).retrieve().
-				bodyToMono(Void.class).log().
+				bodyToMono(Void.class).
 				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(v -> ResponseEntity.ok(v));
+				map(v -> ResponseEntity.ok(v)));
 	}
 	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void deleteRecommendationsAsync(Integer productID) {
+	public Mono<Void> deleteRecommendationsAsync(Integer productID) {
 		
 		Event<Integer> event = new Event<>(productID, Event.Type.DELETE);
 		log.info(" > A recommendation delete event will be sent : {}", event);
-		messageProcessor.outputRecommendations().send(MessageBuilder.withPayload(event).build());
+		return outboxJournal.append(MessageProcessor.OUTPUT_RECOMMENDATIONS, event);
+	}
+	
+	/**
+	 * @return {@link CircuitBreaker} of the recommendation-service
+	 */
+	public CircuitBreaker getCircuitBreaker() {
+		return resilience.getCircuitBreaker();
 	}
 	
 	/**
@@ -0,0 +1,46 @@
+package com.me.microservices.core.composite.integration;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.me.microservices.core.composite.Application.ResilienceInformation;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Build the {@link IntegrationResilience} of a downstream service.
+ * The timeouts and retries are read from <i>app.&lt;service&gt;.resilience</i>,
+ * the circuit breaker from <i>resilience4j.circuitbreaker.instances.&lt;service&gt;</i>, it records the failures of the {@link TransientFailurePredicate}.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+@Component
+public class ResilienceFactory {
+	
+	private final CircuitBreakerRegistry circuitBreakerRegistry;
+	private final Binder binder;
+	
+	public ResilienceFactory(CircuitBreakerRegistry circuitBreakerRegistry, Environment environment) {
+		
+		this.circuitBreakerRegistry = circuitBreakerRegistry;
+		this.binder = Binder.get(environment);
+	}
+	
+	/**
+	 * @param service : name of the downstream service, <i>review-service</i> for example
+	 * @return {@link IntegrationResilience}
+	 */
+	public IntegrationResilience create(String service) {
+		
+		ResilienceInformation information = binder.bind("app." + service + ".resilience", ResilienceInformation.class).
+				orElseGet(ResilienceInformation::new);
+		
+		log.debug(" > The {} resilience : read timeout={}, write timeout={}, max retries={}, first backoff={}, jitter={}",
+				service, information.getReadTimeout(), information.getWriteTimeout(), information.getMaxRetries(),
+				information.getFirstBackoff(), information.getJitter());
+		
+		return new IntegrationResilience(service, circuitBreakerRegistry.circuitBreaker(service), information);
+	}
+}
@@ -4,14 +4,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ServerWebExchange;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import com.me.api.Actuator;
 import com.me.api.Api;
@@ -19,12 +17,19 @@ import com.me.api.core.review.async.ReviewAsyncService;
 import com.me.api.core.review.health.ReviewHealth;
 import com.me.api.event.Event;
 import com.me.microservices.core.composite.handler.exception.HandleHttpClientException;
+import com.me.microservices.core.composite.producer.OutboxJournal;
 import com.me.microservices.core.composite.producer.MessageProcessor;
 import com.me.microservices.core.review.api.ReviewsApi;
 import com.me.microservices.core.review.api.model.PagedReview;
 import com.me.microservices.core.review.api.model.Review;
+import com.me.microservices.core.review.api.model.ReviewBatchResult;
+import com.me.microservices.core.review.api.model.ReviewPatch;
+import com.me.microservices.core.review.api.model.ReviewStatistics;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Slf4j
@@ -32,17 +37,24 @@ import reactor.core.publisher.Mono;
 public class ReviewIntegration implements ReviewsApi, ReviewAsyncService, ReviewHealth {
 
 	private final WebClient reviewClient;
-	private final MessageProcessor messageProcessor;
+	private final OutboxJournal outboxJournal;
 	private final HandleHttpClientException handleException;
+	private final IntegrationResilience resilience;
+	private final BoundedWriter writer;
 	
-	public ReviewIntegration(WebClient.Builder webClientBuilder, MessageProcessor messageProcessor, 
-			HandleHttpClientException handleException,
+	public ReviewIntegration(WebClientFactory webClientFactory, ResilienceFactory resilienceFactory, OutboxJournal outboxJournal, 
+			HandleHttpClientException handleException, MeterRegistry registry,
 			@Value("${app.review-service.host}") String reviewServiceHost,
 			@Value("${app.review-service.port}") int reviewServicePort,
+			@Value("${app.review-service.max-concurrency:4}") int maxConcurrency,
+			@Value("${app.review-service.batch-size:100}") int batchSize,
+			@Value("${app.review-service.ordered:false}") boolean ordered,
 			@Value("${spring.webflux.base-path}") String basePath) {
 		
-		this.messageProcessor = messageProcessor;
+		this.outboxJournal = outboxJournal;
 		this.handleException = handleException;
+		this.resilience = resilienceFactory.create("review-service");
+		this.writer = new BoundedWriter("review-service", maxConcurrency, batchSize, ordered, registry);
 		
 		String reviewServiceUrl =new StringBuilder("http://").
 				append(reviewServiceHost).append(":").append(reviewServicePort).
@@ -50,7 +62,7 @@ public class ReviewIntegration implements ReviewsApi, ReviewAsyncService, Review
 		
 		log.debug(" > Review service : " + reviewServiceUrl);
 		
-		this.reviewClient = webClientBuilder.uriBuilderFactory(new DefaultUriBuilderFactory(reviewServiceUrl)).build();
+		this.reviewClient = webClientFactory.create("review-service", reviewServiceUrl);
 	}
 	
 	/**
@@ -59,18 +71,18 @@ public class ReviewIntegration implements ReviewsApi, ReviewAsyncService, Review
 	@Override
 	public Mono<ResponseEntity<Review>> getReview(Integer reviewID, ServerWebExchange exchange) {
 		
-		return reviewClient.get().uri(uriFunction -> uriFunction.pathSegment(Api.REVIEW_PATH, String.valueOf(reviewID)).build()).
+		return resilience.read(reviewClient.get().uri(uriFunction -> uriFunction.pathSegment(Api.REVIEW_PATH, String.valueOf(reviewID)).build()).
 				accept(MediaType.APPLICATION_JSON).retrieve().
-				bodyToMono(Review.class).log().
+				bodyToMono(Review.class).
 				onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(r -> ResponseEntity.ok(r));
+				map(r -> ResponseEntity.ok(r)));
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Mono<ResponseEntity<PagedReview>> getReviewByProductId(Integer productID, Integer pageNumber, Integer pageSize, ServerWebExchange exchange) {
+	public Mono<ResponseEntity<PagedReview>> getReviewByProductId(Integer productID, Integer pageNumber, Integer pageSize, Boolean withTotal, String cursor, ServerWebExchange exchange) {
 		
 		MultiValueMap<String, String> params = new LinkedMultiValueMap<>(3);
 		params.add("productId", String.valueOf(productID));
@@ -81,40 +93,124 @@ public class ReviewIntegration implements ReviewsApi, ReviewAsyncService, Review
 			params.add("pageSize", String.valueOf(pageSize));
 		}
 		
-		return reviewClient.get().uri(uri -> uri.pathSegment(Api.REVIEW_PATH).queryParams(params).build()).
+		if(withTotal != null) params.add("withTotal", String.valueOf(withTotal));
+		if(cursor != null) params.add("cursor", cursor);
+		
+		return resilience.read(reviewClient.get().uri(uri -> uri.pathSegment(Api.REVIEW_PATH).queryParams(params).build()).
 				accept(MediaType.APPLICATION_JSON).retrieve().
 				bodyToMono(PagedReview.class).
-					onErrorResume(e -> Mono.empty()).
-				map(pr -> ResponseEntity.ok(pr)).
-				log();
+					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
+				map(pr -> ResponseEntity.ok(pr)));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<Review>>> getReviewsByProductIds(Flux<Integer> productIds, Integer pageSize, ServerWebExchange exchange) {
+		
+		MultiValueMap<String, String> params = new LinkedMultiValueMap<>(1);
+		if(pageSize != null) params.add("pageSize", String.valueOf(pageSize));
+		
+		Flux<Review> reviews = resilience.read(reviewClient.post().uri(uri -> uri.pathSegment(Api.REVIEW_PATH, Api.BATCH_GET_PATH).queryParams(params).build()).
+				contentType(MediaType.APPLICATION_JSON).
+				body(productIds, Integer.class).accept(MediaType.APPLICATION_STREAM_JSON).retrieve().
+				bodyToFlux(Review.class).
+					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)));
+		
+		return Mono.just(ResponseEntity.ok(reviews));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<Review>>> exportReviews(Integer productID, ServerWebExchange exchange) {
+		
+		Flux<Review> reviews = resilience.read(reviewClient.get().uri(uri -> uri.pathSegment(Api.REVIEW_PATH, Api.EXPORT_PATH).queryParam("productId", productID).build()).
+				accept(MediaType.APPLICATION_STREAM_JSON).retrieve().
+				bodyToFlux(Review.class).
+					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)));
+		
+		return Mono.just(ResponseEntity.ok(reviews));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<ReviewStatistics>> getReviewStatistics(Integer productID, ServerWebExchange exchange) {
+		
+		return resilience.read(reviewClient.get().uri(uri -> uri.pathSegment(Api.REVIEW_PATH, Api.STATISTICS_PATH).queryParam("productId", productID).build()).
+				accept(MediaType.APPLICATION_JSON).retrieve().
+				bodyToMono(ReviewStatistics.class).
+					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
+				map(s -> ResponseEntity.ok(s)));
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public Mono<ResponseEntity<Review>> save(Mono<Review> review, ServerWebExchange exchange) {
 		
-		return reviewClient.post().uri(uri -> uri.pathSegment(Api.REVIEW_PATH).build()).
+		return resilience.write(reviewClient.post().uri(uri -> uri.pathSegment(Api.REVIEW_PATH).build()).
 				body(review, Review.class).accept(MediaType.APPLICATION_JSON).retrieve().
 				bodyToMono(Review.class).
 					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(r -> ResponseEntity.ok(r)).
-				log();
+				map(r -> ResponseEntity.ok(r)));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<ReviewBatchResult>>> saveAll(Flux<Review> reviews, ServerWebExchange exchange) {
+		
+		Flux<ReviewBatchResult> results = resilience.write(reviewClient.post().uri(uri -> uri.pathSegment(Api.REVIEW_PATH, Api.BATCH_PATH).build()).
+				contentType(MediaType.APPLICATION_STREAM_JSON).
+				body(reviews, Review.class).accept(MediaType.APPLICATION_STREAM_JSON).retrieve().
+				bodyToFlux(ReviewBatchResult.class).
+					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)));
+		
+		return Mono.just(ResponseEntity.ok(results));
+	}
+	
+	/**
+	 * @param reviews
+	 * @return flux of {@link ReviewBatchResult}, the reviews are sent in batches with a bounded number of requests in flight
+	 */
+	public Flux<ReviewBatchResult> saveInBatches(Flux<Review> reviews) {
+		
+		return writer.write(reviews, batch -> saveAll(Flux.fromIterable(batch), null).
+				flatMapMany(re -> re.getBody()));
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public Mono<ResponseEntity<Review>> update(Integer reviewID, Mono<Review> review, ServerWebExchange exchange) {
 		
-		return reviewClient.put().uri(uri -> uri.pathSegment(Api.REVIEW_PATH, String.valueOf(reviewID)).build()).
+		return resilience.write(reviewClient.put().uri(uri -> uri.pathSegment(Api.REVIEW_PATH, String.valueOf(reviewID)).build()).
 				body(review, Review.class).accept(MediaType.APPLICATION_JSON).retrieve().
 				bodyToMono(Review.class).
 					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(r -> ResponseEntity.ok(r)).
-				log();
+				map(r -> ResponseEntity.ok(r)));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Review>> patchReview(Integer reviewID, Mono<ReviewPatch> reviewPatch, ServerWebExchange exchange) {
+		
+		return resilience.write(reviewClient.patch().uri(uri -> uri.pathSegment(Api.REVIEW_PATH, String.valueOf(reviewID)).build()).
+				contentType(MediaType.valueOf("application/merge-patch+json")).
+				body(reviewPatch, ReviewPatch.class).accept(MediaType.APPLICATION_JSON).retrieve().
+				bodyToMono(Review.class).
+					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
+				map(r -> ResponseEntity.ok(r)));
 	}
 
 	/**
@@ -123,23 +219,29 @@ public class ReviewIntegration implements ReviewsApi, ReviewAsyncService, Review
 	@Override
 	public Mono<ResponseEntity<Void>> deleteReviews(Integer reviewID, ServerWebExchange exchange) {
 		
-		return reviewClient.delete().uri(uri -> uri.pathSegment(Api.REVIEW_PATH, String.valueOf(reviewID)).build()).
+		return resilience.write(reviewClient.delete().uri(uri -> uri.pathSegment(Api.REVIEW_PATH, String.valueOf(reviewID)).build()).
 				accept(MediaType.APPLICATION_JSON).retrieve().
-				bodyToMono(Void.class).log().
+				bodyToMono(Void.class).
 					onErrorMap(WebClientResponseException.class, e -> handleException.handleHttpClientException(e)).
-				map(v -> ResponseEntity.ok(v)).
-				log();
+				map(v -> ResponseEntity.ok(v)));
 	}
 	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public void deleteReviewsAsync(Integer productID) {
+	public Mono<Void> deleteReviewsAsync(Integer productID) {
 		
 		Event<Integer> event = new Event<>(productID, Event.Type.DELETE);
 		log.info(" > A review delete event will be sent : {}", event);
-		messageProcessor.outputReviews().send(MessageBuilder.withPayload(event).build());
+		return outboxJournal.append(MessageProcessor.OUTPUT_REVIEWS, event);
+	}
+	
+	/**
+	 * @return {@link CircuitBreaker} of the review-service
+	 */
+	public CircuitBreaker getCircuitBreaker() {
+		return resilience.getCircuitBreaker();
 	}
 	
 	/**
@@ -0,0 +1,20 @@
+package com.me.microservices.core.composite.integration;
+
+import java.util.function.Predicate;
+
+/**
+ * Failures recorded by the circuit breakers of the downstream services (<i>record-failure-predicate</i>) : the transient ones only,
+ * see {@link IntegrationResilience#isTransient(Throwable)}. A client error (400, 409, 422...) is an answer of a healthy service,
+ * it's recorded as a success.
+ * @author rudysaniez @since 0.0.1
+ */
+public class TransientFailurePredicate implements Predicate<Throwable> {
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean test(Throwable e) {
+		return IntegrationResilience.isTransient(e);
+	}
+}
@@ -0,0 +1,99 @@
+package com.me.microservices.core.composite.integration;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import com.me.api.trace.Tracing;
+import com.me.api.trace.TracingExchangeFilter;
+import com.me.microservices.core.composite.Application.ConnectionPoolInformation;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Build the {@link WebClient} of a downstream service with its own connection pool.
+ * The settings are read from <i>app.&lt;service&gt;.pool</i>, the pool metrics are published under
+ * <i>reactor.netty.connection.provider.*</i> with the tag <i>name=&lt;service&gt;</i>.
+ * The exchanges are timed under <i>http.client.requests</i> with the tag <i>service=&lt;service&gt;</i> (see {@link IntegrationTagsProvider}).
+ * Each exchange is a client span of the {@link Tracing}, the header <i>traceparent</i> propagates the trace to the service.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+@Component
+public class WebClientFactory implements DisposableBean {
+	
+	private final WebClient.Builder webClientBuilder;
+	private final Binder binder;
+	private final Tracing tracing;
+	private final List<ConnectionProvider> providers = new CopyOnWriteArrayList<>();
+	
+	public WebClientFactory(WebClient.Builder webClientBuilder, Environment environment, Tracing tracing) {
+		
+		this.webClientBuilder = webClientBuilder;
+		this.binder = Binder.get(environment);
+		this.tracing = tracing;
+	}
+	
+	/**
+	 * @param service : name of the downstream service, <i>review-service</i> for example
+	 * @param baseUrl
+	 * @return {@link WebClient}
+	 */
+	public WebClient create(String service, String baseUrl) {
+		
+		ConnectionPoolInformation pool = binder.bind("app." + service + ".pool", ConnectionPoolInformation.class).
+				orElseGet(ConnectionPoolInformation::new);
+		
+		ConnectionProvider provider = ConnectionProvider.builder(service).
+				maxConnections(pool.getMaxConnections()).
+				pendingAcquireMaxCount(pool.getPendingAcquireMaxCount()).
+				pendingAcquireTimeout(pool.getPendingAcquireTimeout()).
+				maxIdleTime(pool.getMaxIdleTime()).
+				maxLifeTime(pool.getMaxLifeTime()).
+				metrics(true).
+				build();
+		
+		providers.add(provider);
+		
+		HttpClient httpClient = HttpClient.create(provider).
+				tcpConfiguration(tcp -> tcp.
+						option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int)pool.getConnectTimeout().toMillis()).
+						option(ChannelOption.SO_KEEPALIVE, pool.isKeepAlive())).
+				keepAlive(pool.isKeepAlive()).
+				doOnRequest((request, connection) -> connection.
+						addHandlerLast(new ReadTimeoutHandler(pool.getResponseTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+		
+		if(pool.isH2c()) httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+		
+		log.debug(" > The {} pool : max connections={}, pending acquire max count={}, max idle time={}, response timeout={}, h2c={}",
+				service, pool.getMaxConnections(), pool.getPendingAcquireMaxCount(), pool.getMaxIdleTime(), pool.getResponseTimeout(), pool.isH2c());
+		
+		return webClientBuilder.clone().
+				clientConnector(new ReactorClientHttpConnector(httpClient)).
+				uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl)).
+				defaultRequest(request -> request.attribute(IntegrationTagsProvider.SERVICE_ATTRIBUTE, service)).
+				filter(new TracingExchangeFilter(tracing, service)).
+				build();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void destroy() {
+		providers.forEach(ConnectionProvider::dispose);
+	}
+}
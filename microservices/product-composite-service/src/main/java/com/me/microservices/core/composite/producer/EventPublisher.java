@@ -0,0 +1,313 @@
+package com.me.microservices.core.composite.producer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import com.me.api.event.Event;
+import com.me.api.trace.TraceContext;
+import com.me.handler.exception.ServiceUnavailableException;
+import com.me.microservices.core.composite.Application.PublisherInformation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Asynchronous publishing of the events on the outputs of the {@link MessageProcessor}.
+ * Each output has a bounded outbox, drained by its own thread : the broker I/O never runs on the event loop. The events are sent one by one,
+ * the producer batching of the binder isn't enabled : a batch is a single AMQP message, the headers {@link #EVENT_ID} and
+ * {@link TraceContext#TRACEPARENT} of its events and their own confirms would be lost.
+ * When the outbox is full, the event is refused with a {@link ServiceUnavailableException}.
+ * With <i>confirms</i>, an event is published when the broker has confirmed it (publisher confirms on <i>event-confirms</i>,
+ * the nacks come from the error channel), otherwise when it has been sent.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+@Component
+public class EventPublisher implements DisposableBean {
+	
+	public static final String EVENT_ID = "eventId";
+	public static final String CONFIRMS_CHANNEL = "event-confirms";
+	
+	private final PublisherInformation information;
+	private final MeterRegistry registry;
+	private final Map<String, Outbox> outboxes = new HashMap<>();
+	private final Map<String, PendingEvent> unconfirmed = new ConcurrentHashMap<>();
+	
+	public EventPublisher(MessageProcessor messageProcessor, PublisherInformation information, MeterRegistry registry) {
+		
+		this.information = information;
+		this.registry = registry;
+		
+		outboxes.put(MessageProcessor.OUTPUT_PRODUCTS, new Outbox(MessageProcessor.OUTPUT_PRODUCTS, messageProcessor.outputProducts()));
+		outboxes.put(MessageProcessor.OUTPUT_RECOMMENDATIONS, new Outbox(MessageProcessor.OUTPUT_RECOMMENDATIONS, messageProcessor.outputRecommendations()));
+		outboxes.put(MessageProcessor.OUTPUT_REVIEWS, new Outbox(MessageProcessor.OUTPUT_REVIEWS, messageProcessor.outputReviews()));
+	}
+	
+	/**
+	 * @param output : name of the output, {@link MessageProcessor#OUTPUT_PRODUCTS} for example
+	 * @param event
+	 * @return mono of {@link Void}, completed when the event is published
+	 */
+	public Mono<Void> publish(String output, Event<?> event) {
+		return publish(output, event, null);
+	}
+	
+	/**
+	 * @param output : name of the output, {@link MessageProcessor#OUTPUT_PRODUCTS} for example
+	 * @param event
+	 * @param traceparent : header {@link TraceContext#TRACEPARENT} of the message, null without trace
+	 * @return mono of {@link Void}, completed when the event is published
+	 */
+	public Mono<Void> publish(String output, Event<?> event, String traceparent) {
+		
+		Outbox outbox = outboxes.get(output);
+		if(outbox == null) return Mono.error(new IllegalArgumentException(String.format("The output %s doesn't exist.", output)));
+		
+		return Mono.defer(() -> {
+			
+			PendingEvent pending = new PendingEvent(outbox, MessageBuilder.withPayload(event).
+					setHeader(EVENT_ID, UUID.randomUUID().toString()).
+					setHeader(TraceContext.TRACEPARENT, traceparent).
+					build());
+			
+			if(!outbox.offer(pending)) {
+				
+				outbox.failure("overflow");
+				return Mono.error(new ServiceUnavailableException(String.format("The outbox of %s is full.", output)));
+			}
+			
+			if(!information.isConfirms()) return pending.getResult();
+			
+			/**
+			 * After a timeout, the event is abandoned : it isn't sent when it's still in the outbox, its confirm is no longer awaited.
+			 */
+			return pending.getResult().
+					timeout(information.getConfirmTimeout()).
+					doOnError(TimeoutException.class, e -> outbox.failure("timeout")).
+					doFinally(signal -> {
+						
+						pending.abandon();
+						unconfirmed.remove(pending.getId());
+					});
+		});
+	}
+	
+	/**
+	 * Publisher confirm of the broker, the message is the published message.
+	 * @param ack
+	 */
+	@ServiceActivator(inputChannel=CONFIRMS_CHANNEL)
+	public void confirm(Message<?> ack) {
+		
+		PendingEvent pending = unconfirmed.remove(String.valueOf(ack.getHeaders().get(EVENT_ID)));
+		if(pending != null) pending.complete();
+	}
+	
+	/**
+	 * Negative publisher confirm or returned message : the failed message is the published message.
+	 * @param error
+	 */
+	@ServiceActivator(inputChannel=IntegrationContextUtils.ERROR_CHANNEL_BEAN_NAME)
+	public void nack(Message<?> error) {
+		
+		if(!(error.getPayload() instanceof MessagingException)) return;
+		
+		MessagingException exception = (MessagingException)error.getPayload();
+		Message<?> failed = exception.getFailedMessage();
+		if(failed == null) return;
+		
+		PendingEvent pending = unconfirmed.remove(String.valueOf(failed.getHeaders().get(EVENT_ID)));
+		if(pending != null) pending.fail("nack", exception);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void destroy() {
+		outboxes.values().forEach(Outbox::dispose);
+	}
+	
+	/**
+	 * Bounded queue of an output and its drain loop.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	private class Outbox {
+		
+		private final String output;
+		private final MessageChannel channel;
+		private final BlockingQueue<PendingEvent> queue;
+		private final AtomicInteger wip = new AtomicInteger();
+		private final Scheduler scheduler;
+		private final Timer latency;
+		
+		Outbox(String output, MessageChannel channel) {
+			
+			this.output = output;
+			this.channel = channel;
+			this.queue = new ArrayBlockingQueue<>(information.getCapacity());
+			this.scheduler = Schedulers.newSingle("event-publisher-" + output);
+			this.latency = Timer.builder("event-publisher.latency").tag("output", output).register(registry);
+			
+			Gauge.builder("event-publisher.outbox", queue, BlockingQueue::size).tag("output", output).register(registry);
+		}
+		
+		/**
+		 * @param pending
+		 * @return false when the outbox is full
+		 */
+		boolean offer(PendingEvent pending) {
+			
+			if(!queue.offer(pending)) return false;
+			if(wip.getAndIncrement() == 0) scheduler.schedule(this::drain);
+			
+			return true;
+		}
+		
+		/**
+		 * Only one drain runs at a time, the events offered during a drain are sent by the same drain.
+		 */
+		void drain() {
+			
+			int missed = 1;
+			
+			do {
+				
+				PendingEvent pending;
+				while((pending = queue.poll()) != null) send(pending);
+				
+				missed = wip.addAndGet(-missed);
+			}
+			while(missed != 0);
+		}
+		
+		/**
+		 * @param pending
+		 */
+		void send(PendingEvent pending) {
+			
+			if(pending.isAbandoned()) return;
+			
+			if(information.isConfirms()) {
+				
+				unconfirmed.put(pending.getId(), pending);
+				
+				/**
+				 * Abandoned between the check and the put : its entry may have been removed before the put.
+				 */
+				if(pending.isAbandoned()) {
+					
+					unconfirmed.remove(pending.getId());
+					return;
+				}
+			}
+			
+			try {
+				
+				if(!channel.send(pending.getMessage(), information.getSendTimeout().toMillis()))
+					throw new MessageDeliveryException(pending.getMessage(), "The message hasn't been sent in time.");
+				
+				if(!information.isConfirms()) pending.complete();
+			}
+			catch(Exception e) {
+				
+				unconfirmed.remove(pending.getId());
+				pending.fail("send", e);
+			}
+		}
+		
+		/**
+		 * @param reason
+		 */
+		void failure(String reason) {
+			Counter.builder("event-publisher.failures").tag("output", output).tag("reason", reason).register(registry).increment();
+		}
+		
+		void dispose() {
+			scheduler.dispose();
+		}
+	}
+	
+	/**
+	 * Event waiting in an outbox or for its confirm.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	private static class PendingEvent {
+		
+		private final Outbox outbox;
+		private final Message<?> message;
+		private final MonoProcessor<Void> result = MonoProcessor.create();
+		private final long enqueuedAt = System.nanoTime();
+		private volatile boolean abandoned;
+		
+		PendingEvent(Outbox outbox, Message<?> message) {
+			
+			this.outbox = outbox;
+			this.message = message;
+		}
+		
+		String getId() {
+			return String.valueOf(message.getHeaders().get(EVENT_ID));
+		}
+		
+		Message<?> getMessage() {
+			return message;
+		}
+		
+		Mono<Void> getResult() {
+			return result;
+		}
+		
+		/**
+		 * The publisher of the event doesn't wait for it anymore.
+		 */
+		void abandon() {
+			abandoned = true;
+		}
+		
+		boolean isAbandoned() {
+			return abandoned;
+		}
+		
+		void complete() {
+			
+			outbox.latency.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+			result.onComplete();
+		}
+		
+		/**
+		 * @param reason
+		 * @param e
+		 */
+		void fail(String reason, Throwable e) {
+			
+			log.error(" > The event {} hasn't been published on {} ({}).", message.getPayload(), outbox.output, reason, e);
+			outbox.failure(reason);
+			result.onError(new ServiceUnavailableException(String.format("The event hasn't been published on %s.", outbox.output), e));
+		}
+	}
+}
@@ -0,0 +1,370 @@
+package com.me.microservices.core.composite.producer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.me.api.event.Event;
+import com.me.api.trace.Span;
+import com.me.api.trace.Tracing;
+import com.me.handler.exception.ServiceUnavailableException;
+import com.me.microservices.core.composite.Application.OutboxInformation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Durable outbox of the events : an append-only journal of JSON lines (<i>outbox.journal</i>) and the sequence
+ * of the last published record (<i>outbox.offset</i>).
+ * The appends are written and forced to the disk by one thread, all the appends waiting at the same time share the same write (group commit).
+ * An event is accepted when it's on the disk, the {@link OutboxRelay} publishes it later.
+ * At startup, the records after the offset are published again : an event is published at least once.
+ * Each append is a producer span, its <i>traceparent</i> is recorded with the event and becomes a header of the message.
+ * The records which can't be published are appended to the dead letters (<i>outbox.dead-letter</i>), to be replayed by hand.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+@Component
+public class OutboxJournal implements DisposableBean {
+	
+	private static final String JOURNAL = "outbox.journal";
+	private static final String OFFSET = "outbox.offset";
+	private static final String DEAD_LETTER = "outbox.dead-letter";
+	
+	private final OutboxInformation information;
+	private final ObjectMapper jack;
+	private final Path offsetPath;
+	private final Path deadLetterPath;
+	private final FileChannel journal;
+	private final Scheduler writer;
+	private final Timer appendLatency;
+	private final Tracing tracing;
+	
+	private final BlockingQueue<PendingAppend> appends = new LinkedBlockingQueue<>();
+	private final AtomicInteger wip = new AtomicInteger();
+	private final ConcurrentLinkedQueue<OutboxRecord> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger size = new AtomicInteger();
+	
+	/**
+	 * Written by the writer thread only.
+	 */
+	private long sequence;
+	private long position;
+	
+	public OutboxJournal(OutboxInformation information, ObjectMapper jack, MeterRegistry registry, Tracing tracing) throws IOException {
+		
+		this.information = information;
+		this.jack = jack;
+		this.tracing = tracing;
+		
+		Path directory = Paths.get(information.getDirectory());
+		Files.createDirectories(directory);
+		
+		this.offsetPath = directory.resolve(OFFSET);
+		this.deadLetterPath = directory.resolve(DEAD_LETTER);
+		this.journal = FileChannel.open(directory.resolve(JOURNAL), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.writer = Schedulers.newSingle("outbox-journal");
+		this.appendLatency = Timer.builder("outbox.append").register(registry);
+		
+		Gauge.builder("outbox.pending", size, AtomicInteger::get).register(registry);
+		
+		recover(directory.resolve(JOURNAL));
+	}
+	
+	/**
+	 * @param output : name of the output, {@link MessageProcessor#OUTPUT_PRODUCTS} for example
+	 * @param event
+	 * @return mono of {@link Void}, completed when the event is on the disk
+	 */
+	public Mono<Void> append(String output, Event<Integer> event) {
+		
+		return tracing.mono("outbox " + output, Span.Kind.PRODUCER, span -> {
+			
+			if(size.get() >= information.getCapacity())
+				return Mono.error(new ServiceUnavailableException("The outbox is full, the events are not published."));
+			
+			PendingAppend append = new PendingAppend(output, event, span.getContext().traceparent());
+			appends.offer(append);
+			if(wip.getAndIncrement() == 0) writer.schedule(this::flush);
+			
+			return append.result;
+		});
+	}
+	
+	/**
+	 * @return true when some records are not published
+	 */
+	public boolean hasPending() {
+		return !pending.isEmpty();
+	}
+	
+	/**
+	 * @param max
+	 * @return the oldest records which are not published, in the order of the journal
+	 */
+	public List<OutboxRecord> peek(int max) {
+		
+		List<OutboxRecord> records = new ArrayList<>(max);
+		Iterator<OutboxRecord> iterator = pending.iterator();
+		
+		while(iterator.hasNext() && records.size() < max) records.add(iterator.next());
+		
+		return records;
+	}
+	
+	/**
+	 * The offset is written before the records leave the memory : an empty outbox is always committed on the disk.
+	 * @param lastSequence : all the records until this sequence are published
+	 */
+	public void commit(long lastSequence) {
+		
+		writeOffset(lastSequence);
+		
+		while(!pending.isEmpty() && pending.peek().getSequence() <= lastSequence) {
+			
+			pending.poll();
+			size.decrementAndGet();
+		}
+		
+		writer.schedule(this::compact);
+	}
+	
+	/**
+	 * The record stays pending, it's committed with the others. When the dead letter can't be written, the record is only logged.
+	 * @param record : record given up by the {@link OutboxRelay}
+	 * @param error : last failure of the publication
+	 */
+	public synchronized void deadLetter(OutboxRecord record, Throwable error) {
+		
+		log.error(" > The outbox record {} is dead-lettered : {}", record, error.toString());
+		
+		try {
+			
+			Files.write(deadLetterPath, (jack.writeValueAsString(record) + '\n').getBytes(UTF_8), 
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		}
+		catch(IOException e) {
+			log.error(" > The outbox record {} can't be written in the dead letters.", record.getSequence(), e);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void destroy() throws IOException {
+		
+		writer.dispose();
+		journal.close();
+	}
+	
+	/**
+	 * Only one flush runs at a time, the appends offered during a write are written by the next one.
+	 */
+	private void flush() {
+		
+		List<PendingAppend> batch = new ArrayList<>();
+		int missed = 1;
+		
+		do {
+			
+			while(appends.drainTo(batch) > 0) {
+				
+				write(batch);
+				batch.clear();
+			}
+			
+			missed = wip.addAndGet(-missed);
+		}
+		while(missed != 0);
+	}
+	
+	/**
+	 * One write and one force for the whole batch. A failed write is truncated, its appends fail.
+	 * @param batch
+	 */
+	private void write(List<PendingAppend> batch) {
+		
+		List<OutboxRecord> records = new ArrayList<>(batch.size());
+		
+		try {
+			
+			StringBuilder lines = new StringBuilder();
+			
+			for(PendingAppend append : batch) {
+				
+				OutboxRecord record = new OutboxRecord(sequence + records.size() + 1, append.output, append.event, append.traceparent);
+				lines.append(jack.writeValueAsString(record)).append('\n');
+				records.add(record);
+			}
+			
+			ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(UTF_8));
+			long written = 0;
+			
+			while(buffer.hasRemaining()) written += journal.write(buffer, position + written);
+			if(information.isSync()) journal.force(false);
+			
+			position += written;
+			sequence += records.size();
+		}
+		catch(IOException e) {
+			
+			log.error(" > {} event(s) can't be written in the outbox.", batch.size(), e);
+			truncate(position);
+			batch.forEach(append -> append.result.onError(new ServiceUnavailableException("The event can't be recorded in the outbox.", e)));
+			return;
+		}
+		
+		pending.addAll(records);
+		size.addAndGet(records.size());
+		
+		batch.forEach(append -> {
+			
+			appendLatency.record(System.nanoTime() - append.createdAt, TimeUnit.NANOSECONDS);
+			append.result.onComplete();
+		});
+	}
+	
+	/**
+	 * When all the records are published, the journal is emptied once it's bigger than <i>max-journal-size</i>.
+	 * The sequences go on, the offset stays valid.
+	 */
+	private void compact() {
+		
+		if(!pending.isEmpty() || position < information.getMaxJournalSize().toBytes()) return;
+		
+		truncate(0);
+		log.info(" > The outbox journal has been compacted, last sequence={}", sequence);
+	}
+	
+	/**
+	 * @param length
+	 */
+	private void truncate(long length) {
+		
+		try {
+			
+			journal.truncate(length);
+			journal.force(true);
+			position = length;
+		}
+		catch(IOException e) {
+			log.error(" > The outbox journal can't be truncated to {} bytes.", length, e);
+		}
+	}
+	
+	/**
+	 * Load the records after the offset. A last line without end is a write interrupted by a crash, it's truncated.
+	 * @param journalPath
+	 * @throws IOException
+	 */
+	private void recover(Path journalPath) throws IOException {
+		
+		long committed = readOffset();
+		byte[] content = Files.readAllBytes(journalPath);
+		
+		int end = content.length;
+		while(end > 0 && content[end - 1] != '\n') end--;
+		
+		sequence = committed;
+		
+		for(String line : new String(content, 0, end, UTF_8).split("\n")) {
+			
+			if(line.isEmpty()) continue;
+			
+			try {
+				
+				OutboxRecord record = jack.readValue(line, OutboxRecord.class);
+				sequence = Math.max(sequence, record.getSequence());
+				
+				if(record.getSequence() > committed) {
+					
+					pending.add(record);
+					size.incrementAndGet();
+				}
+			}
+			catch(IOException e) {
+				log.error(" > The outbox record {} can't be read, it's ignored.", line, e);
+			}
+		}
+		
+		position = content.length;
+		if(end < content.length) truncate(end);
+		
+		log.info(" > The outbox has been recovered : {} event(s) to publish, last sequence={}", size.get(), sequence);
+	}
+	
+	/**
+	 * @return the sequence of the last published record, 0 without offset
+	 * @throws IOException
+	 */
+	private long readOffset() throws IOException {
+		
+		if(!Files.exists(offsetPath)) return 0;
+		
+		String offset = new String(Files.readAllBytes(offsetPath), UTF_8).trim();
+		return offset.isEmpty() ? 0 : Long.parseLong(offset);
+	}
+	
+	/**
+	 * The offset is replaced atomically. When it can't be written, the records are published again after a restart.
+	 * @param lastSequence
+	 */
+	private void writeOffset(long lastSequence) {
+		
+		try {
+			
+			Path temporary = offsetPath.resolveSibling(OFFSET + ".tmp");
+			Files.write(temporary, String.valueOf(lastSequence).getBytes(UTF_8));
+			Files.move(temporary, offsetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch(IOException e) {
+			log.error(" > The outbox offset {} can't be written.", lastSequence, e);
+		}
+	}
+	
+	/**
+	 * Event waiting for the writer thread.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	private static class PendingAppend {
+		
+		private final String output;
+		private final Event<Integer> event;
+		private final String traceparent;
+		private final MonoProcessor<Void> result = MonoProcessor.create();
+		private final long createdAt = System.nanoTime();
+		
+		PendingAppend(String output, Event<Integer> event, String traceparent) {
+			
+			this.output = output;
+			this.event = event;
+			this.traceparent = traceparent;
+		}
+	}
+}
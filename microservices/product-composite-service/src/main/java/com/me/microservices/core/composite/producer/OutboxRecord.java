@@ -0,0 +1,24 @@
+package com.me.microservices.core.composite.producer;
+
+import com.me.api.event.Event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Line of the {@link OutboxJournal} : an event, the output on which it must be published and the <i>traceparent</i> 
+ * of the request which has produced it (null without trace).
+ * @author rudysaniez @since 0.0.1
+ */
+@Getter @Setter @ToString
+@NoArgsConstructor @AllArgsConstructor
+public class OutboxRecord {
+	
+	private long sequence;
+	private String output;
+	private Event<Integer> event;
+	private String traceparent;
+}
@@ -0,0 +1,128 @@
+package com.me.microservices.core.composite.producer;
+
+import java.util.List;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.me.microservices.core.composite.Application.OutboxInformation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * Background relay of the {@link OutboxJournal} to the broker.
+ * Every <i>relay-interval</i>, up to <i>batch-size</i> pending records are handed to the {@link EventPublisher}, each record
+ * on its own. A failed record is published again with an exponential backoff, at most <i>max-attempts</i> times, then it's written
+ * to the dead letters of the journal : a poison record doesn't hold the outbox. The records are committed when they are all
+ * published or dead-lettered, the consumers receive some events twice, a deletion is idempotent.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+@Component
+public class OutboxRelay implements DisposableBean {
+	
+	private final OutboxJournal journal;
+	private final EventPublisher publisher;
+	private final OutboxInformation information;
+	private final Scheduler scheduler;
+	private final Counter relayed;
+	private final Counter failures;
+	private final Counter deadLetters;
+	
+	private Disposable loop;
+	
+	public OutboxRelay(OutboxJournal journal, EventPublisher publisher, OutboxInformation information, MeterRegistry registry) {
+		
+		this.journal = journal;
+		this.publisher = publisher;
+		this.information = information;
+		this.scheduler = Schedulers.newSingle("outbox-relay");
+		this.relayed = Counter.builder("outbox.relayed").register(registry);
+		this.failures = Counter.builder("outbox.relay.failures").register(registry);
+		this.deadLetters = Counter.builder("outbox.dead.letters").register(registry);
+	}
+	
+	/**
+	 * The relay starts when the bindings are ready.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		
+		loop = Flux.interval(information.getRelayInterval(), scheduler).
+				onBackpressureDrop().
+				concatMap(tick -> relay(), 1).
+				subscribe();
+	}
+	
+	/**
+	 * @return mono of {@link Void}, completed when the journal has no pending record
+	 */
+	public Mono<Void> relay() {
+		
+		return Mono.defer(this::relayBatch).
+				repeat(journal::hasPending).
+				then();
+	}
+	
+	/**
+	 * @return mono of {@link Void}, completed when the oldest pending records are published or dead-lettered, and committed
+	 */
+	private Mono<Void> relayBatch() {
+		
+		List<OutboxRecord> batch = journal.peek(information.getBatchSize());
+		if(batch.isEmpty()) return Mono.empty();
+		
+		long lastSequence = batch.get(batch.size() - 1).getSequence();
+		
+		return Flux.fromIterable(batch).
+				flatMap(this::relayRecord, batch.size()).
+				then().
+				doOnSuccess(v -> journal.commit(lastSequence));
+	}
+	
+	/**
+	 * @param record
+	 * @return mono of {@link Void}, completed when the record is published or, after <i>max-attempts</i>, dead-lettered
+	 */
+	private Mono<Void> relayRecord(OutboxRecord record) {
+		
+		return Mono.defer(() -> publisher.publish(record.getOutput(), record.getEvent(), record.getTraceparent())).
+				retryWhen(Retry.backoff(Math.max(0, information.getMaxAttempts() - 1), information.getFirstBackoff()).
+						maxBackoff(information.getMaxBackoff()).
+						doBeforeRetry(signal -> {
+							
+							failures.increment();
+							log.warn(" > The outbox record {} can't be published, retry {} : {}", record.getSequence(), 
+									signal.totalRetries() + 1, signal.failure().toString());
+						})).
+				doOnSuccess(v -> relayed.increment()).
+				onErrorResume(e -> {
+					
+					failures.increment();
+					deadLetters.increment();
+					journal.deadLetter(record, Exceptions.isRetryExhausted(e) && e.getCause() != null ? e.getCause() : e);
+					return Mono.empty();
+				});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void destroy() {
+		
+		if(loop != null) loop.dispose();
+		scheduler.dispose();
+	}
+}
@@ -0,0 +1,53 @@
+package com.me.microservices.core.composite.services;
+
+import com.me.microservices.core.productcomposite.api.model.SectionStatus;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Recommendations or reviews of a product-aggregate, with the status of the section.
+ * @author rudysaniez @since 0.0.1
+ * @param <V> the section type
+ */
+@Getter
+@AllArgsConstructor(access=AccessLevel.PRIVATE)
+public class AggregateSection<V> {
+	
+	private final V value;
+	private final SectionStatus status;
+	
+	/**
+	 * @param <V>
+	 * @param value : the response of the downstream service
+	 * @return {@link AggregateSection}
+	 */
+	public static <V> AggregateSection<V> complete(V value) {
+		return new AggregateSection<>(value, SectionStatus.COMPLETE);
+	}
+	
+	/**
+	 * @param <V>
+	 * @param value : the last known response of the downstream service
+	 * @return {@link AggregateSection}
+	 */
+	public static <V> AggregateSection<V> stale(V value) {
+		return new AggregateSection<>(value, SectionStatus.STALE);
+	}
+	
+	/**
+	 * @param <V>
+	 * @return {@link AggregateSection} without value
+	 */
+	public static <V> AggregateSection<V> unavailable() {
+		return new AggregateSection<>(null, SectionStatus.UNAVAILABLE);
+	}
+	
+	/**
+	 * @return true when the section isn't up to date
+	 */
+	public boolean isDegraded() {
+		return !SectionStatus.COMPLETE.equals(status);
+	}
+}
@@ -1,7 +1,13 @@
 package com.me.microservices.core.composite.services;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 
 import org.mapstruct.factory.Mappers;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,8 +15,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
 
+import com.me.api.trace.ReactiveTracer;
 import com.me.handler.exception.DeletionException;
+import com.me.handler.exception.InvalidInputException;
+import com.me.handler.exception.ServiceUnavailableException;
+import com.me.microservices.core.composite.Application.BatchGetInformation;
+import com.me.microservices.core.composite.Application.DegradationInformation;
 import com.me.microservices.core.composite.Application.PaginationInformation;
+import com.me.microservices.core.composite.cache.AggregateKey;
+import com.me.microservices.core.composite.cache.LastKnownGoodCache;
+import com.me.microservices.core.composite.cache.ProductAggregateCache;
+import com.me.microservices.core.composite.cache.RequestCoalescer;
 import com.me.microservices.core.composite.integration.ProductIntegration;
 import com.me.microservices.core.composite.integration.RecommendationIntegration;
 import com.me.microservices.core.composite.integration.ReviewIntegration;
@@ -22,19 +37,29 @@ import com.me.microservices.core.productcomposite.api.model.PagedRecommendationS
 import com.me.microservices.core.productcomposite.api.model.PagedReviewSummary;
 import com.me.microservices.core.productcomposite.api.model.ProductAggregate;
 import com.me.microservices.core.productcomposite.api.model.ProductComposite;
+import com.me.microservices.core.productcomposite.api.model.ProductStatistics;
 import com.me.microservices.core.productcomposite.api.model.RecommendationSummary;
 import com.me.microservices.core.productcomposite.api.model.ReviewSummary;
+import com.me.microservices.core.productcomposite.api.model.SectionStatus;
 import com.me.microservices.core.recommendation.api.model.PagedRecommendation;
 import com.me.microservices.core.recommendation.api.model.Recommendation;
+import com.me.microservices.core.recommendation.api.model.RecommendationBatchResult;
 import com.me.microservices.core.review.api.model.PagedReview;
 import com.me.microservices.core.review.api.model.Review;
+import com.me.microservices.core.review.api.model.ReviewBatchResult;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
 
 /**
  * @author rudysaniez @since 0.0.1
  */
+@Slf4j
 @RestController
 public class ProductCompositeServiceImpl implements ProductsCompositeApi {
 
@@ -42,6 +67,14 @@ public class ProductCompositeServiceImpl implements ProductsCompositeApi {
 	@Autowired private RecommendationIntegration recommendationIntegration;
 	@Autowired private ReviewIntegration reviewIntegration;
 	@Autowired private PaginationInformation pagination;
+	@Autowired private ProductAggregateCache aggregateCache;
+	@Autowired private RequestCoalescer<AggregateKey, ProductAggregate> aggregateCoalescer;
+	@Autowired private DegradationInformation degradation;
+	@Autowired private BatchGetInformation batchGet;
+	@Autowired private LastKnownGoodCache<AggregateKey, PagedRecommendation> lastKnownRecommendations;
+	@Autowired private LastKnownGoodCache<AggregateKey, PagedReview> lastKnownReviews;
+	@Autowired private MeterRegistry registry;
+	@Autowired private ReactiveTracer tracer;
 	
 	private RecommendationMapper recommendationMapper = Mappers.getMapper(RecommendationMapper.class);
 	private ReviewMapper reviewMapper = Mappers.getMapper(ReviewMapper.class);
@@ -53,17 +86,40 @@ public class ProductCompositeServiceImpl implements ProductsCompositeApi {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Mono<ResponseEntity<ProductAggregate>> getCompositeProduct(Integer productId, Integer pageNumber, Integer pageSize, ServerWebExchange exchange) {
+	public Mono<ResponseEntity<ProductAggregate>> getCompositeProduct(Integer productId, Integer pageNumber, Integer pageSize, String recommendationsCursor, 
+			String reviewsCursor, ServerWebExchange exchange) {
 		
 		if(pageNumber == null) pageNumber = pagination.getPageNumber();
 		if(pageSize == null) pageSize = pagination.getPageSize();
 		
-		return Mono.zip(values -> createProductAggregate((Product)values[0], (PagedRecommendation)values[1], (PagedReview)values[2]), 
-				productIntegration.getProduct(productId, USELESS).map(re -> re.getBody()),
-				recommendationIntegration.getRecommendationByProductId(productId, pageNumber, pageSize, USELESS).map(re -> re.getBody()),
-				reviewIntegration.getReviewByProductId(productId, pageNumber, pageSize, USELESS).map(re -> re.getBody())).
+		AggregateKey key = AggregateKey.of(productId, pageNumber, pageSize, recommendationsCursor, reviewsCursor);
+		
+		return aggregateCache.get(key, () -> aggregateCoalescer.execute(key, () -> loadProductAggregate(key))).
 				map(pa -> ResponseEntity.ok(pa)).
-				log();
+				transform(tracer.mono("getCompositeProduct", "productId", productId));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<ProductAggregate>>> getCompositeProducts(Flux<Integer> productIds, Integer pageSize, ServerWebExchange exchange) {
+		
+		int size = pageSize == null || pageSize < 1 ? pagination.getPageSize() : pageSize;
+		
+		return productIds.collectList().
+				map(ids -> {
+					
+					if(ids.isEmpty()) throw new InvalidInputException("ProductIds should not be empty.");
+					if(ids.stream().anyMatch(id -> id == null || id < 1)) throw new InvalidInputException("ProductId should be greater than 0.");
+					
+					Set<Integer> productIDs = new TreeSet<>(ids);
+					if(productIDs.size() > batchGet.getMaxKeys()) 
+						throw new InvalidInputException(String.format("ProductIds should not contain more than %d productIDs.", batchGet.getMaxKeys()));
+					
+					return ResponseEntity.ok(loadProductAggregates(new ArrayList<>(productIDs), size).
+							transform(tracer.flux("getCompositeProducts")));
+				});
 	}
 	
 	/**
@@ -85,33 +141,29 @@ public class ProductCompositeServiceImpl implements ProductsCompositeApi {
 										withProductID(pc.getProductID()).
 										withName(pc.getName()).
 										withWeight(pc.getWeight()).
-										build()).
-				log();
+										build());
 		
 		Flux<Recommendation> fluxOfRecommendation = Flux.fromIterable(productComposite.getRecommendations() != null ? productComposite.getRecommendations() : Collections.<RecommendationSummary>emptyList()).
 				map(recommendationMapper::toCoreModel).
-				map(r -> {r.setProductID(productComposite.getProductID());return r;}).
-				log();
+				map(r -> {r.setProductID(productComposite.getProductID());return r;});
 		
 		Flux<Review> fluxOfReview = Flux.fromIterable(productComposite.getReviews() != null ? productComposite.getReviews() : Collections.<ReviewSummary>emptyList()).
 				map(reviewMapper::toCoreModel).
-				map(r -> {r.setProductID(productComposite.getProductID());return r;}).
-				log();
+				map(r -> {r.setProductID(productComposite.getProductID());return r;});
 		
 		return Mono.zip(values -> createProductComposite((Product)values[0], 
 				(List<Recommendation>)values[1], (List<Review>)values[2]),
 			
-				productIntegration.save(monoOfProduct, USELESS).log().
+				productIntegration.save(monoOfProduct, USELESS).
 					map(rs -> rs.getBody())
 				,
-				fluxOfRecommendation.flatMap(r -> recommendationIntegration.save(Mono.just(r), USELESS)).log().
-				map(re -> re.getBody()).collectList()
+				saveRecommendations(fluxOfRecommendation, productComposite.getRecommendations())
 				,
-				fluxOfReview.flatMap(r -> reviewIntegration.save(Mono.just(r), USELESS)).log().
-				map(re -> re.getBody()).collectList()
+				saveReviews(fluxOfReview, productComposite.getReviews())
 		).
+		doFinally(signal -> aggregateCache.invalidate(productComposite.getProductID())).
 		map(pc -> ResponseEntity.ok(pc)).
-		log();
+		transform(tracer.mono("createCompositeProduct", "productId", productComposite.getProductID()));
 	}
 
 	/**
@@ -120,33 +172,284 @@ public class ProductCompositeServiceImpl implements ProductsCompositeApi {
 	@Override
 	public Mono<ResponseEntity<Void>> deleteCompositeProduct(Integer productID, ServerWebExchange exchange) {
 		
-		try {
+		aggregateCache.tombstone(productID);
+		lastKnownRecommendations.invalidate(key -> key.getProductID().equals(productID));
+		lastKnownReviews.invalidate(key -> key.getProductID().equals(productID));
+		
+		/**
+		 * The tombstone is set again once the events are appended : it lasts until the core services have consumed them.
+		 */
+		return Mono.when(productIntegration.deleteProductAsync(productID),
+					recommendationIntegration.deleteRecommendationsAsync(productID),
+					reviewIntegration.deleteReviewsAsync(productID)).
+				doOnSuccess(v -> aggregateCache.tombstone(productID)).
+				onErrorMap(e -> !(e instanceof ServiceUnavailableException), e -> new DeletionException("Deletion has failed", e)).
+				map(v -> ResponseEntity.ok(v)).
+				transform(tracer.mono("deleteCompositeProduct", "productId", productID));
+	}
+
+	/**
+	 * Bulk requests with a bounded concurrency, the first rejected recommendation fails the creation.
+	 * @param fluxOfRecommendation
+	 * @param summaries
+	 * @return mono of the created {@link Recommendation}
+	 */
+	private Mono<List<Recommendation>> saveRecommendations(Flux<Recommendation> fluxOfRecommendation, List<RecommendationSummary> summaries) {
+		
+		if(summaries == null || summaries.isEmpty()) return Mono.just(Collections.emptyList());
+		
+		return recommendationIntegration.saveInBatches(fluxOfRecommendation).
+				map(result -> {
+					if(RecommendationBatchResult.StatusEnum.REJECTED.equals(result.getStatus())) throw new InvalidInputException(result.getMessage());
+					return result.getRecommendation();
+				}).
+				collectList();
+	}
+	
+	/**
+	 * Bulk requests with a bounded concurrency, the first rejected review fails the creation.
+	 * @param fluxOfReview
+	 * @param summaries
+	 * @return mono of the created {@link Review}
+	 */
+	private Mono<List<Review>> saveReviews(Flux<Review> fluxOfReview, List<ReviewSummary> summaries) {
+		
+		if(summaries == null || summaries.isEmpty()) return Mono.just(Collections.emptyList());
+		
+		return reviewIntegration.saveInBatches(fluxOfReview).
+				map(result -> {
+					if(ReviewBatchResult.StatusEnum.REJECTED.equals(result.getStatus())) throw new InvalidInputException(result.getMessage());
+					return result.getReview();
+				}).
+				collectList();
+	}
+	
+	/**
+	 * The product is required, the recommendations and the reviews are sections which can be degraded.
+	 * The statistics are optional.
+	 * @param key
+	 * @return mono of {@link ProductAggregate}
+	 */
+	@SuppressWarnings("unchecked")
+	private Mono<ProductAggregate> loadProductAggregate(AggregateKey key) {
+		
+		return Mono.zip(values -> createProductAggregate((Product)values[0], (AggregateSection<PagedRecommendation>)values[1], (AggregateSection<PagedReview>)values[2],
+						((Optional<ProductStatistics>)values[3]).orElse(null)), 
+				productIntegration.getProduct(key.getProductID(), USELESS).map(re -> re.getBody()),
+				loadSection("recommendations", key, degradation.getRecommendationsDeadline(), lastKnownRecommendations, 
+						recommendationIntegration.getRecommendationByProductId(key.getProductID(), key.getPageNumber(), key.getPageSize(), null, key.getRecommendationsCursor(), USELESS).map(re -> re.getBody())),
+				loadSection("reviews", key, degradation.getReviewsDeadline(), lastKnownReviews, 
+						reviewIntegration.getReviewByProductId(key.getProductID(), key.getPageNumber(), key.getPageSize(), null, key.getReviewsCursor(), USELESS).map(re -> re.getBody())),
+				loadStatistics(key.getProductID()));
+	}
+	
+	/**
+	 * The statistics of the recommendations and of the reviews are precomputed by the core services : two cheap reads.
+	 * They never fail the product-aggregate, they are missing on error or after the slowest deadline of the sections.
+	 * @param productID
+	 * @return mono of {@link ProductStatistics}, empty optional when they are missing
+	 */
+	private Mono<Optional<ProductStatistics>> loadStatistics(Integer productID) {
+		
+		Mono<ProductStatistics> statistics = Mono.zip(
+				Mono.defer(() -> recommendationIntegration.getRecommendationStatistics(productID, USELESS)).map(re -> re.getBody()),
+				Mono.defer(() -> reviewIntegration.getReviewStatistics(productID, USELESS)).map(re -> re.getBody()),
+				(r, rv) -> new ProductStatistics().recommendationCount(r.getCount()).averageRate(r.getAverageRate()).reviewCount(rv.getCount()));
+		
+		if(degradation.isEnabled()) {
 			
-			productIntegration.deleteProductAsync(productID);
-			recommendationIntegration.deleteRecommendationsAsync(productID);
-			reviewIntegration.deleteReviewsAsync(productID);
-		}
-		catch(Exception e) {
-			throw new DeletionException("Deletion has failed", e);
+			Duration deadline = degradation.getRecommendationsDeadline().compareTo(degradation.getReviewsDeadline()) > 0 ? 
+					degradation.getRecommendationsDeadline() : degradation.getReviewsDeadline();
+			statistics = statistics.timeout(deadline);
 		}
 		
-		return Mono.<Void>empty().map(v -> ResponseEntity.ok(v));
+		return statistics.map(Optional::of).
+				onErrorResume(e -> {
+					log.debug(" > The statistics of the product {} are missing : {}", productID, e.toString());
+					return Mono.just(Optional.empty());
+				}).
+				defaultIfEmpty(Optional.empty());
+	}
+	
+	/**
+	 * One call to each service for all the products, the responses are sorted by productID.
+	 * The recommendations and the reviews are replayed to each product : a product-aggregate is ready as soon as 
+	 * both responses are after its productID, without waiting for the end of the slowest one.
+	 * @param productIDs : sorted, without duplicate
+	 * @param pageSize
+	 * @return flux of {@link ProductAggregate}, sorted by productID
+	 */
+	private Flux<ProductAggregate> loadProductAggregates(List<Integer> productIDs, int pageSize) {
 		
+		return Flux.defer(() -> {
+			
+			Disposable.Composite calls = Disposables.composite();
+			
+			/**
+			 * One more element by product tells if a next page exists : the services read <i>page size + 1</i> documents by product, once.
+			 */
+			Flux<Recommendation> recommendations = recommendationIntegration.getRecommendationsByProductIds(Flux.fromIterable(productIDs), pageSize + 1, USELESS).
+					flatMapMany(re -> re.getBody()).
+					replay().
+					autoConnect(0, calls::add);
+			
+			Flux<Review> reviews = reviewIntegration.getReviewsByProductIds(Flux.fromIterable(productIDs), pageSize + 1, USELESS).
+					flatMapMany(re -> re.getBody()).
+					replay().
+					autoConnect(0, calls::add);
+			
+			return productIntegration.getProductsByIds(Flux.fromIterable(productIDs), USELESS).
+					flatMapMany(re -> re.getBody()).
+					flatMapSequential(product -> loadProductAggregate(product, pageSize, recommendations, reviews)).
+					doFinally(signal -> calls.dispose());
+		});
 	}
-
+	
+	/**
+	 * The sections of a product in a bulk read are degraded like the sections of one product-aggregate,
+	 * from their own last known good sections.
+	 * @param product
+	 * @param pageSize
+	 * @param recommendations : sorted by productID
+	 * @param reviews : sorted by productID
+	 * @return mono of {@link ProductAggregate}
+	 */
+	private Mono<ProductAggregate> loadProductAggregate(Product product, int pageSize, Flux<Recommendation> recommendations, Flux<Review> reviews) {
+		
+		AggregateKey key = AggregateKey.bulk(product.getProductID(), pageSize);
+		
+		return Mono.zip(loadSection("recommendations", key, degradation.getRecommendationsDeadline(), lastKnownRecommendations, 
+						sectionOf(recommendations, Recommendation::getProductID, key.getProductID()).map(list -> firstRecommendations(list, pageSize))),
+				loadSection("reviews", key, degradation.getReviewsDeadline(), lastKnownReviews, 
+						sectionOf(reviews, Review::getProductID, key.getProductID()).map(list -> firstReviews(list, pageSize))),
+				(r, rv) -> createProductAggregate(product, r, rv));
+	}
+	
+	/**
+	 * @param <T>
+	 * @param sorted : sorted by productID
+	 * @param productIDOf
+	 * @param productID
+	 * @return mono of the elements of the product, completed as soon as a next productID is read
+	 */
+	private static <T> Mono<List<T>> sectionOf(Flux<T> sorted, Function<T, Integer> productIDOf, Integer productID) {
+		
+		return sorted.skipWhile(t -> productIDOf.apply(t) < productID).
+				takeWhile(t -> productIDOf.apply(t).equals(productID)).
+				collectList();
+	}
+	
+	/**
+	 * @param recommendations : at most <i>page size + 1</i> recommendations
+	 * @param pageSize
+	 * @return {@link PagedRecommendation}, the first page without total
+	 */
+	private static PagedRecommendation firstRecommendations(List<Recommendation> recommendations, int pageSize) {
+		
+		boolean hasNext = recommendations.size() > pageSize;
+		
+		PagedRecommendation page = new PagedRecommendation();
+		page.setContent(hasNext ? recommendations.subList(0, pageSize) : recommendations);
+		page.setPage(new com.me.microservices.core.recommendation.api.model.PageMetadata().
+				size(Integer.toUnsignedLong(pageSize)).number(0L).hasNext(hasNext));
+		return page;
+	}
+	
+	/**
+	 * @param reviews : at most <i>page size + 1</i> reviews
+	 * @param pageSize
+	 * @return {@link PagedReview}, the first page without total
+	 */
+	private static PagedReview firstReviews(List<Review> reviews, int pageSize) {
+		
+		boolean hasNext = reviews.size() > pageSize;
+		
+		PagedReview page = new PagedReview();
+		page.setContent(hasNext ? reviews.subList(0, pageSize) : reviews);
+		page.setPage(new com.me.microservices.core.review.api.model.PageMetadata().
+				size(Integer.toUnsignedLong(pageSize)).number(0L).hasNext(hasNext));
+		return page;
+	}
+	
+	/**
+	 * After the deadline, or on error, the last known good section is returned as {@link SectionStatus#STALE}, 
+	 * otherwise the section is {@link SectionStatus#UNAVAILABLE}.
+	 * The call is not cancelled by the deadline, its late response refreshes the last known good section.
+	 * @param <V>
+	 * @param section : name of the section in the metrics
+	 * @param key
+	 * @param deadline
+	 * @param lastKnownGood
+	 * @param call
+	 * @return mono of {@link AggregateSection}
+	 */
+	private <V> Mono<AggregateSection<V>> loadSection(String section, AggregateKey key, Duration deadline, 
+			LastKnownGoodCache<AggregateKey, V> lastKnownGood, Mono<V> call) {
+		
+		Mono<V> remembered = call.doOnNext(value -> lastKnownGood.put(key, value));
+		
+		if(!degradation.isEnabled()) return remembered.map(AggregateSection::complete);
+		
+		return Mono.defer(() -> {
+			
+			MonoProcessor<V> response = MonoProcessor.create();
+			remembered.subscribe(response);
+			
+			return response.map(AggregateSection::<V>complete).
+					timeout(deadline).
+					onErrorResume(e -> {
+						log.debug(" > The {} section of the product {} is degraded : {}", section, key.getProductID(), e.toString());
+						return Mono.just(fallback(key, lastKnownGood));
+					}).
+					switchIfEmpty(Mono.fromSupplier(() -> fallback(key, lastKnownGood))).
+					doOnNext(s -> registry.counter("product-aggregate.sections", "section", section, "status", s.getStatus().getValue()).increment());
+		});
+	}
+	
+	/**
+	 * @param <V>
+	 * @param key
+	 * @param lastKnownGood
+	 * @return {@link AggregateSection} stale or unavailable
+	 */
+	private <V> AggregateSection<V> fallback(AggregateKey key, LastKnownGoodCache<AggregateKey, V> lastKnownGood) {
+		
+		return lastKnownGood.get(key).
+				map(AggregateSection::stale).
+				orElseGet(AggregateSection::unavailable);
+	}
+	
+	/**
+	 * Package-private, the assembly doesn't use the integrations : the benchmarks call it from the same package.
+	 * @param product
+	 * @param recommendations
+	 * @param reviews
+	 * @return {@link ProductAggregate}, without statistics
+	 */
+	ProductAggregate createProductAggregate(Product product, AggregateSection<PagedRecommendation> recommendations, 
+			AggregateSection<PagedReview> reviews) {
+		
+		return createProductAggregate(product, recommendations, reviews, null);
+	}
+	
 	/**
 	 * @param product
 	 * @param recommendations
 	 * @param reviews
+	 * @param statistics : null when they are missing
 	 * @return {@link ProductAggregate}
 	 */
-	private ProductAggregate createProductAggregate(Product product, PagedRecommendation recommendations, 
-			PagedReview reviews) {
+	ProductAggregate createProductAggregate(Product product, AggregateSection<PagedRecommendation> recommendations, 
+			AggregateSection<PagedReview> reviews, ProductStatistics statistics) {
 		
 		return AggregateBuilder.create().withProductID(product.getProductID()).
 				withName(product.getName()).withWeight(product.getWeight()).
-				withRecommendations(pagedMapper.toPagedRecommendationSummary(recommendations)).
-				withReviews(pagedMapper.toPageReviewSummary(reviews)).
+				withRecommendations(recommendations.getValue() != null ? pagedMapper.toPagedRecommendationSummary(recommendations.getValue()) : null).
+				withReviews(reviews.getValue() != null ? pagedMapper.toPageReviewSummary(reviews.getValue()) : null).
+				withRecommendationsStatus(recommendations.getStatus()).
+				withReviewsStatus(reviews.getStatus()).
+				withDegraded(recommendations.isDegraded() || reviews.isDegraded()).
+				withStatistics(statistics).
 				build();
 	}
 	
@@ -253,6 +556,10 @@ public class ProductCompositeServiceImpl implements ProductsCompositeApi {
 		private Integer weight;
 		private PagedRecommendationSummary recommendations;
 		private PagedReviewSummary reviews;
+		private SectionStatus recommendationsStatus = SectionStatus.COMPLETE;
+		private SectionStatus reviewsStatus = SectionStatus.COMPLETE;
+		private boolean degraded;
+		private ProductStatistics statistics;
 		
 		private AggregateBuilder() {}
 		
@@ -285,6 +592,26 @@ public class ProductCompositeServiceImpl implements ProductsCompositeApi {
 			return this;
 		}
 		
+		public AggregateBuilder withRecommendationsStatus(SectionStatus recommendationsStatus) {
+			this.recommendationsStatus = recommendationsStatus;
+			return this;
+		}
+		
+		public AggregateBuilder withReviewsStatus(SectionStatus reviewsStatus) {
+			this.reviewsStatus = reviewsStatus;
+			return this;
+		}
+		
+		public AggregateBuilder withDegraded(boolean degraded) {
+			this.degraded = degraded;
+			return this;
+		}
+		
+		public AggregateBuilder withStatistics(ProductStatistics statistics) {
+			this.statistics = statistics;
+			return this;
+		}
+		
 		public ProductAggregate build() {
 			
 			ProductAggregate pa = new ProductAggregate();
@@ -293,6 +620,10 @@ public class ProductCompositeServiceImpl implements ProductsCompositeApi {
 			pa.setWeight(weight);
 			pa.setRecommendations(recommendations);
 			pa.setReviews(reviews);
+			pa.setRecommendationsStatus(recommendationsStatus);
+			pa.setReviewsStatus(reviewsStatus);
+			pa.setDegraded(degraded);
+			pa.setStatistics(statistics);
 			return pa;
 		}
 	}
@@ -20,6 +20,7 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 @javax.annotation.Generated(value = "org.openapitools.codegen.languages.SpringCodegen", date = "2020-12-17T16:38:45.270923+01:00[Europe/Paris]")
 
@@ -72,6 +73,8 @@ public interface ProductsCompositeApi {
      * @param productId Product identifier. (required)
      * @param pageNumber Page number. (optional)
      * @param pageSize Page size. (optional)
+     * @param recommendationsCursor Cursor of the next page of recommendations, read from recommendations.page.nextCursor. (optional)
+     * @param reviewsCursor Cursor of the next page of reviews, read from reviews.page.nextCursor. (optional)
      * @return Not Found (status code 404)
      *         or Unprocessable Entity (status code 422)
      *         or OK (status code 200)
@@ -84,6 +87,26 @@ public interface ProductsCompositeApi {
     @RequestMapping(value = "/products-composite/{productId}",
         produces = { "application/json" }, 
         method = RequestMethod.GET)
-    Mono<ResponseEntity<ProductAggregate>> getCompositeProduct(@ApiParam(value = "Product identifier.",required=true) @PathVariable("productId") Integer productId,@ApiParam(value = "Page number.") @Valid @RequestParam(value = "pageNumber", required = false) Integer pageNumber,@ApiParam(value = "Page size.") @Valid @RequestParam(value = "pageSize", required = false) Integer pageSize, ServerWebExchange exchange);
+    Mono<ResponseEntity<ProductAggregate>> getCompositeProduct(@ApiParam(value = "Product identifier.",required=true) @PathVariable("productId") Integer productId,@ApiParam(value = "Page number.") @Valid @RequestParam(value = "pageNumber", required = false) Integer pageNumber,@ApiParam(value = "Page size.") @Valid @RequestParam(value = "pageSize", required = false) Integer pageSize,@ApiParam(value = "Cursor of the next page of recommendations, read from recommendations.page.nextCursor.") @Valid @RequestParam(value = "recommendationsCursor", required = false) String recommendationsCursor,@ApiParam(value = "Cursor of the next page of reviews, read from reviews.page.nextCursor.") @Valid @RequestParam(value = "reviewsCursor", required = false) String reviewsCursor, ServerWebExchange exchange);
+
+
+    /**
+     * POST /products-composite/batch-get : Get several product-composites.
+     * The product-aggregates are sorted by productID, the unknown productIDs are ignored. With application/stream+json, each product-aggregate is written as soon as it&#39;s ready.
+     *
+     * @param productIds  (required)
+     * @param pageSize Number of recommendations and reviews by product. (optional)
+     * @return Unprocessable Entity (status code 422)
+     *         or OK (status code 200)
+     */
+    @ApiOperation(value = "Get several product-composites.", nickname = "getCompositeProducts", notes = "The product-aggregates are sorted by productID, the unknown productIDs are ignored. With application/stream+json, each product-aggregate is written as soon as it's ready.", response = ProductAggregate.class, responseContainer = "List", tags={ "product-composite-service-impl", })
+    @ApiResponses(value = { 
+        @ApiResponse(code = 422, message = "Unprocessable Entity", response = HttpErrorInfo.class),
+        @ApiResponse(code = 200, message = "OK", response = ProductAggregate.class, responseContainer = "List") })
+    @RequestMapping(value = "/products-composite/batch-get",
+        produces = { "application/json", "application/stream+json" }, 
+        consumes = { "application/json" },
+        method = RequestMethod.POST)
+    Mono<ResponseEntity<Flux<ProductAggregate>>> getCompositeProducts(@ApiParam(value = "" ,required=true )  @Valid @RequestBody Flux<Integer> productIds,@ApiParam(value = "Number of recommendations and reviews by product.") @Valid @RequestParam(value = "pageSize", required = false) Integer pageSize, ServerWebExchange exchange);
 
 }
@@ -0,0 +1,92 @@
+package com.me.microservices.core.composite.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.me.microservices.core.composite.integration.BoundedWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class BoundedWriterTest {
+	
+	private MeterRegistry registry;
+	private AtomicInteger current;
+	private AtomicInteger peak;
+	
+	@Before
+	public void setup() {
+		
+		registry = new SimpleMeterRegistry();
+		current = new AtomicInteger();
+		peak = new AtomicInteger();
+	}
+	
+	@Test
+	public void requestsInFlightAreBounded() {
+		
+		BoundedWriter writer = new BoundedWriter("test", 2, 10, false, registry);
+		
+		StepVerifier.create(writer.write(Flux.range(1, 100), this::slowWrite)).
+			expectNextCount(100).
+			verifyComplete();
+		
+		assertEquals(2, peak.get());
+		assertEquals(0, writer.inFlight());
+		assertEquals(0, writer.queued());
+		assertEquals(0.0, registry.get("integration.writes.in-flight").tag("integration", "test").gauge().value(), 0.0);
+	}
+	
+	@Test
+	public void orderedModeKeepsTheSourceOrder() {
+		
+		BoundedWriter writer = new BoundedWriter("test", 4, 3, true, registry);
+		
+		List<Integer> expected = IntStream.rangeClosed(1, 30).boxed().collect(Collectors.toList());
+		
+		StepVerifier.create(writer.write(Flux.fromIterable(expected), this::slowWrite).collectList()).
+			expectNext(expected).
+			verifyComplete();
+		
+		assertTrue(peak.get() > 1);
+	}
+	
+	@Test
+	public void queuedItemsAreReleasedOnError() {
+		
+		BoundedWriter writer = new BoundedWriter("test", 1, 5, false, registry);
+		
+		StepVerifier.create(writer.write(Flux.range(1, 50), batch -> Mono.<Integer>error(new IllegalStateException()))).
+			verifyError(IllegalStateException.class);
+		
+		assertEquals(0, writer.inFlight());
+		assertEquals(0, writer.queued());
+	}
+	
+	/**
+	 * The latest batches are the fastest, to check the ordered mode.
+	 * @param batch
+	 * @return flux of the items
+	 */
+	private Flux<Integer> slowWrite(List<Integer> batch) {
+		
+		return Flux.defer(() -> {
+			
+			peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+			return Flux.fromIterable(batch).delaySubscription(Duration.ofMillis(Math.max(1, 50 - batch.get(0))));
+		}).
+		doFinally(signal -> current.decrementAndGet());
+	}
+}
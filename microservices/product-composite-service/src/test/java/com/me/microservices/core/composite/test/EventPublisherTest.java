@@ -0,0 +1,124 @@
+package com.me.microservices.core.composite.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+
+import com.me.api.event.Event;
+import com.me.handler.exception.ServiceUnavailableException;
+import com.me.microservices.core.composite.Application.PublisherInformation;
+import com.me.microservices.core.composite.producer.EventPublisher;
+import com.me.microservices.core.composite.producer.MessageProcessor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.test.StepVerifier;
+
+public class EventPublisherTest {
+	
+	private EventPublisher publisher;
+	private MeterRegistry registry;
+	private List<Message<?>> sent;
+	private CountDownLatch broker;
+	private PublisherInformation information;
+	
+	@Before
+	public void setup() {
+		
+		information = new PublisherInformation();
+		information.setCapacity(1);
+		
+		registry = new SimpleMeterRegistry();
+		sent = new CopyOnWriteArrayList<>();
+		broker = new CountDownLatch(0);
+		
+		MessageChannel channel = (message, timeout) -> {
+			
+			try {
+				broker.await();
+			}
+			catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			
+			return sent.add(message);
+		};
+		
+		publisher = new EventPublisher(new MessageProcessor() {
+			@Override public MessageChannel outputProducts() { return channel; }
+			@Override public MessageChannel outputRecommendations() { return channel; }
+			@Override public MessageChannel outputReviews() { return channel; }
+		}, information, registry);
+	}
+	
+	@After
+	public void tearDown() {
+		publisher.destroy();
+	}
+	
+	@Test
+	public void eventIsPublishedOffTheCallerThread() {
+		
+		StepVerifier.create(publisher.publish(MessageProcessor.OUTPUT_PRODUCTS, new Event<>(1, Event.Type.DELETE))).
+			verifyComplete();
+		
+		assertEquals(1, sent.size());
+		assertEquals(1, registry.get("event-publisher.latency").tag("output", MessageProcessor.OUTPUT_PRODUCTS).timer().count());
+	}
+	
+	@Test(timeout=5000)
+	public void eventAbandonedAfterTheConfirmTimeoutIsNotSent() throws InterruptedException {
+		
+		information.setConfirms(true);
+		information.setConfirmTimeout(Duration.ofMillis(100));
+		
+		broker = new CountDownLatch(1);
+		
+		/**
+		 * The first event is blocked in the broker, the second one times out in the outbox.
+		 */
+		publisher.publish(MessageProcessor.OUTPUT_PRODUCTS, new Event<>(1, Event.Type.DELETE)).subscribe(v -> {}, e -> {});
+		while(registry.get("event-publisher.outbox").tag("output", MessageProcessor.OUTPUT_PRODUCTS).gauge().value() > 0) Thread.sleep(10);
+		
+		StepVerifier.create(publisher.publish(MessageProcessor.OUTPUT_PRODUCTS, new Event<>(2, Event.Type.DELETE))).
+			verifyError(TimeoutException.class);
+		
+		broker.countDown();
+		
+		while(registry.get("event-publisher.outbox").tag("output", MessageProcessor.OUTPUT_PRODUCTS).gauge().value() > 0 || sent.isEmpty()) Thread.sleep(10);
+		Thread.sleep(100);
+		
+		assertEquals(1, sent.size());
+	}
+	
+	@Test(timeout=5000)
+	public void fullOutboxRefusesTheEvent() throws InterruptedException {
+		
+		broker = new CountDownLatch(1);
+		
+		/**
+		 * The first event is blocked in the broker, the second one fills the outbox.
+		 */
+		publisher.publish(MessageProcessor.OUTPUT_REVIEWS, new Event<>(1, Event.Type.DELETE)).subscribe();
+		while(registry.get("event-publisher.outbox").tag("output", MessageProcessor.OUTPUT_REVIEWS).gauge().value() > 0) Thread.sleep(10);
+		
+		publisher.publish(MessageProcessor.OUTPUT_REVIEWS, new Event<>(2, Event.Type.DELETE)).subscribe();
+		
+		StepVerifier.create(publisher.publish(MessageProcessor.OUTPUT_REVIEWS, new Event<>(3, Event.Type.DELETE))).
+			verifyError(ServiceUnavailableException.class);
+		
+		broker.countDown();
+		
+		assertEquals(1, registry.get("event-publisher.failures").tag("reason", "overflow").counter().count(), 0);
+	}
+}
@@ -0,0 +1,127 @@
+package com.me.microservices.core.composite.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.me.handler.exception.NotFoundException;
+import com.me.handler.exception.ServiceUnavailableException;
+import com.me.microservices.core.composite.Application.ResilienceInformation;
+import com.me.microservices.core.composite.integration.IntegrationResilience;
+import com.me.microservices.core.composite.integration.TransientFailurePredicate;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class IntegrationResilienceTest {
+	
+	private IntegrationResilience resilience;
+	private CircuitBreaker circuitBreaker;
+	private AtomicInteger attempts;
+	
+	@Before
+	public void setup() {
+		
+		ResilienceInformation information = new ResilienceInformation();
+		information.setReadTimeout(Duration.ofMillis(100));
+		information.setWriteTimeout(Duration.ofMillis(100));
+		information.setMaxRetries(2);
+		information.setFirstBackoff(Duration.ofMillis(1));
+		information.setMaxBackoff(Duration.ofMillis(5));
+		
+		circuitBreaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom().
+				slidingWindowSize(4).
+				minimumNumberOfCalls(4).
+				failureRateThreshold(50).
+				waitDurationInOpenState(Duration.ofMinutes(1)).
+				recordException(new TransientFailurePredicate()).
+				ignoreExceptions(NotFoundException.class).
+				build());
+		
+		resilience = new IntegrationResilience("test-service", circuitBreaker, information);
+		attempts = new AtomicInteger();
+	}
+	
+	@Test
+	public void transientErrorOfReadIsRetried() {
+		
+		Mono<String> call = Mono.defer(() -> attempts.incrementAndGet() < 3 ? Mono.error(new IOException()) : Mono.just("product"));
+		
+		StepVerifier.create(resilience.read(call)).expectNext("product").verifyComplete();
+		
+		assertEquals(3, attempts.get());
+	}
+	
+	@Test
+	public void notFoundIsNotRetried() {
+		
+		Mono<String> call = Mono.defer(() -> {
+			attempts.incrementAndGet();
+			return Mono.error(new NotFoundException("Not found"));
+		});
+		
+		StepVerifier.create(resilience.read(call)).verifyError(NotFoundException.class);
+		
+		assertEquals(1, attempts.get());
+		assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+	}
+	
+	@Test
+	public void writeIsNotRetried() {
+		
+		Mono<String> call = Mono.defer(() -> {
+			attempts.incrementAndGet();
+			return Mono.error(new IOException());
+		});
+		
+		StepVerifier.create(resilience.write(call)).verifyError(IOException.class);
+		
+		assertEquals(1, attempts.get());
+	}
+	
+	@Test
+	public void timeoutIsServiceUnavailable() {
+		
+		StepVerifier.create(resilience.write(Mono.never())).verifyError(ServiceUnavailableException.class);
+	}
+	
+	@Test
+	public void openCircuitBreakerRejectsTheCalls() {
+		
+		Mono<String> call = Mono.defer(() -> {
+			attempts.incrementAndGet();
+			return Mono.error(new IOException());
+		});
+		
+		for(int i = 0; i < 4; i++) StepVerifier.create(resilience.write(call)).verifyError(IOException.class);
+		
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		
+		StepVerifier.create(resilience.read(call)).verifyError(ServiceUnavailableException.class);
+		
+		assertEquals(4, attempts.get());
+	}
+	
+	@Test
+	public void clientErrorsDoNotOpenTheCircuitBreaker() {
+		
+		Mono<String> call = Mono.defer(() -> {
+			attempts.incrementAndGet();
+			return Mono.error(WebClientResponseException.create(400, "Bad Request", HttpHeaders.EMPTY, new byte[0], null));
+		});
+		
+		for(int i = 0; i < 4; i++) StepVerifier.create(resilience.read(call)).verifyError(WebClientResponseException.class);
+		
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+		assertEquals(4, attempts.get());
+	}
+}
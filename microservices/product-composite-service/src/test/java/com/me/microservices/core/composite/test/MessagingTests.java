@@ -3,6 +3,7 @@ package com.me.microservices.core.composite.test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,8 +34,11 @@ import com.me.api.Api;
 import com.me.api.event.Event;
 import com.me.microservices.core.composite.producer.MessageProcessor;
 
+import reactor.core.publisher.Mono;
+
 @RunWith(SpringRunner.class)
-@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, 
+	properties = "app.outbox.directory=${java.io.tmpdir}/product-composite-outbox-${random.uuid}")
 public class MessagingTests {
 
 	@Autowired
@@ -67,6 +71,13 @@ public class MessagingTests {
 			accept(MediaType.APPLICATION_JSON).exchange().
 				expectStatus().isEqualTo(HttpStatus.OK);
 		
+		/**
+		 * The events are recorded in the outbox, then relayed to the broker.
+		 */
+		awaitMessage(productQueue);
+		awaitMessage(recommendationQueue);
+		awaitMessage(reviewQueue);
+		
 		assertEquals(productQueue.size(), 1);
 		
 		Matcher<String> eventMatcher = EventMatcher.isItTheSame(new Event<Integer>(PRODUCT_ID, Event.Type.DELETE));
@@ -79,6 +90,17 @@ public class MessagingTests {
 		assertThat(reviewQueue, MessageQueueMatcher.receivesPayloadThat(eventMatcher));
 	}
 	
+	/**
+	 * @param queue
+	 */
+	private void awaitMessage(BlockingQueue<Message<?>> queue) {
+		
+		Mono.fromCallable(queue::isEmpty).
+			filter(empty -> !empty).
+			repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50))).
+			block(Duration.ofSeconds(10));
+	}
+	
 	/**
 	 * Event matcher.
 	 * @author rudysaniez
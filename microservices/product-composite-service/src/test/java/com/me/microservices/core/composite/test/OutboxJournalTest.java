@@ -0,0 +1,181 @@
+package com.me.microservices.core.composite.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.me.api.event.Event;
+import com.me.api.trace.InMemorySpanExporter;
+import com.me.api.trace.TraceContext;
+import com.me.api.trace.Tracing;
+import com.me.microservices.core.composite.Application.OutboxInformation;
+import com.me.microservices.core.composite.producer.MessageProcessor;
+import com.me.microservices.core.composite.producer.OutboxJournal;
+import com.me.microservices.core.composite.producer.OutboxRecord;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+public class OutboxJournalTest {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private OutboxInformation information;
+	private ObjectMapper jack;
+	private Tracing tracing;
+	
+	@Before
+	public void setup() {
+		
+		information = new OutboxInformation();
+		information.setDirectory(folder.getRoot().getAbsolutePath());
+		
+		jack = new ObjectMapper().registerModule(new JavaTimeModule());
+		tracing = new Tracing(true, 1, new InMemorySpanExporter(100));
+	}
+	
+	@Test
+	public void pendingEventsAreRecoveredAfterRestart() throws IOException {
+		
+		OutboxJournal journal = new OutboxJournal(information, jack, new SimpleMeterRegistry(), tracing);
+		
+		Mono.when(journal.append(MessageProcessor.OUTPUT_PRODUCTS, new Event<>(1, Event.Type.DELETE)),
+				journal.append(MessageProcessor.OUTPUT_RECOMMENDATIONS, new Event<>(1, Event.Type.DELETE)),
+				journal.append(MessageProcessor.OUTPUT_REVIEWS, new Event<>(1, Event.Type.DELETE))).
+			block();
+		
+		List<OutboxRecord> records = journal.peek(10);
+		assertEquals(3, records.size());
+		
+		journal.commit(records.get(0).getSequence());
+		journal.destroy();
+		
+		/**
+		 * A crash during a write leaves a line without end.
+		 */
+		Files.write(folder.getRoot().toPath().resolve("outbox.journal"), "{\"sequence\":4,\"out".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		
+		journal = new OutboxJournal(information, jack, new SimpleMeterRegistry(), tracing);
+		records = journal.peek(10);
+		
+		assertEquals(2, records.size());
+		assertEquals(MessageProcessor.OUTPUT_RECOMMENDATIONS, records.get(0).getOutput());
+		assertEquals(Integer.valueOf(1), records.get(1).getEvent().getKey());
+		
+		/**
+		 * The trace of the append is recorded with the event.
+		 */
+		assertTrue(TraceContext.parse(records.get(0).getTraceparent()).isSampled());
+		
+		/**
+		 * The sequences go on after the recovered records.
+		 */
+		journal.append(MessageProcessor.OUTPUT_PRODUCTS, new Event<>(2, Event.Type.DELETE)).block();
+		
+		records = journal.peek(10);
+		assertEquals(4, records.get(2).getSequence());
+		
+		journal.commit(records.get(2).getSequence());
+		assertFalse(journal.hasPending());
+		journal.destroy();
+	}
+	
+	@Test
+	public void tornRecordsAreSkippedAtRecovery() throws IOException {
+		
+		Path journalPath = folder.getRoot().toPath().resolve("outbox.journal");
+		
+		/**
+		 * A torn line in the middle of the journal, and a last line interrupted by a crash.
+		 */
+		String content = line(1, MessageProcessor.OUTPUT_PRODUCTS) + 
+				"{\"sequence\":2,\"output\":\"outp\n" + 
+				line(3, MessageProcessor.OUTPUT_REVIEWS) + 
+				"{\"sequence\":4,\"out";
+		Files.write(journalPath, content.getBytes(StandardCharsets.UTF_8));
+		
+		OutboxJournal journal = new OutboxJournal(information, jack, new SimpleMeterRegistry(), tracing);
+		List<OutboxRecord> records = journal.peek(10);
+		
+		assertEquals(2, records.size());
+		assertEquals(1, records.get(0).getSequence());
+		assertEquals(MessageProcessor.OUTPUT_REVIEWS, records.get(1).getOutput());
+		
+		/**
+		 * The interrupted line is truncated, the next append starts on a new line.
+		 */
+		assertEquals(content.lastIndexOf('\n') + 1, Files.size(journalPath));
+		
+		journal.append(MessageProcessor.OUTPUT_PRODUCTS, new Event<>(2, Event.Type.DELETE)).block();
+		journal.destroy();
+		
+		journal = new OutboxJournal(information, jack, new SimpleMeterRegistry(), tracing);
+		records = journal.peek(10);
+		
+		assertEquals(3, records.size());
+		assertEquals(4, records.get(2).getSequence());
+		journal.destroy();
+}
+
+	@Test
+	public void partialJournalIsEmptiedAtRecovery() throws IOException {
+		
+		Path directory = folder.getRoot().toPath();
+		Files.write(directory.resolve("outbox.offset"), "7".getBytes(StandardCharsets.UTF_8));
+		Files.write(directory.resolve("outbox.journal"), "{\"sequence\":8,\"output\":".getBytes(StandardCharsets.UTF_8));
+		
+		OutboxJournal journal = new OutboxJournal(information, jack, new SimpleMeterRegistry(), tracing);
+		
+		assertFalse(journal.hasPending());
+		assertEquals(0, Files.size(directory.resolve("outbox.journal")));
+		
+		/**
+		 * The sequences go on after the offset.
+		 */
+		journal.append(MessageProcessor.OUTPUT_PRODUCTS, new Event<>(1, Event.Type.DELETE)).block();
+		assertEquals(8, journal.peek(10).get(0).getSequence());
+		journal.destroy();
+	}
+	
+	@Test
+	public void deadLetteredRecordIsWrittenAside() throws IOException {
+		
+		OutboxJournal journal = new OutboxJournal(information, jack, new SimpleMeterRegistry(), tracing);
+		journal.append(MessageProcessor.OUTPUT_REVIEWS, new Event<>(5, Event.Type.DELETE)).block();
+		
+		OutboxRecord record = journal.peek(1).get(0);
+		journal.deadLetter(record, new IllegalStateException("poison"));
+		journal.commit(record.getSequence());
+		journal.destroy();
+		
+		List<String> deadLetters = Files.readAllLines(folder.getRoot().toPath().resolve("outbox.dead-letter"));
+		
+		assertEquals(1, deadLetters.size());
+		assertEquals(Integer.valueOf(5), jack.readValue(deadLetters.get(0), OutboxRecord.class).getEvent().getKey());
+	}
+	
+	/**
+	 * @param sequence
+	 * @param output
+	 * @return a complete line of the journal
+	 * @throws IOException
+	 */
+	private String line(long sequence, String output) throws IOException {
+		return jack.writeValueAsString(new OutboxRecord(sequence, output, new Event<>(1, Event.Type.DELETE), null)) + '\n';
+	}
+}
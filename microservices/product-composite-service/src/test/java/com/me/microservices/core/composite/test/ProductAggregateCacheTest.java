@@ -0,0 +1,132 @@
+package com.me.microservices.core.composite.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.me.microservices.core.composite.Application.AggregateCacheInformation;
+import com.me.microservices.core.composite.cache.AggregateKey;
+import com.me.microservices.core.composite.cache.ProductAggregateCache;
+import com.me.microservices.core.productcomposite.api.model.ProductAggregate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+public class ProductAggregateCacheTest {
+
+	private ProductAggregateCache cache;
+	private MeterRegistry registry;
+	private AtomicInteger loads;
+
+	private static final AggregateKey KEY = AggregateKey.of(1, 0, 5);
+	private static final AggregateKey OTHER_PAGE_KEY = AggregateKey.of(1, 1, 5);
+
+	@Before
+	public void setup() {
+
+		AggregateCacheInformation information = new AggregateCacheInformation();
+		information.setTimeToLive(Duration.ofMinutes(1));
+		information.setMaximumSize(100);
+
+		registry = new SimpleMeterRegistry();
+		cache = new ProductAggregateCache(information, registry);
+		loads = new AtomicInteger();
+	}
+
+	@Test
+	public void hitAfterFirstLoad() {
+
+		StepVerifier.create(cache.get(KEY, this::load)).expectNextCount(1).verifyComplete();
+		StepVerifier.create(cache.get(KEY, this::load)).expectNextCount(1).verifyComplete();
+
+		assertEquals(1, loads.get());
+		assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count(), 0.0);
+		assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count(), 0.0);
+	}
+
+	@Test
+	public void invalidateAllPagesOfProduct() {
+
+		cache.get(KEY, this::load).block();
+		cache.get(OTHER_PAGE_KEY, this::load).block();
+
+		cache.invalidate(KEY.getProductID());
+
+		cache.get(KEY, this::load).block();
+		cache.get(OTHER_PAGE_KEY, this::load).block();
+
+		assertEquals(4, loads.get());
+	}
+
+	@Test
+	public void loadInFlightIsNotCachedAfterInvalidation() {
+
+		MonoProcessor<ProductAggregate> response = MonoProcessor.create();
+		Mono<ProductAggregate> inFlight = cache.get(KEY, () -> response);
+		inFlight.subscribe();
+
+		cache.invalidate(KEY.getProductID());
+		response.onNext(aggregate(KEY.getProductID()));
+
+		cache.get(KEY, this::load).block();
+
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void invalidationOfAnotherProductKeepsTheLoadCacheable() {
+
+		MonoProcessor<ProductAggregate> response = MonoProcessor.create();
+		cache.get(KEY, () -> response).subscribe();
+
+		cache.invalidate(KEY.getProductID() + 1);
+		response.onNext(aggregate(KEY.getProductID()));
+
+		cache.get(KEY, this::load).block();
+
+		assertEquals(0, loads.get());
+	}
+
+	@Test
+	public void tombstonedProductIsNotCached() {
+
+		cache.tombstone(KEY.getProductID());
+
+		cache.get(KEY, this::load).block();
+		cache.get(KEY, this::load).block();
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void errorIsNotCached() {
+
+		StepVerifier.create(cache.get(KEY, () -> Mono.error(new IllegalStateException()))).verifyError(IllegalStateException.class);
+		StepVerifier.create(cache.get(KEY, this::load)).expectNextCount(1).verifyComplete();
+
+		assertEquals(1, loads.get());
+	}
+
+	private Mono<ProductAggregate> load() {
+
+		return Mono.fromSupplier(() -> {
+
+			loads.incrementAndGet();
+			return aggregate(KEY.getProductID());
+		});
+	}
+
+	private static ProductAggregate aggregate(Integer productID) {
+
+			ProductAggregate pa = new ProductAggregate();
+		pa.setProductID(productID);
+			return pa;
+	}
+}
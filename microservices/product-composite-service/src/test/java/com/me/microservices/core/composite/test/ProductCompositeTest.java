@@ -1,10 +1,14 @@
 package com.me.microservices.core.composite.test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -30,12 +34,17 @@ import com.me.microservices.core.composite.Application.PaginationInformation;
 import com.me.microservices.core.composite.builder.PagedRecommendationBuilder;
 import com.me.microservices.core.composite.builder.PagedReviewBuilder;
 import com.me.microservices.core.composite.builder.ProductBuilder;
+import com.me.microservices.core.composite.builder.RecommendationBuilder;
+import com.me.microservices.core.composite.builder.ReviewBuilder;
 import com.me.microservices.core.composite.integration.ProductIntegration;
 import com.me.microservices.core.composite.integration.RecommendationIntegration;
 import com.me.microservices.core.composite.integration.ReviewIntegration;
 import com.me.microservices.core.recommendation.api.model.PagedRecommendation;
+import com.me.microservices.core.recommendation.api.model.RecommendationStatistics;
 import com.me.microservices.core.review.api.model.PagedReview;
+import com.me.microservices.core.review.api.model.ReviewStatistics;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -56,6 +65,7 @@ public class ProductCompositeTest {
 	private static final Integer REVIEW_ID = 1;
 	private static final Integer PRODUCT_NOT_FOUND = 999;
 	private static final Integer PRODUCT_INVALID_INPUT = 0;
+	private static final Integer PRODUCT_SLOW_REVIEWS = 2;
 
 	private static final String PRODUCT_NAME = "Panneau solaire";
 	
@@ -75,7 +85,7 @@ public class ProductCompositeTest {
 		PagedRecommendation pagedRecommendation = PagedRecommendationBuilder.create().withRecommendation(RECOMMENDATION_ID, PRODUCT_ID, "rudysaniez", 1, "This product is good!", LocalDateTime.now()).
 			withPageMetadata(1L, 1L, 1L, 0L).build();
 		
-		when(recommendationIntegration.getRecommendationByProductId(PRODUCT_ID, pagination.getPageNumber(), pagination.getPageSize(), null)).
+		when(recommendationIntegration.getRecommendationByProductId(PRODUCT_ID, pagination.getPageNumber(), pagination.getPageSize(), null, null, null)).
 			thenReturn(Mono.just(ResponseEntity.ok(pagedRecommendation)));
 
 		/**
@@ -84,9 +94,30 @@ public class ProductCompositeTest {
 		PagedReview pagedReview = PagedReviewBuilder.create().withReview(REVIEW_ID, PRODUCT_ID, "rudysaniez", "Good product", "This product is very good!", LocalDateTime.now()).
 					withPageMetadata(1L, 1L, 1L, 0L).build();
 		
-		when(reviewIntegration.getReviewByProductId(PRODUCT_ID, pagination.getPageNumber(), pagination.getPageSize(), null)).
+		when(reviewIntegration.getReviewByProductId(PRODUCT_ID, pagination.getPageNumber(), pagination.getPageSize(), null, null, null)).
 			thenReturn(Mono.just(ResponseEntity.ok(pagedReview)));
+		
+		/**
+		 * Micro services core : statistics of the product, missing for the other products.
+		 */
+		when(recommendationIntegration.getRecommendationStatistics(PRODUCT_ID, null)).
+			thenReturn(Mono.just(ResponseEntity.ok(new RecommendationStatistics().productID(PRODUCT_ID).count(2L).averageRate(3.5))));
+		
+		when(reviewIntegration.getReviewStatistics(PRODUCT_ID, null)).
+			thenReturn(Mono.just(ResponseEntity.ok(new ReviewStatistics().productID(PRODUCT_ID).count(1L))));
 
+		/**
+		 * Micro service core : Review doesn't respond before the deadline.
+		 */
+		when(productIntegration.getProduct(PRODUCT_SLOW_REVIEWS, null)).
+			thenReturn(Mono.just(ResponseEntity.ok(ProductBuilder.create().withProductID(PRODUCT_SLOW_REVIEWS).withName(PRODUCT_NAME).withWeight(10).build())));
+		
+		when(recommendationIntegration.getRecommendationByProductId(PRODUCT_SLOW_REVIEWS, pagination.getPageNumber(), pagination.getPageSize(), null, null, null)).
+			thenReturn(Mono.just(ResponseEntity.ok(pagedRecommendation)));
+		
+		when(reviewIntegration.getReviewByProductId(PRODUCT_SLOW_REVIEWS, pagination.getPageNumber(), pagination.getPageSize(), null, null, null)).
+			thenReturn(Mono.never());
+		
 		/**
 		 * Micro service core : Product not found.
 		 */
@@ -98,6 +129,24 @@ public class ProductCompositeTest {
 		 */
 		when(productIntegration.getProduct(PRODUCT_INVALID_INPUT, null)).
 			thenThrow(new InvalidInputException(String.format("The product %d is an invalid input", PRODUCT_INVALID_INPUT)));
+		
+		/**
+		 * Micro services core : multi-key reads, sorted by productID, one more element by product than the page size.
+		 */
+		when(productIntegration.getProductsByIds(any(), isNull())).
+			thenReturn(Mono.just(ResponseEntity.ok(Flux.just(
+					ProductBuilder.create().withProductID(PRODUCT_ID).withName(PRODUCT_NAME).withWeight(10).build(),
+					ProductBuilder.create().withProductID(PRODUCT_SLOW_REVIEWS).withName(PRODUCT_NAME).withWeight(10).build()))));
+		
+		when(recommendationIntegration.getRecommendationsByProductIds(any(), eq(2), isNull())).
+			thenReturn(Mono.just(ResponseEntity.ok(Flux.just(
+					RecommendationBuilder.create().withRecommendationID(RECOMMENDATION_ID).withProductID(PRODUCT_ID).withAuthor("rudysaniez").withRate(1).withContent("This product is good!").build(),
+					RecommendationBuilder.create().withRecommendationID(2).withProductID(PRODUCT_SLOW_REVIEWS).withAuthor("rudysaniez").withRate(1).withContent("This product is good!").build()))));
+		
+		when(reviewIntegration.getReviewsByProductIds(any(), eq(2), isNull())).
+			thenReturn(Mono.just(ResponseEntity.ok(Flux.just(
+					ReviewBuilder.create().withReviewID(REVIEW_ID).withProductID(PRODUCT_ID).withAuthor("rudysaniez").withSubject("Good product").withContent("This product is very good!").build(),
+					ReviewBuilder.create().withReviewID(2).withProductID(PRODUCT_ID).withAuthor("rudysaniez").withSubject("Good product").withContent("This product is very good!").build()))));
 	}
 	
 	@Test
@@ -110,7 +159,52 @@ public class ProductCompositeTest {
 		getAndVerifyStatus(PRODUCT_ID, HttpStatus.OK).
 			jsonPath("$.name").isEqualTo(PRODUCT_NAME).
 			jsonPath("$.recommendations.content[0].recommendationID").isEqualTo(1).
-			jsonPath("$.reviews.content[0].reviewID").isEqualTo(1);
+			jsonPath("$.reviews.content[0].reviewID").isEqualTo(1).
+			jsonPath("$.degraded").isEqualTo(false).
+			jsonPath("$.reviewsStatus").isEqualTo("COMPLETE").
+			jsonPath("$.statistics.recommendationCount").isEqualTo(2).
+			jsonPath("$.statistics.averageRate").isEqualTo(3.5).
+			jsonPath("$.statistics.reviewCount").isEqualTo(1);
+	}
+	
+	@Test
+	public void getDegradedCompositeProduct() {
+		
+		getAndVerifyStatus(PRODUCT_SLOW_REVIEWS, HttpStatus.OK).
+			jsonPath("$.name").isEqualTo(PRODUCT_NAME).
+			jsonPath("$.recommendations.content[0].recommendationID").isEqualTo(1).
+			jsonPath("$.recommendationsStatus").isEqualTo("COMPLETE").
+			jsonPath("$.reviews").doesNotExist().
+			jsonPath("$.reviewsStatus").isEqualTo("UNAVAILABLE").
+			jsonPath("$.degraded").isEqualTo(true).
+			jsonPath("$.statistics").doesNotExist();
+	}
+	
+	@Test
+	public void getCompositeProducts() {
+		
+		client.post().uri(uri -> uri.pathSegment("api", "v1", Api.PRODUCT_COMPOSITE_PATH, Api.BATCH_GET_PATH).queryParam("pageSize", 1).build()).
+			contentType(MediaType.APPLICATION_JSON).bodyValue(Arrays.asList(PRODUCT_SLOW_REVIEWS, PRODUCT_ID, PRODUCT_ID)).
+			accept(MediaType.APPLICATION_JSON).exchange().
+			expectStatus().isOk().
+			expectBody().
+				jsonPath("$.length()").isEqualTo(2).
+				jsonPath("$[0].productID").isEqualTo(PRODUCT_ID).
+				jsonPath("$[0].reviews.content.length()").isEqualTo(1).
+				jsonPath("$[0].reviews.page.hasNext").isEqualTo(true).
+				jsonPath("$[1].productID").isEqualTo(PRODUCT_SLOW_REVIEWS).
+				jsonPath("$[1].recommendations.content[0].recommendationID").isEqualTo(2).
+				jsonPath("$[1].reviews.content").isEmpty().
+				jsonPath("$[1].reviewsStatus").isEqualTo("COMPLETE");
+	}
+	
+	@Test
+	public void getCompositeProductsInvalidInputException() {
+		
+		client.post().uri(uri -> uri.pathSegment("api", "v1", Api.PRODUCT_COMPOSITE_PATH, Api.BATCH_GET_PATH).build()).
+			contentType(MediaType.APPLICATION_JSON).bodyValue(Arrays.asList(PRODUCT_ID, PRODUCT_INVALID_INPUT)).
+			accept(MediaType.APPLICATION_JSON).exchange().
+			expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
 	}
 	
 	@Test
@@ -142,12 +236,12 @@ public class ProductCompositeTest {
 			verifyComplete();
 		
 		PagedReview pageOfReview = reviewIntegration.getReviewByProductId(PRODUCT_ID, pagination.getPageNumber(), 
-				pagination.getPageSize(), null).map(rs -> rs.getBody()).block();
+				pagination.getPageSize(), null, null, null).map(rs -> rs.getBody()).block();
 		assertThat(pageOfReview.getContent()).isNotEmpty();
 		
 		
 		PagedRecommendation pageOfRecommendation = recommendationIntegration.getRecommendationByProductId(PRODUCT_ID, pagination.getPageNumber(), 
-				pagination.getPageSize(), null).map(rs -> rs.getBody()).block();
+				pagination.getPageSize(), null, null, null).map(rs -> rs.getBody()).block();
 		assertThat(pageOfRecommendation.getContent()).isNotEmpty();
 		
 	}
@@ -0,0 +1,80 @@
+package com.me.microservices.core.composite.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.me.microservices.core.composite.cache.RequestCoalescer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+public class RequestCoalescerTest {
+
+	private RequestCoalescer<Integer, String> coalescer;
+	private MeterRegistry registry;
+	private AtomicInteger upstreamCalls;
+
+	@Before
+	public void setup() {
+
+		registry = new SimpleMeterRegistry();
+		coalescer = new RequestCoalescer<>("test", registry);
+		upstreamCalls = new AtomicInteger();
+	}
+
+	@Test
+	public void concurrentSubscribersShareOneUpstreamCall() {
+
+		MonoProcessor<String> upstream = MonoProcessor.create();
+
+		List<Mono<String>> requests = List.of(
+				coalescer.execute(1, () -> count(upstream)),
+				coalescer.execute(1, () -> count(upstream)),
+				coalescer.execute(1, () -> count(upstream)));
+
+		StepVerifier.create(Flux.merge(requests)).
+			then(() -> upstream.onNext("product-1")).
+			expectNext("product-1", "product-1", "product-1").
+			verifyComplete();
+
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(0, coalescer.inFlight());
+		assertEquals(1.0, registry.get("coalescer.requests").tag("result", "originated").counter().count(), 0.0);
+		assertEquals(2.0, registry.get("coalescer.requests").tag("result", "coalesced").counter().count(), 0.0);
+	}
+
+	@Test
+	public void keyIsReleasedAfterCompletion() {
+
+		coalescer.execute(1, () -> count(Mono.just("first"))).block();
+		coalescer.execute(1, () -> count(Mono.just("second"))).block();
+
+		assertEquals(2, upstreamCalls.get());
+		assertEquals(0, coalescer.inFlight());
+	}
+
+	@Test
+	public void errorIsSharedThenReleased() {
+
+		StepVerifier.create(coalescer.execute(1, () -> count(Mono.error(new IllegalStateException())))).
+			verifyError(IllegalStateException.class);
+
+		StepVerifier.create(coalescer.execute(1, () -> count(Mono.just("retry")))).
+			expectNext("retry").verifyComplete();
+	}
+
+	private Mono<String> count(Mono<String> upstream) {
+
+		upstreamCalls.incrementAndGet();
+		return upstream;
+	}
+}
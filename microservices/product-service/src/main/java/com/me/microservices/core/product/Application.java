@@ -1,12 +1,12 @@
 package com.me.microservices.core.product;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.cloud.stream.annotation.EnableBinding;
-import org.springframework.cloud.stream.messaging.Sink;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.event.ContextRefreshedEvent;
@@ -26,11 +26,15 @@ import com.me.microservices.core.product.mapper.ProductMapperImpl;
 
 import lombok.Getter;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-@EnableBinding(value = Sink.class)
+@Slf4j
 @EnableReactiveMongoRepositories
-@EnableConfigurationProperties(value={Application.PaginationInformation.class})
-@ComponentScan(basePackages= {"com.me.microservices.core", "com.me.handler.http"})
+@EnableConfigurationProperties(value={Application.PaginationInformation.class, Application.BatchInformation.class, 
+		Application.ConsumerInformation.class, Application.ProductCacheInformation.class})
+@ComponentScan(basePackages= {"com.me.microservices.core.product", "com.me.handler.http", "com.me.api.trace", "com.me.api.metrics"})
 @SpringBootApplication
 public class Application {
 
@@ -50,10 +54,55 @@ public class Application {
 		private int pageNumber;
 		private int pageSize;
 	}
+	
+	/**
+	 * Multi-key read : maximum number of productIDs in one request.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="api.batch")
+	public static class BatchInformation {
+		
+		private int maxKeys = 100;
+	}
  	
+	/**
+	 * Consumption of the product events : concurrency, batches and retries before the rejection to the DLQ.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="app.consumer")
+	public static class ConsumerInformation {
+		
+		private int concurrency = 4;
+		private long maxAttempts = 3;
+		private Duration backOffInitialInterval = Duration.ofMillis(500);
+		private Duration backOffMaxInterval = Duration.ofSeconds(1);
+		private int batchSize = 100;
+		private Duration batchWindow = Duration.ofMillis(200);
+	}
+	
+	/**
+	 * Near-cache of the products read by productID.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="app.product-cache")
+	public static class ProductCacheInformation {
+		
+		private boolean enabled = true;
+		private Duration timeToLive = Duration.ofSeconds(30);
+		private long maximumSize = 10_000;
+	}
+	
 	@Autowired
 	private ReactiveMongoOperations mongoTemplate;
 	
+	private volatile Mono<Void> indices = Mono.empty();
+	
+	/**
+	 * Create the indices declared by {@link ProductEntity}, in the background : the event thread isn't blocked.
+	 */
 	@EventListener(ContextRefreshedEvent.class)
 	public void initIndicesAfterStartup() {
 
@@ -61,6 +110,19 @@ public class Application {
 		IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
 
 		ReactiveIndexOperations indexOps = mongoTemplate.indexOps(ProductEntity.class);
-		resolver.resolveIndexFor(ProductEntity.class).forEach(e -> indexOps.ensureIndex(e).block());
+		
+		indices = Flux.fromIterable(resolver.resolveIndexFor(ProductEntity.class)).
+				concatMap(indexOps::ensureIndex).
+				then().
+				cache();
+		
+		indices.subscribe(v -> {}, e -> log.error(" > The indices of {} can't be created.", ProductEntity.class.getSimpleName(), e));
+	}
+	
+	/**
+	 * @return mono of {@link Void}, completed when the indices are created
+	 */
+	public Mono<Void> indices() {
+		return indices;
 	}
 }
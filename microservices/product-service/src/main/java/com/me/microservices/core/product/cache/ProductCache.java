@@ -0,0 +1,151 @@
+package com.me.microservices.core.product.cache;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.me.microservices.core.product.Application.ProductCacheInformation;
+import com.me.microservices.core.product.api.model.Product;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded near-cache of the products read by productID, in front of <i>findByProductID</i>.
+ * The writes of this instance replace or invalidate their product, the deletions of the other instances are received as events.
+ * The hit, miss and eviction metrics, and the hit ratio, are published under the cache name {@value #CACHE_NAME}.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+@Component
+public class ProductCache {
+	
+	public static final String CACHE_NAME = "product";
+	
+	private final Cache<Integer, Product> cache;
+	private final boolean enabled;
+	
+	/**
+	 * Incremented on each write : its value is the stamp of the written product.
+	 */
+	private final AtomicLong sequence = new AtomicLong();
+	
+	/**
+	 * Stamp of the last write of each product, a load started before a write of its product is not cached : it could be older than the write.
+	 * A loaded product is put under the lock of its stamp, a write between the check of the stamp and the put isn't possible.
+	 */
+	private final Cache<Integer, Long> stamps;
+	
+	/**
+	 * Stamp of the last invalidation of all the products.
+	 */
+	private volatile long cleared;
+	
+	public ProductCache(ProductCacheInformation information, MeterRegistry registry) {
+		
+		this.enabled = information.isEnabled();
+		this.cache = Caffeine.newBuilder().
+				maximumSize(information.getMaximumSize()).
+				expireAfterWrite(information.getTimeToLive()).
+				recordStats().
+				build();
+		this.stamps = Caffeine.newBuilder().
+				maximumSize(information.getMaximumSize()).
+				expireAfterWrite(information.getTimeToLive()).
+				build();
+		
+		CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+		Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate()).
+				tag("cache", CACHE_NAME).
+				description("Ratio of the reads served by the cache").
+				register(registry);
+		
+		log.debug(" > Product cache enabled={}, ttl={}, maximum size={}", enabled,
+				information.getTimeToLive(), information.getMaximumSize());
+	}
+	
+	/**
+	 * A missing product is not cached.
+	 * @param productID
+	 * @param loader : called when the product isn't in the cache
+	 * @return mono of {@link Product}
+	 */
+	public Mono<Product> get(Integer productID, Supplier<Mono<Product>> loader) {
+		
+		if(!enabled) return Mono.defer(loader);
+		
+		return Mono.defer(() -> {
+			
+			Product cached = cache.getIfPresent(productID);
+			if(cached != null) return Mono.just(cached);
+			
+			long start = sequence.get();
+			
+			return loader.get().doOnNext(p -> stamps.asMap().compute(productID, (id, stamp) -> {
+				
+				if((stamp == null || stamp <= start) && cleared <= start) {
+					
+					cache.put(productID, p);
+					
+					/**
+					 * All the products may have been invalidated between the check and the put.
+					 */
+					if(cleared > start) cache.invalidate(productID);
+				}
+				
+				return stamp;
+			}));
+		});
+	}
+	
+	/**
+	 * Read-your-writes : the product saved by this instance is the next one read.
+	 * @param product
+	 */
+	public void put(Product product) {
+		
+		if(!enabled || product == null || product.getProductID() == null) return;
+		
+		stamps.asMap().compute(product.getProductID(), (id, stamp) -> {
+			
+			cache.put(id, product);
+			return sequence.incrementAndGet();
+		});
+	}
+	
+	/**
+	 * @param productID
+	 */
+	public void invalidate(Integer productID) {
+		
+		if(!enabled || productID == null) return;
+		
+		stamps.put(productID, sequence.incrementAndGet());
+		cache.invalidate(productID);
+		
+		log.debug(" > The product with productID={} has been invalidated", productID);
+	}
+	
+	/**
+	 * @param productIDs
+	 */
+	public void invalidateAll(Collection<Integer> productIDs) {
+		productIDs.forEach(this::invalidate);
+	}
+	
+	/**
+	 * All the products are invalidated, the loads in flight are not cached.
+	 */
+	public void invalidateAll() {
+		
+		cleared = sequence.incrementAndGet();
+		cache.invalidateAll();
+	}
+}
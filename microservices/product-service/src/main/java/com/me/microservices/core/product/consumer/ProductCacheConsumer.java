@@ -0,0 +1,42 @@
+package com.me.microservices.core.product.consumer;
+
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import com.me.api.event.Event;
+import com.me.microservices.core.product.cache.ProductCache;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Consumer of the product events, the function <i>productCacheEvents</i> is bound to <i>cacheInput</i>.
+ * The binding has no group : unlike {@link ProductConsumer}, each instance receives all the events and invalidates its {@link ProductCache},
+ * the product may have been deleted by another instance.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+@Component(ProductCacheConsumer.FUNCTION_NAME)
+public class ProductCacheConsumer implements Consumer<Event<Integer>> {
+	
+	public static final String FUNCTION_NAME = "productCacheEvents";
+	public static final String BINDING_NAME = "cacheInput";
+	
+	private final ProductCache productCache;
+	
+	public ProductCacheConsumer(ProductCache productCache) {
+		this.productCache = productCache;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void accept(Event<Integer> event) {
+		
+		if(event == null || event.getKey() == null) return;
+		
+		log.debug(" > The event {} invalidates the cached product.", event);
+		productCache.invalidate(event.getKey());
+	}
+}
@@ -5,6 +5,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 
 import com.me.microservices.core.product.api.model.Product;
+import com.me.microservices.core.product.api.model.ProductPatch;
 import com.me.microservices.core.product.bo.ProductEntity;
 
 @Mapper
@@ -26,4 +27,17 @@ public interface ProductMapper {
 			@Mapping(target="id", ignore=true)
 	})
 	public ProductEntity toEntity(Product product);
+	
+	/**
+	 * @param patch
+	 * @return {@link ProductEntity} with the members of the patch, the other fields are null
+	 */
+	@Mappings(value= {
+			@Mapping(target="version", ignore=true), 
+			@Mapping(target="id", ignore=true),
+			@Mapping(target="productID", ignore=true),
+			@Mapping(target="creationDate", ignore=true),
+			@Mapping(target="updateDate", ignore=true)
+	})
+	public ProductEntity toEntity(ProductPatch patch);
 }
@@ -1,6 +1,9 @@
 package com.me.microservices.core.product.repository;
 
+import java.util.Collection;
+
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 
 import com.me.microservices.core.product.bo.ProductEntity;
@@ -8,7 +11,7 @@ import com.me.microservices.core.product.bo.ProductEntity;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface ProductRepository extends ReactiveMongoRepository<ProductEntity, String> {
+public interface ProductRepository extends ReactiveMongoRepository<ProductEntity, String>, ProductRepositoryCustom {
 
 	/**
 	 * @param productID
@@ -16,6 +19,14 @@ public interface ProductRepository extends ReactiveMongoRepository<ProductEntity
 	 */
 	public Mono<ProductEntity> findByProductID(Integer productID);
 	
+	/**
+	 * Multi-key read : one <i>productID $in</i> query.
+	 * @param productIDs
+	 * @param sort
+	 * @return flux of {@link ProductEntity}
+	 */
+	public Flux<ProductEntity> findByProductIDIn(Collection<Integer> productIDs, Sort sort);
+	
 	/**
 	 * @param name
 	 * @return mono of {@link ProductEntity}
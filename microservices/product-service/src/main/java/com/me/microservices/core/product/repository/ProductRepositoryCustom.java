@@ -0,0 +1,51 @@
+package com.me.microservices.core.product.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.domain.Pageable;
+
+import com.me.microservices.core.product.bo.ProductEntity;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Queries which can't be derived from the method name.
+ * @author rudysaniez @since 0.0.1
+ */
+public interface ProductRepositoryCustom {
+	
+	/**
+	 * One more element than the page size is read, it tells if a next page exists without a count query.
+	 * @param name : the beginning of the name
+	 * @param page
+	 * @return flux of {@link ProductEntity}, at most <i>page size + 1</i> elements
+	 */
+	public Flux<ProductEntity> findSliceByNameStartingWith(String name, Pageable page);
+	
+	/**
+	 * The products are read with a projection on the productID, then removed with one <i>deleteMany</i> on their ids.
+	 * The productIDs which are not returned don't exist.
+	 * @param productIDs
+	 * @return flux of the deleted productIDs
+	 */
+	public Flux<Integer> deleteByProductIDIn(Collection<Integer> productIDs);
+	
+	/**
+	 * One <i>findAndModify</i> instead of a read then a save : the name, the weight and the update date are set and the version
+	 * is incremented like a save does. The update is atomic, a concurrent save of the previous version fails.
+	 * @param productID
+	 * @param product : the new values
+	 * @return mono of the updated {@link ProductEntity}, empty when the productID doesn't exist
+	 */
+	public Mono<ProductEntity> updateByProductID(Integer productID, ProductEntity product);
+	
+	/**
+	 * Partial update in one <i>findAndModify</i> : only the fields which are not null in the patch are set.
+	 * The update date is set and the version is incremented.
+	 * @param productID
+	 * @param patch : the fields to set, the others are null
+	 * @return mono of the patched {@link ProductEntity}, empty when the productID doesn't exist
+	 */
+	public Mono<ProductEntity> patchByProductID(Integer productID, ProductEntity patch);
+}
@@ -0,0 +1,92 @@
+package com.me.microservices.core.product.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.MongoRegexCreator;
+import org.springframework.data.mongodb.core.query.MongoRegexCreator.MatchMode;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.me.microservices.core.product.bo.ProductEntity;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * @author rudysaniez @since 0.0.1
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+	
+	private final ReactiveMongoOperations operations;
+	
+	public ProductRepositoryCustomImpl(ReactiveMongoOperations operations) {
+		this.operations = operations;
+	}
+	
+	/**
+	 * Same regular expression as the derived query {@link ProductRepository#findByNameStartingWith(String, Pageable)}.
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Flux<ProductEntity> findSliceByNameStartingWith(String name, Pageable page) {
+		
+		Query query = Query.query(where("name").regex(MongoRegexCreator.INSTANCE.toRegularExpression(name, MatchMode.STARTING_WITH))).
+				with(page.getSort()).
+				skip(page.getOffset()).
+				limit(page.getPageSize() + 1);
+		
+		return operations.find(query, ProductEntity.class);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Flux<Integer> deleteByProductIDIn(Collection<Integer> productIDs) {
+		
+		Query query = Query.query(where("productID").in(productIDs));
+		query.fields().include("productID");
+		
+		return operations.findAllAndRemove(query, ProductEntity.class).
+				map(ProductEntity::getProductID);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ProductEntity> updateByProductID(Integer productID, ProductEntity product) {
+		
+		Update update = new Update().
+				set("name", product.getName()).
+				set("weight", product.getWeight()).
+				set("updateDate", LocalDateTime.now()).
+				inc("version", 1);
+		
+		return operations.findAndModify(Query.query(where("productID").is(productID)), update, 
+				FindAndModifyOptions.options().returnNew(true), ProductEntity.class);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ProductEntity> patchByProductID(Integer productID, ProductEntity patch) {
+		
+		Update update = new Update();
+		if(patch.getName() != null) update.set("name", patch.getName());
+		if(patch.getWeight() != null) update.set("weight", patch.getWeight());
+		
+		update.set("updateDate", LocalDateTime.now()).
+				inc("version", 1);
+		
+		return operations.findAndModify(Query.query(where("productID").is(productID)), update, 
+				FindAndModifyOptions.options().returnNew(true), ProductEntity.class);
+	}
+}
@@ -1,7 +1,8 @@
 package com.me.microservices.core.product.services;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.LinkedHashSet;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,17 +16,22 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
 
+import com.me.api.trace.ReactiveTracer;
 import com.me.handler.exception.InvalidInputException;
 import com.me.handler.exception.NotFoundException;
+import com.me.microservices.core.product.Application.BatchInformation;
 import com.me.microservices.core.product.Application.PaginationInformation;
 import com.me.microservices.core.product.api.ProductsApi;
 import com.me.microservices.core.product.api.model.PageMetadata;
 import com.me.microservices.core.product.api.model.PagedProduct;
 import com.me.microservices.core.product.api.model.Product;
+import com.me.microservices.core.product.api.model.ProductPatch;
 import com.me.microservices.core.product.bo.ProductEntity;
+import com.me.microservices.core.product.cache.ProductCache;
 import com.me.microservices.core.product.mapper.ProductMapper;
 import com.me.microservices.core.product.repository.ProductRepository;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -34,19 +40,28 @@ public class ProductServiceImpl implements ProductsApi {
 	private final ProductRepository productRepository;
 	private final ProductMapper mapper;
 	private final PaginationInformation pagination;
+	private final BatchInformation batch;
+	private final ReactiveTracer tracer;
+	private final ProductCache productCache;
 	
 	/**
 	 * @param productRepository
 	 * @param productMapper
 	 * @param pagination
+	 * @param batch
+	 * @param tracer
+	 * @param productCache
 	 */
 	@Autowired
 	public ProductServiceImpl(ProductRepository productRepository, ProductMapper mapper,
-			PaginationInformation pagination) {
+			PaginationInformation pagination, BatchInformation batch, ReactiveTracer tracer, ProductCache productCache) {
 		
 		this.productRepository = productRepository;
 		this.mapper = mapper;
 		this.pagination = pagination;
+		this.batch = batch;
+		this.tracer = tracer;
+		this.productCache = productCache;
 	}
 	
 	/**
@@ -57,48 +72,82 @@ public class ProductServiceImpl implements ProductsApi {
 		
 		if(productID < 1) throw new InvalidInputException("ProductID should be greater than 0.");
 		
-		 return productRepository.findByProductID(productID).
+		 return productCache.get(productID, () -> productRepository.findByProductID(productID).map(mapper::toModel)).
 				 switchIfEmpty(Mono.error(new NotFoundException(String.format("Product with productID=%d doesn't not exists.", productID)))).
-				 log().
-				 map(mapper::toModel).
 				 map(p -> ResponseEntity.ok(p)).
-				 log();
+				 transform(tracer.mono("getProduct", "productId", productID));
 	}
 	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Mono<ResponseEntity<PagedProduct>> findByName(String name, Integer pageNumber, Integer pageSize, ServerWebExchange exchange) {
+	public Mono<ResponseEntity<Flux<Product>>> getProductsByIds(Flux<Integer> productIds, ServerWebExchange exchange) {
+		
+		return productIds.collect(Collectors.toCollection(LinkedHashSet<Integer>::new)).
+				map(ids -> {
+					
+					if(ids.isEmpty()) throw new InvalidInputException("ProductIds should not be empty.");
+					if(ids.size() > batch.getMaxKeys()) throw new InvalidInputException(String.format("ProductIds should not contain more than %d productIDs.", batch.getMaxKeys()));
+					if(ids.stream().anyMatch(id -> id == null || id < 1)) throw new InvalidInputException("ProductID should be greater than 0.");
+					
+					Flux<Product> products = productRepository.findByProductIDIn(ids, Sort.by(Direction.ASC, "productID")).
+							map(mapper::toModel).
+							transform(tracer.flux("getProductsByIds"));
+					
+					return ResponseEntity.ok(products);
+				});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<PagedProduct>> findByName(String name, Integer pageNumber, Integer pageSize, Boolean withTotal, ServerWebExchange exchange) {
 
 		if(StringUtils.isEmpty(name)) throw new InvalidInputException("Name should not be empty.");
 		
 		if(pageNumber == null || pageNumber < 0) pageNumber = pagination.getPageNumber();
 		if(pageSize == null || pageSize < 1) pageSize = pagination.getPageSize();
 		
-		final Pageable page = PageRequest.of(pageNumber, pageSize, Sort.by(Direction.ASC, "name", "productID"));
-		final Integer pSize = pageSize;
+		/**
+		 * The name is unique : sorted by name only, the prefix filter and the sort use the same index.
+		 */
+		final Pageable page = PageRequest.of(pageNumber, pageSize, Sort.by(Direction.ASC, "name"));
+		
+		if(Boolean.FALSE.equals(withTotal)) {
+			
+			return productRepository.findSliceByNameStartingWith(name.toUpperCase(), page).
+					map(mapper::toModel).
+					collectList().
+					map(list -> {
+						
+						boolean hasNext = list.size() > page.getPageSize();
+						
+						PagedProduct pageProduct = new PagedProduct();
+						pageProduct.setContent(hasNext ? list.subList(0, page.getPageSize()) : list);
+						pageProduct.setPage(pageMetadata(page, null, hasNext));
+						
+						return ResponseEntity.ok(pageProduct);
+					}).
+					transform(tracer.mono("findByName", "name", name));
+		}
 		
-		return productRepository.countByNameStartingWith(name.toUpperCase()).
-				flatMap(count -> productRepository.findByNameStartingWith(name.toUpperCase(), page).
-						log().
-						map(mapper::toModel).
-						collectList().
-						map(list -> {
+		return Mono.zip(productRepository.countByNameStartingWith(name.toUpperCase()),
+				productRepository.findByNameStartingWith(name.toUpperCase(), page).
+					map(mapper::toModel).
+					collectList()).
+				map(tuple -> {
+					
+					Long count = tuple.getT1();
 					
-							PagedProduct pageProduct = new PagedProduct();
-							pageProduct.setContent(list);
-							
-							PageMetadata pageMetadata = new PageMetadata();
-							pageMetadata.setNumber(Integer.toUnsignedLong(page.getPageNumber()));
-							pageMetadata.setSize(Integer.toUnsignedLong(page.getPageSize()));
-							pageMetadata.setTotalElements(count);
-							pageMetadata.setTotalPages(count < pSize ? 1 : count % pSize == 0 ? count/pSize : ((count/pSize) + 1));
-							pageProduct.setPage(pageMetadata);
-							
-							return ResponseEntity.ok(pageProduct);
-						})
-				).log();
+					PagedProduct pageProduct = new PagedProduct();
+					pageProduct.setContent(tuple.getT2());
+					pageProduct.setPage(pageMetadata(page, count, (page.getOffset() + page.getPageSize()) < count));
+					
+					return ResponseEntity.ok(pageProduct);
+				}).
+				transform(tracer.mono("findByName", "name", name));
 	}
 
 	/**
@@ -119,11 +168,11 @@ public class ProductServiceImpl implements ProductsApi {
 				return pe;
 			}).
 			flatMap(pe -> productRepository.save(pe).
-					onErrorMap(DuplicateKeyException.class, e -> new InvalidInputException(String.format("Duplicate key : check the productID (%d) or the name (%s) of product.", pe.getProductID(), pe.getName()))).log()).
-			log().
+					onErrorMap(DuplicateKeyException.class, e -> new InvalidInputException(String.format("Duplicate key : check the productID (%d) or the name (%s) of product.", pe.getProductID(), pe.getName())))).
 			map(mapper::toModel).
+			doOnNext(productCache::put).
 			map(p -> ResponseEntity.status(HttpStatus.CREATED).body(p)).
-			log();
+			transform(tracer.mono("save"));
 	}
 
 	/**
@@ -132,39 +181,54 @@ public class ProductServiceImpl implements ProductsApi {
 	@Override
 	public Mono<ResponseEntity<Product>> update(Integer productID, Mono<Product> product, ServerWebExchange exchange) {
 		
-		Mono<ProductEntity> modelToEntity = product.map(p -> {
+		return product.map(p -> {
 			
 				if(p.getProductID() < 1) throw new InvalidInputException("ProductID should be greater than 0.");
 				if(p.getName().isEmpty()) throw new InvalidInputException("Product name should be not empty.");
 				return p;
-			}).map(mapper::toEntity);
+			}).
+			map(mapper::toEntity).
+			flatMap(pe -> {
 		
-		return productRepository.findByProductID(productID).
-			switchIfEmpty(Mono.error(new NotFoundException(String.format("Product with productID=%d doesn't not exists.", productID)))).
-			log().
-			transform(m -> m.concatWith(modelToEntity).collectList().
-					map(list -> {
-						
-						Optional<ProductEntity> productInDatabase = list.stream().filter(pe -> StringUtils.isNotBlank(pe.getId())).findFirst();
-						Optional<ProductEntity> productModel = list.stream().filter(pe -> StringUtils.isBlank(pe.getId())).findFirst();
-						
-						if(productInDatabase.isPresent() && productModel.isPresent()) {
-							
-							productInDatabase.get().setName(productModel.get().getName().toUpperCase());
-							productInDatabase.get().setWeight(productModel.get().getWeight());
-							productInDatabase.get().setUpdateDate(LocalDateTime.now());
-						}
+				pe.setName(pe.getName().toUpperCase());
 						
-						return productInDatabase.get();
-					})).
-			log().
-			flatMap(pe -> productRepository.save(pe).
-				onErrorMap(DuplicateKeyException.class, e -> new InvalidInputException(String.format("Duplicate key : check the productID (%d) or the name (%s) of product.", productID, pe.getName())))
-			).
-			log().
+				return productRepository.updateByProductID(productID, pe).
+						onErrorMap(DuplicateKeyException.class, e -> new InvalidInputException(String.format("Duplicate key : check the productID (%d) or the name (%s) of product.", productID, pe.getName())));
+			}).
+			switchIfEmpty(Mono.error(() -> new NotFoundException(String.format("Product with productID=%d doesn't not exists.", productID)))).
+			map(mapper::toModel).
+			doOnNext(productCache::put).
+			map(pe -> ResponseEntity.ok(pe)).
+			transform(tracer.mono("update", "productId", productID));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Product>> patchProduct(Integer productID, Mono<ProductPatch> productPatch, ServerWebExchange exchange) {
+		
+		if(productID < 1) throw new InvalidInputException("ProductID should be greater than 0.");
+		
+		return productPatch.map(p -> {
+			
+				if(p.getName() == null && p.getWeight() == null) throw new InvalidInputException("The patch of the product should have at least one member.");
+				if(p.getName() != null && p.getName().isEmpty()) throw new InvalidInputException("Product name should be not empty.");
+				return p;
+			}).
+			map(mapper::toEntity).
+			flatMap(pe -> {
+				
+				if(pe.getName() != null) pe.setName(pe.getName().toUpperCase());
+				
+				return productRepository.patchByProductID(productID, pe).
+						onErrorMap(DuplicateKeyException.class, e -> new InvalidInputException(String.format("Duplicate key : check the productID (%d) or the name (%s) of product.", productID, pe.getName())));
+			}).
+			switchIfEmpty(Mono.error(() -> new NotFoundException(String.format("Product with productID=%d doesn't not exists.", productID)))).
 			map(mapper::toModel).
+			doOnNext(productCache::put).
 			map(pe -> ResponseEntity.ok(pe)).
-			log();
+			transform(tracer.mono("patchProduct", "productId", productID));
 	}
 
 	/**
@@ -177,8 +241,32 @@ public class ProductServiceImpl implements ProductsApi {
 		
 		return productRepository.findByProductID(productID).
 				switchIfEmpty(Mono.error(new NotFoundException(String.format("Product with productID=%d doesn't not exists.", productID)))).
-				log().
 				flatMap(entity -> productRepository.delete(entity)).
-				map(v -> ResponseEntity.ok(v));
+				doOnSuccess(v -> productCache.invalidate(productID)).
+				map(v -> ResponseEntity.ok(v)).
+				transform(tracer.mono("deleteProduct", "productId", productID));
+	}
+	
+	/**
+	 * @param page
+	 * @param count : total of elements, null when the count query has been skipped
+	 * @param hasNext
+	 * @return {@link PageMetadata}
+	 */
+	private static PageMetadata pageMetadata(Pageable page, Long count, boolean hasNext) {
+		
+		PageMetadata pageMetadata = new PageMetadata();
+		pageMetadata.setSize(Integer.toUnsignedLong(page.getPageSize()));
+		pageMetadata.setNumber(Integer.toUnsignedLong(page.getPageNumber()));
+		pageMetadata.setHasNext(hasNext);
+		
+		if(count != null) {
+			
+			long pSize = page.getPageSize();
+			pageMetadata.setTotalElements(count);
+			pageMetadata.setTotalPages(count < pSize ? 1 : count % pSize == 0 ? count/pSize : ((count/pSize) + 1));
+		}
+		
+		return pageMetadata;
 	}
 }
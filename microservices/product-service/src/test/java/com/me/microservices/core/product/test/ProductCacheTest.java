@@ -0,0 +1,80 @@
+package com.me.microservices.core.product.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.me.microservices.core.product.Application.ProductCacheInformation;
+import com.me.microservices.core.product.api.model.Product;
+import com.me.microservices.core.product.cache.ProductCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+public class ProductCacheTest {
+	
+	private ProductCache cache;
+	private AtomicInteger loads;
+	
+	private static final Integer PRODUCT_ID = 1;
+	
+	@Before
+	public void setup() {
+		
+		ProductCacheInformation information = new ProductCacheInformation();
+		information.setTimeToLive(Duration.ofMinutes(1));
+		information.setMaximumSize(100);
+		
+		cache = new ProductCache(information, new SimpleMeterRegistry());
+		loads = new AtomicInteger();
+	}
+	
+	@Test
+	public void loadInFlightIsNotCachedAfterAWriteOfItsProduct() {
+		
+		MonoProcessor<Product> response = MonoProcessor.create();
+		cache.get(PRODUCT_ID, () -> response).subscribe();
+		
+		cache.invalidate(PRODUCT_ID);
+		response.onNext(product(PRODUCT_ID));
+		
+		cache.get(PRODUCT_ID, () -> load(PRODUCT_ID)).block();
+		
+		assertEquals(1, loads.get());
+	}
+	
+	@Test
+	public void writeOfAnotherProductKeepsTheLoadCacheable() {
+		
+		MonoProcessor<Product> response = MonoProcessor.create();
+		cache.get(PRODUCT_ID, () -> response).subscribe();
+		
+		cache.invalidate(PRODUCT_ID + 1);
+		response.onNext(product(PRODUCT_ID));
+		
+		cache.get(PRODUCT_ID, () -> load(PRODUCT_ID)).block();
+		
+		assertEquals(0, loads.get());
+	}
+	
+	private Mono<Product> load(Integer productID) {
+		
+		return Mono.fromSupplier(() -> {
+			
+			loads.incrementAndGet();
+			return product(productID);
+		});
+	}
+	
+	private static Product product(Integer productID) {
+		
+		Product product = new Product();
+		product.setProductID(productID);
+		return product;
+	}
+}
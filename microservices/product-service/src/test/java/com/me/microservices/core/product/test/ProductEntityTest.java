@@ -9,6 +9,7 @@ import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.me.microservices.core.product.Application;
 import com.me.microservices.core.product.bo.ProductEntity;
 import com.me.microservices.core.product.repository.ProductRepository;
 
@@ -21,6 +22,9 @@ public class ProductEntityTest {
 	@Autowired
 	private ProductRepository productRepository;
 	
+	@Autowired
+	private Application application;
+	
 	private ProductEntity savedProduct;
 	
 	private static final Integer PRODUCT_ID = 1;
@@ -29,6 +33,7 @@ public class ProductEntityTest {
 	@Before
 	public void setupdb() {
 		
+		application.indices().block();
 		StepVerifier.create(productRepository.deleteAll()).verifyComplete();
 		
 		ProductEntity productEntity = new ProductEntity(PRODUCT_ID, PRODUCT_NAME, 3);
@@ -1,9 +1,12 @@
 package com.me.microservices.core.product.test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.stream.IntStream;
 
 import org.junit.Before;
@@ -11,13 +14,14 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.system.OutputCaptureRule;
-import org.springframework.cloud.stream.messaging.Sink;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -27,10 +31,16 @@ import org.springframework.util.MultiValueMap;
 
 import com.me.api.Api;
 import com.me.api.event.Event;
+import com.me.microservices.core.product.Application;
 import com.me.microservices.core.product.api.model.Product;
+import com.me.microservices.core.product.cache.ProductCache;
+import com.me.microservices.core.product.consumer.ProductCacheConsumer;
+import com.me.microservices.core.product.consumer.ProductConsumer;
 import com.me.microservices.core.product.repository.ProductRepository;
 import com.me.microservices.core.product.services.AsciiArtService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
@@ -41,6 +51,8 @@ public class ProductServiceTest {
 
 	@Autowired
 	private WebTestClient client;
+	@Autowired
+	private Application application;
 	
 	@Autowired
 	private ProductRepository productRepository;
@@ -51,8 +63,17 @@ public class ProductServiceTest {
 	@Value("${spring.webflux.base-path}") 
 	private String basePath;
 	
+	@Autowired @Qualifier(ProductConsumer.BINDING_NAME)
+	private MessageChannel input;
+	
+	@Autowired @Qualifier(ProductCacheConsumer.BINDING_NAME)
+	private MessageChannel cacheInput;
+	
 	@Autowired
-	private Sink channel;
+	private ProductCache productCache;
+	
+	@Autowired
+	private MeterRegistry registry;
 	
 	@Rule
 	public OutputCaptureRule output = new OutputCaptureRule();
@@ -70,7 +91,9 @@ public class ProductServiceTest {
 		
 		asciiArt.display("SETUP");
 		
+		application.indices().block();
 		productRepository.deleteAll().block();
+		productCache.invalidateAll();
 		
 		createAndVerifyStatus(ProductModelBuilder.create().withProductID(PRODUCT_ID).withName(PRODUCT_NAME).withWeight(PRODUCT_WEIGHT).build(), HttpStatus.CREATED).
 			jsonPath("$.name").isEqualTo(PRODUCT_NAME);
@@ -89,6 +112,41 @@ public class ProductServiceTest {
 			jsonPath("$.name").isEqualTo(PRODUCT_NAME);
 	}
 	
+	@Test
+	public void getProductFromCache() {
+		
+		asciiArt.display("GET PRODUCT FROM CACHE");
+		
+		getAndVerifyStatus(PRODUCT_ID, HttpStatus.OK);
+		
+		double hits = cacheHits();
+		
+		getAndVerifyStatus(PRODUCT_ID, HttpStatus.OK).
+			jsonPath("$.productID").isEqualTo(PRODUCT_ID).
+			jsonPath("$.name").isEqualTo(PRODUCT_NAME);
+		
+		assertEquals(hits + 1, cacheHits(), 0);
+	}
+	
+	@Test
+	public void getProductInvalidatedByEvent() {
+		
+		asciiArt.display("GET PRODUCT INVALIDATED BY EVENT");
+		
+		getAndVerifyStatus(PRODUCT_ID, HttpStatus.OK);
+		
+		/**
+		 * The product is deleted by another instance : only the event tells this instance.
+		 */
+		productRepository.deleteByProductIDIn(Arrays.asList(PRODUCT_ID)).blockLast();
+		
+		getAndVerifyStatus(PRODUCT_ID, HttpStatus.OK);
+		
+		cacheInput.send(MessageBuilder.withPayload(new Event<>(PRODUCT_ID, Event.Type.DELETE)).build());
+		
+		getAndVerifyStatus(PRODUCT_ID, HttpStatus.NOT_FOUND);
+	}
+	
 	@Test
 	public void getProductNotFoundException() {
 		
@@ -161,6 +219,59 @@ public class ProductServiceTest {
 			jsonPath("$.page.totalElements").isEqualTo(productRepository.countByNameStartingWith("TOURNE").block());
 	}
 	
+	@Test
+	public void getProductByNameWithoutTotal() {
+		
+		asciiArt.display("GET PRODUCT BY NAME WITHOUT TOTAL");
+		
+		createAndVerifyStatus(ProductModelBuilder.create().withProductID(40).withName("SCIE SAUTEUSE").withWeight(3).build(), HttpStatus.CREATED);
+		createAndVerifyStatus(ProductModelBuilder.create().withProductID(41).withName("SCIE CIRCULAIRE").withWeight(5).build(), HttpStatus.CREATED);
+		createAndVerifyStatus(ProductModelBuilder.create().withProductID(42).withName("SCIE A ONGLET").withWeight(8).build(), HttpStatus.CREATED);
+		
+		MultiValueMap<String, String> params = new LinkedMultiValueMap<>(4);
+		params.add(PARAM_NAME, "SCIE");
+		params.add(PARAM_PAGE_NUMBER, "0");
+		params.add(PARAM_PAGE_SIZE, "2");
+		params.add("withTotal", "false");
+		
+		getAndVerifyStatus(params, HttpStatus.OK).
+			jsonPath("$.content.length()").isEqualTo(2).
+			jsonPath("$.page.hasNext").isEqualTo(true).
+			jsonPath("$.page.totalElements").doesNotExist().
+			jsonPath("$.page.totalPages").doesNotExist();
+		
+		params.set(PARAM_PAGE_NUMBER, "1");
+		
+		getAndVerifyStatus(params, HttpStatus.OK).
+			jsonPath("$.content.length()").isEqualTo(1).
+			jsonPath("$.content[0].name").isEqualTo("SCIE SAUTEUSE").
+			jsonPath("$.page.hasNext").isEqualTo(false);
+	}
+	
+	@Test
+	public void getProductsByIds() {
+		
+		asciiArt.display("GET PRODUCTS BY IDS");
+		
+		createAndVerifyStatus(ProductModelBuilder.create().withProductID(40).withName("PERCEUSE").withWeight(2).build(), HttpStatus.CREATED);
+		createAndVerifyStatus(ProductModelBuilder.create().withProductID(41).withName("PERCEUSE A PERCUSSION").withWeight(3).build(), HttpStatus.CREATED);
+		
+		client.post().uri(uri -> uri.pathSegment("api", "v1", Api.PRODUCT_PATH, Api.BATCH_GET_PATH).build()).
+			contentType(MediaType.APPLICATION_JSON).bodyValue(Arrays.asList(41, 999, PRODUCT_ID, 40)).
+			accept(MediaType.APPLICATION_JSON).exchange().
+			expectStatus().isOk().
+			expectBody().
+				jsonPath("$.length()").isEqualTo(3).
+				jsonPath("$[0].productID").isEqualTo(PRODUCT_ID).
+				jsonPath("$[1].name").isEqualTo("PERCEUSE").
+				jsonPath("$[2].name").isEqualTo("PERCEUSE A PERCUSSION");
+		
+		client.post().uri(uri -> uri.pathSegment("api", "v1", Api.PRODUCT_PATH, Api.BATCH_GET_PATH).build()).
+			contentType(MediaType.APPLICATION_JSON).bodyValue(Arrays.asList()).
+			accept(MediaType.APPLICATION_JSON).exchange().
+			expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+	}
+	
 	@Test
 	public void createProduct() {
 		
@@ -203,6 +314,52 @@ public class ProductServiceTest {
 		
 		getAndVerifyStatus(PRODUCT_ID, HttpStatus.OK).
 			jsonPath("$.weight").isEqualTo(50);
+	}	
+	@Test
+	public void updateProductIncrementsVersion() {
+		
+		asciiArt.display("UPDATE PRODUCT INCREMENTS VERSION");
+		
+		Integer version = productRepository.findByProductID(PRODUCT_ID).block().getVersion();
+		
+		updateAndVerifyStatus(ProductModelBuilder.create().withProductID(PRODUCT_ID).withName(PRODUCT_NAME).withWeight(50).build(), HttpStatus.OK);
+		
+		assertEquals(Integer.valueOf(version + 1), productRepository.findByProductID(PRODUCT_ID).block().getVersion());
+	}
+	
+	@Test
+	public void updateProductNotFoundException() {
+		
+		asciiArt.display("UPDATE PRODUCT BUT NOT FOUND EXCEPTION");
+		
+		updateAndVerifyStatus(ProductModelBuilder.create().withProductID(999).withName(PRODUCT_NAME).withWeight(50).build(), HttpStatus.NOT_FOUND).
+			jsonPath("$.message").isEqualTo(String.format("Product with productID=%d doesn't not exists.", 999));
+	}
+	
+	@Test
+	public void patchProduct() {
+		
+		asciiArt.display("PATCH PRODUCT");
+		
+		Integer version = productRepository.findByProductID(PRODUCT_ID).block().getVersion();
+		
+		patchAndVerifyStatus(PRODUCT_ID, "{\"weight\":50}", HttpStatus.OK).
+			jsonPath("$.name").isEqualTo(PRODUCT_NAME).
+			jsonPath("$.weight").isEqualTo(50);
+		
+		assertEquals(Integer.valueOf(version + 1), productRepository.findByProductID(PRODUCT_ID).block().getVersion());
+	}
+	
+	@Test
+	public void patchProductInvalidInputException() {
+		
+		asciiArt.display("PATCH PRODUCT BUT INVALID INPUT EXCEPTION");
+		
+		patchAndVerifyStatus(PRODUCT_ID, "{}", HttpStatus.UNPROCESSABLE_ENTITY).
+			jsonPath("$.message").isEqualTo("The patch of the product should have at least one member.");
+		
+		patchAndVerifyStatus(999, "{\"weight\":50}", HttpStatus.NOT_FOUND).
+			jsonPath("$.message").isEqualTo(String.format("Product with productID=%d doesn't not exists.", 999));
 	}
 	
 	@Test
@@ -286,6 +443,22 @@ public class ProductServiceTest {
 				expectStatus().isEqualTo(status).
 				expectBody();
 	}
+	
+	/**
+	 * @param productID
+	 * @param patch : JSON merge patch
+	 * @param status
+	 * @return {@link BodyContentSpec}
+	 */
+	private BodyContentSpec patchAndVerifyStatus(Integer productID, String patch, HttpStatus status) {
+		
+		return client.patch().uri(basePath + "/" + Api.PRODUCT_PATH + "/" + productID).
+				contentType(MediaType.valueOf("application/merge-patch+json")).
+				body(Mono.just(patch), String.class).
+				accept(MediaType.APPLICATION_JSON).exchange().
+				expectStatus().isEqualTo(status).
+				expectBody();
+	}
 
 	/**
 	 * @param productID
@@ -307,7 +480,31 @@ public class ProductServiceTest {
 		
 		Event<Integer> event = new Event<>(productId, Event.Type.DELETE);
 		log.info(" > One message will be sent for a product deletion ({}).", event.toString());
-		channel.input().send(MessageBuilder.withPayload(event).build());
+		
+		double consumed = consumedEvents();
+		input.send(MessageBuilder.withPayload(event).build());
+		
+		/**
+		 * The events are consumed asynchronously : wait for the acknowledgment.
+		 */
+		Mono.fromCallable(this::consumedEvents).
+			filter(count -> count > consumed).
+			repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50))).
+			block(Duration.ofSeconds(10));
+	}
+	
+	/**
+	 * @return number of reads served by the product cache
+	 */
+	private double cacheHits() {
+		return registry.get("cache.gets").tag("cache", ProductCache.CACHE_NAME).tag("result", "hit").functionCounter().count();
+	}
+	
+	/**
+	 * @return number of events acknowledged or rejected by the consumer
+	 */
+	private double consumedEvents() {
+		return registry.find("consumer.events").counters().stream().mapToDouble(Counter::count).sum();
 	}
 	
 	public static final class ProductModelBuilder {
@@ -15,8 +15,11 @@ import lombok.Data;
 import lombok.EqualsAndHashCode.Exclude;
 import lombok.NoArgsConstructor;
 
+/**
+ * The recommendationID is unique by itself, the recommendations of a product are read by productID and sorted by recommendationID.
+ */
 @Data @NoArgsConstructor
-@CompoundIndex(name="recom_comp_IDX", unique=true, def="{'recommendationID':1, 'productID':1}")
+@CompoundIndex(name="recom_product_IDX", def="{'productID':1, 'recommendationID':1}")
 @Document(collection="recommendations")
 public class RecommendationEntity {
 
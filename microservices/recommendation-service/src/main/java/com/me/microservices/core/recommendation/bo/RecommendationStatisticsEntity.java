@@ -0,0 +1,35 @@
+package com.me.microservices.core.recommendation.bo;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Statistics of the recommendations of a product, the productID is the id of the document.
+ * The count and the sum of the rates are incremented on each write of a recommendation, the average is computed on read.
+ * @author rudysaniez @since 0.0.1
+ */
+@Data @NoArgsConstructor
+@Document(collection="recommendation-statistics")
+public class RecommendationStatisticsEntity {
+	
+	@Id
+	private Integer productID;
+	
+	private long count;
+	
+	private long rateSum;
+	
+	private LocalDateTime lastUpdate;
+	
+	/**
+	 * @param productID
+	 */
+	public RecommendationStatisticsEntity(Integer productID) {
+		this.productID = productID;
+	}
+}
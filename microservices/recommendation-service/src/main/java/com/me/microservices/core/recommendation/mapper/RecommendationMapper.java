@@ -5,7 +5,10 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 
 import com.me.microservices.core.recommendation.api.model.Recommendation;
+import com.me.microservices.core.recommendation.api.model.RecommendationPatch;
+import com.me.microservices.core.recommendation.api.model.RecommendationStatistics;
 import com.me.microservices.core.recommendation.bo.RecommendationEntity;
+import com.me.microservices.core.recommendation.bo.RecommendationStatisticsEntity;
 
 @Mapper
 public interface RecommendationMapper {
@@ -20,9 +23,29 @@ public interface RecommendationMapper {
 	})
 	public RecommendationEntity toEntity(Recommendation recommendation);
 	
+	/**
+	 * @param patch
+	 * @return {@link RecommendationEntity} with the members of the patch, the other fields are null
+	 */
+	@Mappings(value= {
+			@Mapping(target="version", ignore=true),
+			@Mapping(target="id", ignore=true),
+			@Mapping(target="recommendationID", ignore=true),
+			@Mapping(target="creationDate", ignore=true),
+			@Mapping(target="updateDate", ignore=true)
+	})
+	public RecommendationEntity toEntity(RecommendationPatch patch);
+	
 	/**
 	 * @param recommendation
 	 * @return {@link RecommendationEntity}
 	 */
 	public Recommendation toModel(RecommendationEntity recommendation);
+	
+	/**
+	 * @param statistics
+	 * @return {@link RecommendationStatistics}, without average rate when the count is 0
+	 */
+	@Mapping(target="averageRate", expression="java(statistics.getCount() > 0 ? Double.valueOf((double)statistics.getRateSum() / statistics.getCount()) : null)")
+	public RecommendationStatistics toModel(RecommendationStatisticsEntity statistics);
 }
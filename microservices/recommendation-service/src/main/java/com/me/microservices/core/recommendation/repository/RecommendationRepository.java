@@ -1,5 +1,7 @@
 package com.me.microservices.core.recommendation.repository;
 
+import java.util.Collection;
+
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 
@@ -8,7 +10,7 @@ import com.me.microservices.core.recommendation.bo.RecommendationEntity;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface RecommendationRepository extends ReactiveMongoRepository<RecommendationEntity, String> {
+public interface RecommendationRepository extends ReactiveMongoRepository<RecommendationEntity, String>, RecommendationRepositoryCustom {
 
 	/**
 	 * @param recommendationID
@@ -16,6 +18,12 @@ public interface RecommendationRepository extends ReactiveMongoRepository<Recomm
 	 */
 	public Mono<RecommendationEntity> findByRecommendationID(Integer recommendationID);
 	
+	/**
+	 * @param recommendationIDs
+	 * @return flux of {@link RecommendationEntity}
+	 */
+	public Flux<RecommendationEntity> findByRecommendationIDIn(Collection<Integer> recommendationIDs);
+	
 	/**
 	 * @param productID
 	 * @param page
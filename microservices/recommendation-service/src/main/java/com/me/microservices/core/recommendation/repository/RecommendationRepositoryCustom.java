@@ -0,0 +1,65 @@
+package com.me.microservices.core.recommendation.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.domain.Pageable;
+
+import com.me.microservices.core.recommendation.bo.RecommendationEntity;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+/**
+ * Queries which can't be derived from the method name.
+ * @author rudysaniez @since 0.0.1
+ */
+public interface RecommendationRepositoryCustom {
+	
+	/**
+	 * One more element than the page size is read, it tells if a next page exists without a count query.
+	 * With <i>afterRecommendationID</i>, the page starts after this recommendationID (keyset pagination) and the offset of the page is not used.
+	 * @param productID
+	 * @param afterRecommendationID : null for an offset pagination
+	 * @param page
+	 * @return flux of {@link RecommendationEntity}, at most <i>page size + 1</i> elements
+	 */
+	public Flux<RecommendationEntity> findSliceByProductID(Integer productID, Integer afterRecommendationID, Pageable page);
+	
+	/**
+	 * One <i>deleteMany</i> with <i>productID $in</i>, instead of one deletion by product.
+	 * @param productIDs
+	 * @return mono of the number of deleted {@link RecommendationEntity}
+	 */
+	public Mono<Long> deleteByProductIDIn(Collection<Integer> productIDs);
+	
+	/**
+	 * Streamed read of all the recommendations of a product, sorted by recommendationID : one cursor, no skip, no count.
+	 * The cursor reads <i>batchSize</i> documents by round-trip, the next batch is read when the subscriber requests it.
+	 * @param productID
+	 * @param batchSize
+	 * @return flux of {@link RecommendationEntity}
+	 */
+	public Flux<RecommendationEntity> streamByProductID(Integer productID, int batchSize);
+	
+	/**
+	 * <i>findAndModify</i> with <i>$set</i> on the author, the content, the productID, the rate and the update date, and <i>$inc</i> on the version : 
+	 * one round-trip, the recommendation isn't read before. The statistics of the products need the previous document, so the <i>findAndModify</i>
+	 * returns it : the updated document is the previous one with this <i>$set</i> and this <i>$inc</i>, which are the whole change.
+	 * @param recommendationID
+	 * @param recommendation : the new values
+	 * @return mono of the previous and of the updated {@link RecommendationEntity}, empty when the recommendationID doesn't exist
+	 */
+	public Mono<Tuple2<RecommendationEntity, RecommendationEntity>> updateByRecommendationID(Integer recommendationID, RecommendationEntity recommendation);
+	
+	/**
+	 * Same round-trip as {@link #updateByRecommendationID(Integer, RecommendationEntity)}, but the <i>$set</i> only contains
+	 * the fields which are not null in the patch : a new rate is a small update. The recommendation isn't read before.
+	 * A patch without productID nor rate doesn't change the statistics : its <i>findAndModify</i> returns the stored recommendation,
+	 * which is both elements of the pair.
+	 * @param recommendationID
+	 * @param patch : the fields to set, the others are null
+	 * @return mono of the previous and of the patched {@link RecommendationEntity}, empty when the recommendationID doesn't exist
+	 */
+	public Mono<Tuple2<RecommendationEntity, RecommendationEntity>> patchByRecommendationID(Integer recommendationID, RecommendationEntity patch);
+}
@@ -0,0 +1,164 @@
+package com.me.microservices.core.recommendation.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.me.microservices.core.recommendation.bo.RecommendationEntity;
+import com.mongodb.client.result.DeleteResult;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * @author rudysaniez @since 0.0.1
+ */
+public class RecommendationRepositoryCustomImpl implements RecommendationRepositoryCustom {
+	
+	private final ReactiveMongoOperations operations;
+	
+	public RecommendationRepositoryCustomImpl(ReactiveMongoOperations operations) {
+		this.operations = operations;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Flux<RecommendationEntity> findSliceByProductID(Integer productID, Integer afterRecommendationID, Pageable page) {
+		
+		Criteria criteria = where("productID").is(productID);
+		if(afterRecommendationID != null) criteria = criteria.and("recommendationID").gt(afterRecommendationID);
+		
+		Query query = Query.query(criteria).
+				with(page.getSort()).
+				skip(afterRecommendationID != null ? 0 : page.getOffset()).
+				limit(page.getPageSize() + 1);
+		
+		return operations.find(query, RecommendationEntity.class);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<Long> deleteByProductIDIn(Collection<Integer> productIDs) {
+		
+		return operations.remove(Query.query(where("productID").in(productIDs)), RecommendationEntity.class).
+				map(DeleteResult::getDeletedCount);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Flux<RecommendationEntity> streamByProductID(Integer productID, int batchSize) {
+		
+		Query query = Query.query(where("productID").is(productID)).
+				with(Sort.by(Direction.ASC, "recommendationID")).
+				cursorBatchSize(batchSize);
+		
+		return operations.find(query, RecommendationEntity.class);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<Tuple2<RecommendationEntity, RecommendationEntity>> updateByRecommendationID(Integer recommendationID, RecommendationEntity recommendation) {
+		
+		LocalDateTime updateDate = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		
+		Update update = new Update().
+				set("author", recommendation.getAuthor()).
+				set("content", recommendation.getContent()).
+				set("productID", recommendation.getProductID()).
+				set("rate", recommendation.getRate()).
+				set("updateDate", updateDate).
+				inc("version", 1);
+		
+		return modify(recommendationID, update, recommendation, false, updateDate);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<Tuple2<RecommendationEntity, RecommendationEntity>> patchByRecommendationID(Integer recommendationID, RecommendationEntity patch) {
+		
+		LocalDateTime updateDate = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		
+		Update update = new Update();
+		if(patch.getAuthor() != null) update.set("author", patch.getAuthor());
+		if(patch.getContent() != null) update.set("content", patch.getContent());
+		if(patch.getProductID() != null) update.set("productID", patch.getProductID());
+		if(patch.getRate() != null) update.set("rate", patch.getRate());
+		
+		update.set("updateDate", updateDate).
+				inc("version", 1);
+		
+		/**
+		 * Without new productID nor new rate, the statistics don't change : the patch returns the stored recommendation.
+		 */
+		if(patch.getProductID() == null && patch.getRate() == null) {
+			
+			return operations.findAndModify(Query.query(where("recommendationID").is(recommendationID)), update, 
+					FindAndModifyOptions.options().returnNew(true), RecommendationEntity.class).
+					map(stored -> Tuples.of(stored, stored));
+		}
+		
+		return modify(recommendationID, update, patch, true, updateDate);
+	}
+	
+	/**
+	 * One <i>findAndModify</i> which returns the document before the update : the updated one is the previous one with the <i>$set</i> 
+	 * and the <i>$inc</i> which have just been applied, nothing else can change in the same operation.
+	 * @param recommendationID
+	 * @param update
+	 * @param values : the values of the <i>$set</i>
+	 * @param partial : true when the null values are not in the <i>$set</i>
+	 * @param updateDate
+	 * @return mono of the previous and of the updated {@link RecommendationEntity}, empty when the recommendationID doesn't exist
+	 */
+	private Mono<Tuple2<RecommendationEntity, RecommendationEntity>> modify(Integer recommendationID, Update update, RecommendationEntity values, boolean partial, LocalDateTime updateDate) {
+		
+		return operations.findAndModify(Query.query(where("recommendationID").is(recommendationID)), update, 
+				FindAndModifyOptions.options().returnNew(false), RecommendationEntity.class).
+				map(previous -> Tuples.of(previous, applied(previous, values, partial, updateDate)));
+	}
+	
+	/**
+	 * @param previous : the recommendation before the <i>findAndModify</i>
+	 * @param values
+	 * @param partial
+	 * @param updateDate
+	 * @return the {@link RecommendationEntity} such as written by the <i>findAndModify</i>
+	 */
+	private static RecommendationEntity applied(RecommendationEntity previous, RecommendationEntity values, boolean partial, LocalDateTime updateDate) {
+		
+		RecommendationEntity updated = new RecommendationEntity();
+		updated.setId(previous.getId());
+		updated.setRecommendationID(previous.getRecommendationID());
+		updated.setAuthor(partial && values.getAuthor() == null ? previous.getAuthor() : values.getAuthor());
+		updated.setContent(partial && values.getContent() == null ? previous.getContent() : values.getContent());
+		updated.setProductID(partial && values.getProductID() == null ? previous.getProductID() : values.getProductID());
+		updated.setRate(partial && values.getRate() == null ? previous.getRate() : values.getRate());
+		updated.setVersion(previous.getVersion() != null ? previous.getVersion() + 1 : 1);
+		updated.setCreationDate(previous.getCreationDate());
+		updated.setUpdateDate(updateDate);
+		return updated;
+	}
+}
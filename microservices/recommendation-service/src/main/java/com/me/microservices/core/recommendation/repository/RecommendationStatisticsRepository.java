@@ -0,0 +1,18 @@
+package com.me.microservices.core.recommendation.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.me.microservices.core.recommendation.bo.RecommendationStatisticsEntity;
+
+import reactor.core.publisher.Mono;
+
+public interface RecommendationStatisticsRepository extends ReactiveMongoRepository<RecommendationStatisticsEntity, Integer>, RecommendationStatisticsRepositoryCustom {
+	
+	/**
+	 * @param productIDs
+	 * @return mono of the number of deleted statistics
+	 */
+	public Mono<Long> deleteByProductIDIn(Collection<Integer> productIDs);
+}
@@ -0,0 +1,29 @@
+package com.me.microservices.core.recommendation.repository;
+
+import com.me.microservices.core.recommendation.bo.RecommendationStatisticsEntity;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Updates of the statistics : the increments of each write, and the rebuild from the recommendations.
+ * @author rudysaniez @since 0.0.1
+ */
+public interface RecommendationStatisticsRepositoryCustom {
+	
+	/**
+	 * One <i>findAndModify</i> with <i>$inc</i> on the count and on the sum of the rates, the document is created by the first increment.
+	 * @param productID
+	 * @param count : number of recommendations added, negative when they are removed
+	 * @param rateSum : sum of their rates
+	 * @return mono of the updated {@link RecommendationStatisticsEntity}
+	 */
+	public Mono<RecommendationStatisticsEntity> increment(Integer productID, long count, long rateSum);
+	
+	/**
+	 * The count and the sum of the rates are computed again by a <i>$group</i> on the recommendations of the product, then <i>$set</i> :
+	 * a rebuild can be repeated. A write which lands during the rebuild may be missed, the next rebuild repairs it.
+	 * @param productID
+	 * @return mono of the rebuilt {@link RecommendationStatisticsEntity}, empty when the product has no recommendation anymore
+	 */
+	public Mono<RecommendationStatisticsEntity> rebuild(Integer productID);
+}
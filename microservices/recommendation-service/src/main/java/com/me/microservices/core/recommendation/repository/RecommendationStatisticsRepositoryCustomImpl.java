@@ -0,0 +1,74 @@
+package com.me.microservices.core.recommendation.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.me.microservices.core.recommendation.bo.RecommendationEntity;
+import com.me.microservices.core.recommendation.bo.RecommendationStatisticsEntity;
+
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * @author rudysaniez @since 0.0.1
+ */
+public class RecommendationStatisticsRepositoryCustomImpl implements RecommendationStatisticsRepositoryCustom {
+	
+	private final ReactiveMongoOperations operations;
+	
+	public RecommendationStatisticsRepositoryCustomImpl(ReactiveMongoOperations operations) {
+		this.operations = operations;
+	}
+	
+	/**
+	 * Two concurrent upserts of a new product can both try to insert the document : the loser is retried once, 
+	 * it finds the document and increments it.
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<RecommendationStatisticsEntity> increment(Integer productID, long count, long rateSum) {
+		
+		Update update = new Update().
+				inc("count", count).
+				inc("rateSum", rateSum).
+				set("lastUpdate", LocalDateTime.now());
+		
+		return Mono.defer(() -> operations.findAndModify(Query.query(where("productID").is(productID)), update, 
+					FindAndModifyOptions.options().upsert(true).returnNew(true), RecommendationStatisticsEntity.class)).
+				retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<RecommendationStatisticsEntity> rebuild(Integer productID) {
+		
+		Query query = Query.query(where("productID").is(productID));
+		
+		Aggregation totals = Aggregation.newAggregation(
+				Aggregation.match(where("productID").is(productID)),
+				Aggregation.group("productID").
+						count().as("count").
+						sum("rate").as("rateSum"));
+		
+		return operations.aggregate(totals, RecommendationEntity.class, Document.class).
+				next().
+				flatMap(total -> Mono.defer(() -> operations.findAndModify(query, new Update().
+							set("count", ((Number)total.get("count")).longValue()).
+							set("rateSum", ((Number)total.get("rateSum")).longValue()).
+							set("lastUpdate", LocalDateTime.now()), 
+						FindAndModifyOptions.options().upsert(true).returnNew(true), RecommendationStatisticsEntity.class)).
+					retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance))).
+				switchIfEmpty(operations.remove(query, RecommendationStatisticsEntity.class).then(Mono.empty()));
+	}
+}
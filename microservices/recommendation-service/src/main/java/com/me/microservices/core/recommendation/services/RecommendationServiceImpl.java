@@ -1,9 +1,15 @@
 package com.me.microservices.core.recommendation.services;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.PageRequest;
@@ -15,17 +21,25 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
 
+import com.me.api.trace.ReactiveTracer;
 import com.me.handler.exception.InvalidInputException;
 import com.me.handler.exception.NotFoundException;
+import com.me.microservices.core.recommendation.Application.BatchInformation;
+import com.me.microservices.core.recommendation.Application.ExportInformation;
 import com.me.microservices.core.recommendation.Application.PaginationInformation;
 import com.me.microservices.core.recommendation.api.RecommendationsApi;
 import com.me.microservices.core.recommendation.api.model.PageMetadata;
 import com.me.microservices.core.recommendation.api.model.PagedRecommendation;
 import com.me.microservices.core.recommendation.api.model.Recommendation;
+import com.me.microservices.core.recommendation.api.model.RecommendationPatch;
+import com.me.microservices.core.recommendation.api.model.RecommendationBatchResult;
+import com.me.microservices.core.recommendation.api.model.RecommendationBatchResult.StatusEnum;
+import com.me.microservices.core.recommendation.api.model.RecommendationStatistics;
 import com.me.microservices.core.recommendation.bo.RecommendationEntity;
 import com.me.microservices.core.recommendation.mapper.RecommendationMapper;
 import com.me.microservices.core.recommendation.repository.RecommendationRepository;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -34,19 +48,32 @@ public class RecommendationServiceImpl implements RecommendationsApi {
 	private final RecommendationRepository recommendationRepository;
 	private final RecommendationMapper mapper;
 	private final PaginationInformation pagination;
+	private final BatchInformation batch;
+	private final ExportInformation export;
+	private final ReactiveTracer tracer;
+	private final RecommendationStatisticsService statistics;
 	
 	/**
 	 * @param recommendationRepository
 	 * @param mapper
 	 * @param pagination
+	 * @param batch
+	 * @param export
+	 * @param tracer
+	 * @param statistics
 	 */
 	@Autowired
 	public RecommendationServiceImpl(RecommendationRepository recommendationRepository, RecommendationMapper mapper,
-			PaginationInformation pagination) {
+			PaginationInformation pagination, BatchInformation batch, ExportInformation export, ReactiveTracer tracer,
+			RecommendationStatisticsService statistics) {
 		
+		this.statistics = statistics;
 		this.recommendationRepository = recommendationRepository;
 		this.mapper = mapper;
 		this.pagination = pagination;
+		this.batch = batch;
+		this.export = export;
+		this.tracer = tracer;
 	}
 	
 	/**
@@ -60,47 +87,128 @@ public class RecommendationServiceImpl implements RecommendationsApi {
 		return recommendationRepository.findByRecommendationID(recommendationID).
 				switchIfEmpty(Mono.error(new NotFoundException(String.format("Recommendation with recommendationID=%d doesn't not exists.", 
 					recommendationID)))).
-				log().
 				map(mapper::toModel).
 				map(r -> ResponseEntity.ok(r)).
-				log();
+				transform(tracer.mono("getRecommendation", "recommendationId", recommendationID));
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Mono<ResponseEntity<PagedRecommendation>> getRecommendationByProductId(Integer productID, Integer pageNumber, Integer pageSize, ServerWebExchange exchange) {
+	public Mono<ResponseEntity<PagedRecommendation>> getRecommendationByProductId(Integer productID, Integer pageNumber, Integer pageSize, Boolean withTotal, String cursor, ServerWebExchange exchange) {
 
 		if(productID < 1) throw new InvalidInputException("ProductId should be greater than 0");
 		if(pageNumber == null || pageNumber < 0) pageNumber = pagination.getPageNumber();
 		if(pageSize == null || pageSize < 1) pageSize = pagination.getPageSize();
 		
-		Pageable page = PageRequest.of(pageNumber, pageSize, Sort.by(Direction.ASC, "recommendationID"));
-		Integer pSize = pageSize;
+		/**
+		 * With a cursor, the page starts after the last recommendationID of the previous page : no skip, no count.
+		 */
+		Integer afterRecommendationID = cursor != null ? PageCursor.decode(cursor) : null;
+		Pageable page = PageRequest.of(cursor != null ? 0 : pageNumber, pageSize, Sort.by(Direction.ASC, "recommendationID"));
 		
-		return recommendationRepository.countByProductID(productID).
-				flatMap(count -> recommendationRepository.findByProductID(productID, page).
-						log().
-						map(mapper::toModel).
-						collectList().
-						map(list -> {
-							
-							PagedRecommendation pageRecommendation = new PagedRecommendation();
-							pageRecommendation.setContent(list);
-							
-							PageMetadata pageMetadata = new PageMetadata();
-							pageMetadata.setTotalElements(count);
-							pageMetadata.setSize(Integer.toUnsignedLong(page.getPageSize()));
-							pageMetadata.setNumber(Integer.toUnsignedLong(page.getPageNumber()));
-							pageMetadata.setTotalPages(count < pSize ? 1 : count % pSize == 0 ? count/pSize : ((count/pSize) + 1));
-							pageRecommendation.setPage(pageMetadata);
+		if(cursor != null || Boolean.FALSE.equals(withTotal)) {
+			
+			return recommendationRepository.findSliceByProductID(productID, afterRecommendationID, page).
+					map(mapper::toModel).
+					collectList().
+					map(list -> {
+						
+						boolean hasNext = list.size() > page.getPageSize();
+						List<Recommendation> content = hasNext ? list.subList(0, page.getPageSize()) : list;
+						
+						PagedRecommendation pageRecommendation = new PagedRecommendation();
+						pageRecommendation.setContent(content);
+						pageRecommendation.setPage(pageMetadata(page, null, content, hasNext));
+						if(cursor != null) pageRecommendation.getPage().setNumber(null);
+						
+						return ResponseEntity.ok(pageRecommendation);
+					}).
+					transform(tracer.mono("getRecommendationByProductId", "productId", productID));
+		}
+		
+		return Mono.zip(recommendationRepository.countByProductID(productID),
+				recommendationRepository.findByProductID(productID, page).
+					map(mapper::toModel).
+					collectList()).
+				map(tuple -> {
+					
+					Long count = tuple.getT1();
+					
+					PagedRecommendation pageRecommendation = new PagedRecommendation();
+					pageRecommendation.setContent(tuple.getT2());
+					pageRecommendation.setPage(pageMetadata(page, count, tuple.getT2(), (page.getOffset() + page.getPageSize()) < count));
+					
+					return ResponseEntity.ok(pageRecommendation);
+				}).
+				transform(tracer.mono("getRecommendationByProductId", "productId", productID));
+	}
 	
-							return ResponseEntity.ok(pageRecommendation);
-						})
-				).log();
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<Recommendation>>> getRecommendationsByProductIds(Flux<Integer> productIds, Integer pageSize, ServerWebExchange exchange) {
+		
+		int size = pageSize == null || pageSize < 1 ? pagination.getPageSize() : pageSize;
+		
+		return productIds.collect(Collectors.toCollection(LinkedHashSet<Integer>::new)).
+				map(ids -> {
+					
+					if(ids.isEmpty()) throw new InvalidInputException("ProductIds should not be empty");
+					if(ids.size() > batch.getMaxKeys()) throw new InvalidInputException(String.format("ProductIds should not contain more than %d productIDs", batch.getMaxKeys()));
+					if(ids.stream().anyMatch(id -> id == null || id < 1)) throw new InvalidInputException("ProductId should be greater than 0");
+					
+					/**
+					 * One limited query by product, on the (productID, recommendationID) index, in the order of the productIDs : the server reads at most <i>size</i> recommendations by product.
+					 * The composite requests one more recommendation than its page, the extra one tells it that a next page exists.
+					 */
+					Pageable page = PageRequest.of(0, size, Sort.by(Direction.ASC, "recommendationID"));
+					
+					Flux<Recommendation> recommendations = Flux.fromIterable(ids).
+							sort().
+							flatMapSequential(id -> recommendationRepository.findByProductID(id, page), batch.getReadConcurrency()).
+							map(mapper::toModel).
+							transform(tracer.flux("getRecommendationsByProductIds"));
+					
+					return ResponseEntity.ok(recommendations);
+		});
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<Recommendation>>> exportRecommendations(Integer productID, ServerWebExchange exchange) {
+		
+		if(productID < 1) throw new InvalidInputException("ProductId should be greater than 0");
+		
+		/**
+		 * The response requests the recommendations by batch : one batch requested, one batch read from the cursor.
+		 */
+		Flux<Recommendation> recommendations = recommendationRepository.streamByProductID(productID, export.getBatchSize()).
+				limitRate(export.getBatchSize()).
+				map(mapper::toModel).
+				transform(tracer.flux("exportRecommendations", "productId", productID));
+		
+		return Mono.just(ResponseEntity.ok(recommendations));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<RecommendationStatistics>> getRecommendationStatistics(Integer productID, ServerWebExchange exchange) {
+		
+		if(productID < 1) throw new InvalidInputException("ProductId should be greater than 0");
+		
+		return statistics.get(productID).
+				map(mapper::toModel).
+				map(s -> ResponseEntity.ok(s)).
+				transform(tracer.mono("getRecommendationStatistics", "productId", productID));
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -118,10 +226,150 @@ public class RecommendationServiceImpl implements RecommendationsApi {
 			}).
 			flatMap(re -> recommendationRepository.save(re).
 					onErrorMap(DuplicateKeyException.class, e -> new InvalidInputException(String.format("Duplicate key : check the recommendationID (%d).", re.getRecommendationID())))).
-			log().
+			flatMap(re -> statistics.created(Collections.singletonList(re)).thenReturn(re)).
 			map(mapper::toModel).
 			map(r -> ResponseEntity.status(HttpStatus.CREATED).body(r)).
-			log();
+			transform(tracer.mono("save"));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<RecommendationBatchResult>>> saveAll(Flux<Recommendation> recommendations, ServerWebExchange exchange) {
+		
+		Flux<RecommendationBatchResult> results = recommendations.
+				buffer(batch.getChunkSize()).
+				concatMap(chunk -> saveChunk(chunk).
+						collectList().
+						flatMapMany(chunkResults -> statistics.created(createdOf(chunkResults)).thenMany(Flux.fromIterable(chunkResults)))).
+				transform(tracer.flux("saveAll"));
+		
+		return Mono.just(ResponseEntity.ok(results));
+	}
+	
+	/**
+	 * @param results
+	 * @return the created recommendations of a chunk, their statistics are incremented once by product
+	 */
+	private List<RecommendationEntity> createdOf(List<RecommendationBatchResult> results) {
+		
+		return results.stream().
+				filter(result -> StatusEnum.CREATED.equals(result.getStatus())).
+				map(result -> mapper.toEntity(result.getRecommendation())).
+				collect(Collectors.toList());
+	}
+	
+	/**
+	 * One query to find the recommendations already saved, then one insert for the others.
+	 * @param chunk
+	 * @return flux of {@link RecommendationBatchResult}
+	 */
+	private Flux<RecommendationBatchResult> saveChunk(List<Recommendation> chunk) {
+		
+		List<RecommendationBatchResult> rejected = new ArrayList<>();
+		Map<Integer, Recommendation> candidates = new LinkedHashMap<>();
+		
+		for(Recommendation r : chunk) {
+			
+			if(r.getRecommendationID() == null || r.getRecommendationID() < 1) 
+				rejected.add(rejected(r, "RecommendationID should be greater than 0."));
+			else if(r.getProductID() == null || r.getProductID() < 1) 
+				rejected.add(rejected(r, "ProductID in Recommendation should be greater than 0."));
+			else if(candidates.putIfAbsent(r.getRecommendationID(), r) != null) 
+				rejected.add(rejected(r, String.format("Duplicate key : the recommendationID (%d) is present several times in the batch.", r.getRecommendationID())));
+		}
+		
+		if(candidates.isEmpty()) return Flux.fromIterable(rejected);
+		
+		return recommendationRepository.findByRecommendationIDIn(candidates.keySet()).
+				map(RecommendationEntity::getRecommendationID).
+				collectList().
+				flatMapMany(existing -> {
+					
+					List<RecommendationBatchResult> results = new ArrayList<>(rejected);
+					Map<Integer, Recommendation> toInsert = new LinkedHashMap<>(candidates);
+					
+					existing.forEach(id -> results.add(rejected(toInsert.remove(id), String.format("Duplicate key : check the recommendationID (%d).", id))));
+					return Flux.concat(Flux.fromIterable(results), insert(new ArrayList<>(toInsert.values())));
+				});
+	}
+	
+	/**
+	 * Bulk insert. When a recommendation has been created concurrently the bulk insert fails, 
+	 * the recommendations are inserted one by one to know which one is rejected.
+	 * @param recommendations
+	 * @return flux of {@link RecommendationBatchResult}
+	 */
+	private Flux<RecommendationBatchResult> insert(List<Recommendation> recommendations) {
+		
+		if(recommendations.isEmpty()) return Flux.empty();
+		
+		LocalDateTime creationDate = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		
+		return recommendationRepository.saveAll(recommendations.stream().map(r -> toNewEntity(r, creationDate)).collect(Collectors.toList())).
+				map(mapper::toModel).
+				map(RecommendationServiceImpl::created).
+				onErrorResume(DuplicateKeyException.class, e -> Flux.fromIterable(recommendations).
+						concatMap(r -> insertOne(r, creationDate)));
+	}
+	
+	/**
+	 * @param recommendation
+	 * @param creationDate : creation date of the failed bulk insert
+	 * @return mono of {@link RecommendationBatchResult}
+	 */
+	private Mono<RecommendationBatchResult> insertOne(Recommendation recommendation, LocalDateTime creationDate) {
+		
+		return recommendationRepository.save(toNewEntity(recommendation, creationDate)).
+				map(mapper::toModel).
+				map(RecommendationServiceImpl::created).
+				onErrorResume(DuplicateKeyException.class, e -> recommendationRepository.findByRecommendationID(recommendation.getRecommendationID()).
+						filter(re -> creationDate.equals(re.getCreationDate())).
+						map(mapper::toModel).
+						map(RecommendationServiceImpl::created).
+						defaultIfEmpty(rejected(recommendation, String.format("Duplicate key : check the recommendationID (%d).", 
+								recommendation.getRecommendationID()))));
+	}
+	
+	/**
+	 * @param recommendation
+	 * @param creationDate
+	 * @return {@link RecommendationEntity}
+	 */
+	private RecommendationEntity toNewEntity(Recommendation recommendation, LocalDateTime creationDate) {
+		
+		RecommendationEntity re = mapper.toEntity(recommendation);
+		re.setCreationDate(creationDate);
+		return re;
+	}
+	
+	/**
+	 * @param recommendation
+	 * @return {@link RecommendationBatchResult}
+	 */
+	private static RecommendationBatchResult created(Recommendation recommendation) {
+		
+		RecommendationBatchResult result = new RecommendationBatchResult();
+		result.setRecommendationID(recommendation.getRecommendationID());
+		result.setStatus(StatusEnum.CREATED);
+		result.setRecommendation(recommendation);
+		return result;
+	}
+	
+	/**
+	 * @param recommendation
+	 * @param message
+	 * @return {@link RecommendationBatchResult}
+	 */
+	private static RecommendationBatchResult rejected(Recommendation recommendation, String message) {
+		
+		RecommendationBatchResult result = new RecommendationBatchResult();
+		result.setRecommendationID(recommendation.getRecommendationID());
+		result.setStatus(StatusEnum.REJECTED);
+		result.setMessage(message);
+		result.setRecommendation(recommendation);
+		return result;
 	}
 
 	/**
@@ -132,42 +380,45 @@ public class RecommendationServiceImpl implements RecommendationsApi {
 		
 		if(recommendationID < 1) throw new InvalidInputException("RecommendationID should be greater than 0.");
 		
-		Mono<RecommendationEntity> modelToEntity = recommendation.map(r -> {
+		return recommendation.map(r -> {
 			
 			if(r.getRecommendationID() < 1) throw new InvalidInputException("RecommendationID should be greater than 0.");
 			if(r.getProductID() < 1) throw new InvalidInputException("ProductID in Recommendation should be greater than 0.");
 			return r;
-		}).map(mapper::toEntity);
-		
-		return recommendationRepository.findByRecommendationID(recommendationID).
-				switchIfEmpty(Mono.error(new NotFoundException(String.format("Recommendation with recommendationID=%d doesn't not exists.", recommendationID)))).
-				log().
-				transform(m -> m.concatWith(modelToEntity).collectList().
-						map(list -> {
-							
-							Optional<RecommendationEntity> recommendationInDatabase = list.stream().filter(re -> StringUtils.isNotBlank(re.getId())).findFirst();
-							Optional<RecommendationEntity> recommendationModel = list.stream().filter(re ->StringUtils.isBlank(re.getId())).findFirst();
-							
-							if(recommendationInDatabase.isPresent() && recommendationModel.isPresent()) {
-								
-								recommendationInDatabase.get().setAuthor(recommendationModel.get().getAuthor());
-								recommendationInDatabase.get().setContent(recommendationModel.get().getContent());
-								recommendationInDatabase.get().setProductID(recommendationModel.get().getProductID());
-								recommendationInDatabase.get().setRate(recommendationModel.get().getRate());
-								recommendationInDatabase.get().setUpdateDate(LocalDateTime.now());
-							}
-							
-							return recommendationInDatabase.get();
-						})
-				).
-				log().
-				flatMap(re -> recommendationRepository.save(re).
-					onErrorMap(DuplicateKeyException.class, e -> new InvalidInputException(String.format("Duplicate key : check the recommendationID (%d).", re.getRecommendationID())))
+				}).
+				map(mapper::toEntity).
+				flatMap(re -> recommendationRepository.updateByRecommendationID(recommendationID, re).
+					onErrorMap(DuplicateKeyException.class, e -> new InvalidInputException(String.format("Duplicate key : check the recommendationID (%d).", recommendationID)))
 				).
-				log().
+				flatMap(change -> statistics.updated(change.getT1(), change.getT2()).thenReturn(change.getT2())).
+				switchIfEmpty(Mono.error(() -> new NotFoundException(String.format("Recommendation with recommendationID=%d doesn't not exists.", recommendationID)))).
 				map(mapper::toModel).
 				map(r -> ResponseEntity.ok(r)).
-				log();
+				transform(tracer.mono("update", "recommendationId", recommendationID));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Recommendation>> patchRecommendation(Integer recommendationID, Mono<RecommendationPatch> recommendationPatch, ServerWebExchange exchange) {
+		
+		if(recommendationID < 1) throw new InvalidInputException("RecommendationID should be greater than 0.");
+		
+		return recommendationPatch.map(r -> {
+			
+					if(r.getAuthor() == null && r.getContent() == null && r.getProductID() == null && r.getRate() == null) 
+						throw new InvalidInputException("The patch of the recommendation should have at least one member.");
+					if(r.getProductID() != null && r.getProductID() < 1) throw new InvalidInputException("ProductID in Recommendation should be greater than 0.");
+					return r;
+				}).
+				map(mapper::toEntity).
+				flatMap(re -> recommendationRepository.patchByRecommendationID(recommendationID, re)).
+				flatMap(change -> statistics.updated(change.getT1(), change.getT2()).thenReturn(change.getT2())).
+				switchIfEmpty(Mono.error(() -> new NotFoundException(String.format("Recommendation with recommendationID=%d doesn't not exists.", recommendationID)))).
+				map(mapper::toModel).
+				map(r -> ResponseEntity.ok(r)).
+				transform(tracer.mono("patchRecommendation", "recommendationId", recommendationID));
 	}
 
 	/**
@@ -179,6 +430,35 @@ public class RecommendationServiceImpl implements RecommendationsApi {
 		if(productID < 1) throw new InvalidInputException("ProductID should be greater than 0");
 		
 		 return recommendationRepository.deleteByProductID(productID).
-				 map(v -> ResponseEntity.ok(v));
+				 then(statistics.deleted(Collections.singleton(productID))).
+				 map(v -> ResponseEntity.ok(v)).
+				 transform(tracer.mono("deleteRecommendations", "productId", productID));
+	}
+	
+	/**
+	 * @param page
+	 * @param count : total of elements, null when the count query has been skipped
+	 * @param content
+	 * @param hasNext
+	 * @return {@link PageMetadata} with the cursor of the next page
+	 */
+	private static PageMetadata pageMetadata(Pageable page, Long count, List<Recommendation> content, boolean hasNext) {
+		
+		PageMetadata pageMetadata = new PageMetadata();
+		pageMetadata.setSize(Integer.toUnsignedLong(page.getPageSize()));
+		pageMetadata.setNumber(Integer.toUnsignedLong(page.getPageNumber()));
+		pageMetadata.setHasNext(hasNext);
+		
+		if(hasNext && !content.isEmpty()) 
+			pageMetadata.setNextCursor(PageCursor.encode(content.get(content.size() - 1).getRecommendationID()));
+		
+		if(count != null) {
+			
+			long pSize = page.getPageSize();
+			pageMetadata.setTotalElements(count);
+			pageMetadata.setTotalPages(count < pSize ? 1 : count % pSize == 0 ? count/pSize : ((count/pSize) + 1));
+		}
+		
+		return pageMetadata;
 	}
 }
@@ -0,0 +1,149 @@
+package com.me.microservices.core.recommendation.services;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+
+import com.me.microservices.core.recommendation.bo.RecommendationEntity;
+import com.me.microservices.core.recommendation.bo.RecommendationStatisticsEntity;
+import com.me.microservices.core.recommendation.repository.RecommendationStatisticsRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Maintains the statistics of the products after each write of recommendations : every change is a <i>$inc</i> on the document
+ * of the product, the recommendations are not read again to count them.
+ * The statistics are a second write, after the recommendations and outside of any transaction (the database may be a standalone server) :
+ * they can drift. When an increment fails, the statistics of the products are rebuilt from the recommendations, and when the rebuild 
+ * fails too, it's logged and counted in <i>statistics.rebuild.failures</i> : the write of the recommendations, already done, succeeds.
+ * A crash between both writes is only repaired by the next rebuild of the product.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+@Service
+public class RecommendationStatisticsService {
+	
+	private final RecommendationStatisticsRepository repository;
+	private final Counter rebuilds;
+	private final Counter rebuildFailures;
+	
+	public RecommendationStatisticsService(RecommendationStatisticsRepository repository, MeterRegistry registry) {
+		
+		this.repository = repository;
+		this.rebuilds = Counter.builder("statistics.rebuilds").register(registry);
+		this.rebuildFailures = Counter.builder("statistics.rebuild.failures").register(registry);
+	}
+	
+	/**
+	 * @param productID
+	 * @return mono of {@link RecommendationStatisticsEntity}, with a count of 0 when the product has no recommendation
+	 */
+	public Mono<RecommendationStatisticsEntity> get(Integer productID) {
+		
+		return repository.findById(productID).
+				defaultIfEmpty(new RecommendationStatisticsEntity(productID));
+	}
+	
+	/**
+	 * One increment by product.
+	 * @param recommendations : the created recommendations
+	 * @return mono of {@link Void}
+	 */
+	public Mono<Void> created(Collection<RecommendationEntity> recommendations) {
+		
+		Map<Integer, long[]> increments = new TreeMap<>();
+		
+		for(RecommendationEntity re : recommendations) {
+			
+			long[] increment = increments.computeIfAbsent(re.getProductID(), id -> new long[2]);
+			increment[0]++;
+			increment[1] += rate(re);
+		}
+		
+		return Flux.fromIterable(increments.entrySet()).
+				concatMap(e -> repository.increment(e.getKey(), e.getValue()[0], e.getValue()[1])).
+				then().
+				transform(increment -> rebuildOnError(increment, increments.keySet()));
+	}
+	
+	/**
+	 * The recommendation moves to the other product when its productID has changed, otherwise only the difference of the rates is added.
+	 * @param previous
+	 * @param updated
+	 * @return mono of {@link Void}
+	 */
+	public Mono<Void> updated(RecommendationEntity previous, RecommendationEntity updated) {
+		
+		if(Objects.equals(previous.getProductID(), updated.getProductID())) {
+			
+			long difference = rate(updated) - rate(previous);
+			return difference != 0 ? repository.increment(updated.getProductID(), 0, difference).then().
+						transform(increment -> rebuildOnError(increment, Arrays.asList(updated.getProductID()))) : Mono.empty();
+		}
+		
+		return repository.increment(previous.getProductID(), -1, -rate(previous)).
+				then(repository.increment(updated.getProductID(), 1, rate(updated))).
+				then().
+				transform(increment -> rebuildOnError(increment, Arrays.asList(previous.getProductID(), updated.getProductID())));
+	}
+	
+	/**
+	 * All the recommendations of these products have been deleted.
+	 * @param productIDs
+	 * @return mono of {@link Void}
+	 */
+	public Mono<Void> deleted(Collection<Integer> productIDs) {
+		
+		return repository.deleteByProductIDIn(productIDs).then().
+				transform(deletion -> rebuildOnError(deletion, productIDs));
+	}
+	
+	/**
+	 * @param productIDs
+	 * @return mono of {@link Void}, the statistics of the products computed again from their recommendations
+	 */
+	public Mono<Void> rebuild(Collection<Integer> productIDs) {
+		
+		return Flux.fromIterable(productIDs).
+				concatMap(repository::rebuild).
+				then();
+	}
+	
+	/**
+	 * @param write : the increments of the statistics
+	 * @param productIDs : their products
+	 * @return mono of {@link Void}, completed even when the statistics can't be repaired
+	 */
+	private Mono<Void> rebuildOnError(Mono<Void> write, Collection<Integer> productIDs) {
+		
+		return write.onErrorResume(e -> {
+			
+			log.warn(" > The statistics of the products {} can't be incremented, they are rebuilt : {}", productIDs, e.toString());
+			rebuilds.increment();
+			
+			return rebuild(productIDs).
+					onErrorResume(re -> {
+						
+						rebuildFailures.increment();
+						log.error(" > The statistics of the products {} can't be rebuilt, they stay wrong until the next rebuild.", productIDs, re);
+						return Mono.empty();
+					});
+		});
+	}
+	
+	/**
+	 * @param recommendation
+	 * @return the rate, 0 when the recommendation has no rate
+	 */
+	private static long rate(RecommendationEntity recommendation) {
+		return recommendation.getRate() != null ? recommendation.getRate() : 0;
+	}
+}
@@ -3,8 +3,12 @@ package com.me.microservices.core.recommendation.test;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.bson.Document;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -15,12 +19,15 @@ import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.me.microservices.core.recommendation.Application;
 import com.me.microservices.core.recommendation.bo.RecommendationEntity;
 import com.me.microservices.core.recommendation.repository.RecommendationRepository;
 
 import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
 
 @RunWith(SpringRunner.class)
 @DataMongoTest
@@ -29,6 +36,12 @@ public class RecommendationEntityTest {
 	@Autowired
 	private RecommendationRepository recommendationRepository;
 	
+	@Autowired
+	private Application application;
+	
+	@Autowired
+	private ReactiveMongoOperations mongoTemplate;
+	
 	private RecommendationEntity savedRecommendation;
 	
 	private static final Integer RECOMMENDATION_ID = 1;
@@ -40,6 +53,7 @@ public class RecommendationEntityTest {
 	@Before
 	public void setupdb() {
 	
+		application.indices().block();
 		recommendationRepository.deleteAll().block();
 		
 		StepVerifier.create(recommendationRepository.save(new RecommendationEntity(RECOMMENDATION_ID, PRODUCT_ID, 
@@ -129,4 +143,72 @@ public class RecommendationEntityTest {
 		StepVerifier.create(recommendationRepository.save(entity2)).
 			expectError(OptimisticLockingFailureException.class).verify();
 	}
+	
+	@Test
+	public void patchReturnsThePreviousAndTheStoredRecommendation() {
+		
+		RecommendationEntity patch = new RecommendationEntity();
+		patch.setRate(RATE + 1);
+		
+		Tuple2<RecommendationEntity, RecommendationEntity> change = recommendationRepository.patchByRecommendationID(RECOMMENDATION_ID, patch).block();
+		
+		assertEquals(RATE, change.getT1().getRate());
+		assertEquals(recommendationRepository.findByRecommendationID(RECOMMENDATION_ID).block(), change.getT2());
+		assertEquals(Integer.valueOf(RATE + 1), change.getT2().getRate());
+		
+		/**
+		 * The recommendation read before the patch can't be saved anymore.
+		 */
+		savedRecommendation.setContent(CONTENT + "_2");
+		StepVerifier.create(recommendationRepository.save(savedRecommendation)).
+			expectError(OptimisticLockingFailureException.class).verify();
+	}
+	
+	@Test
+	public void patchOfTheContentReturnsTheStoredRecommendation() {
+		
+		RecommendationEntity patch = new RecommendationEntity();
+		patch.setContent(CONTENT + "_2");
+		
+		Tuple2<RecommendationEntity, RecommendationEntity> change = recommendationRepository.patchByRecommendationID(RECOMMENDATION_ID, patch).block();
+		
+		assertEquals(recommendationRepository.findByRecommendationID(RECOMMENDATION_ID).block(), change.getT2());
+		assertEquals(CONTENT + "_2", change.getT2().getContent());
+		assertEquals(change.getT1(), change.getT2());
+	}
+	
+	@Test
+	public void findByProductIDUsesTheProductIndex() {
+		
+		/**
+		 * Recommendations of another product : an index on recommendationID alone would scan them.
+		 */
+		recommendationRepository.saveAll(IntStream.rangeClosed(2, 51).mapToObj(i -> new RecommendationEntity(i, PRODUCT_ID + 1, AUTHOR, RATE, CONTENT)).collect(Collectors.toList())).blockLast();
+		
+		Document explain = mongoTemplate.executeCommand(new Document("explain", new Document("find", "recommendations").
+				append("filter", new Document("productID", PRODUCT_ID)).
+				append("sort", new Document("recommendationID", 1))).
+				append("verbosity", "queryPlanner")).block();
+		
+		Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+		
+		assertThat(stages(winningPlan)).contains("IXSCAN").doesNotContain("SORT", "COLLSCAN");
+		assertThat(winningPlan.toJson()).contains("recom_product_IDX");
+	}
+	
+	/**
+	 * @param plan
+	 * @return the stages of the plan, from the root to the leaves
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<String> stages(Document plan) {
+		
+		List<String> stages = new ArrayList<>();
+		stages.add(plan.getString("stage"));
+		
+		if(plan.containsKey("inputStage")) stages.addAll(stages(plan.get("inputStage", Document.class)));
+		if(plan.containsKey("inputStages")) ((List<Document>)plan.get("inputStages")).forEach(d -> stages.addAll(stages(d)));
+		
+		return stages;
+	}
 }
@@ -1,6 +1,8 @@
 package com.me.microservices.core.recommendation.test;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.stream.IntStream;
 
 import org.junit.Before;
@@ -8,13 +10,14 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.system.OutputCaptureRule;
-import org.springframework.cloud.stream.messaging.Sink;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -24,13 +27,22 @@ import org.springframework.util.MultiValueMap;
 
 import com.me.api.Api;
 import com.me.api.event.Event;
+import com.me.microservices.core.recommendation.Application;
 import com.me.microservices.core.recommendation.api.model.Recommendation;
+import com.me.microservices.core.recommendation.api.model.RecommendationBatchResult;
+import com.me.microservices.core.recommendation.api.model.RecommendationBatchResult.StatusEnum;
+import com.me.microservices.core.recommendation.consumer.RecommendationConsumer;
 import com.me.microservices.core.recommendation.bo.RecommendationEntity;
 import com.me.microservices.core.recommendation.mapper.RecommendationMapper;
 import com.me.microservices.core.recommendation.repository.RecommendationRepository;
+import com.me.microservices.core.recommendation.repository.RecommendationStatisticsRepository;
 import com.me.microservices.core.recommendation.services.AsciiArtService;
+import com.me.microservices.core.recommendation.services.RecommendationStatisticsService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -41,10 +53,18 @@ public class RecommendationServiceTest {
 
 	@Autowired
 	private WebTestClient client;
+	@Autowired
+	private Application application;
 	
 	@Autowired
 	private RecommendationRepository recommendationRepository;
 	
+	@Autowired
+	private RecommendationStatisticsRepository statisticsRepository;
+	
+	@Autowired
+	private RecommendationStatisticsService statistics;
+	
 	@Autowired
 	private RecommendationMapper mapper;
 	
@@ -54,8 +74,11 @@ public class RecommendationServiceTest {
 	@Value("${spring.webflux.base-path}") 
 	private String basePath;
 	
+	@Autowired @Qualifier(RecommendationConsumer.BINDING_NAME)
+	private MessageChannel input;
+	
 	@Autowired
-	private Sink channel;
+	private MeterRegistry registry;
 	
 	@Rule
 	public OutputCaptureRule output = new OutputCaptureRule();
@@ -71,7 +94,9 @@ public class RecommendationServiceTest {
 		
 		asciiArt.display("SETUP");
 		
+		application.indices().block();
 		recommendationRepository.deleteAll().block();
+		statisticsRepository.deleteAll().block();
 		
 		Recommendation model = RecommendationModelBuilder.create().withRecommendationID(RECOMMENDATION_ID).
 				withProductID(PRODUCT_ID).withAuthor(AUTHOR).withRate(RATE).withContent(CONTENT).build();
@@ -172,6 +197,28 @@ public class RecommendationServiceTest {
 			jsonPath("$.message").isEqualTo(String.format("Duplicate key : check the recommendationID (%d).", RECOMMENDATION_ID));
 	}
 	
+	@Test
+	public void createRecommendationsInBulk() {
+		
+		asciiArt.display("CREATE RECOMMENDATIONS IN BULK");
+		
+		Flux<Recommendation> recommendations = Flux.concat(
+				Flux.range(50, 10).map(i -> RecommendationModelBuilder.create().withRecommendationID(i).withProductID(2).
+						withAuthor(AUTHOR + "_" + i).withRate(RATE).withContent(CONTENT).build()),
+				Flux.just(RecommendationModelBuilder.create().withRecommendationID(RECOMMENDATION_ID).
+						withProductID(2).withAuthor(AUTHOR).withRate(RATE).withContent(CONTENT).build()));
+		
+		Flux<RecommendationBatchResult> results = createInBulkAndVerifyStatus(recommendations, HttpStatus.OK);
+		
+		StepVerifier.create(results.filter(r -> StatusEnum.REJECTED.equals(r.getStatus()))).
+			expectNextMatches(r -> r.getRecommendationID().equals(RECOMMENDATION_ID) && 
+					r.getMessage().equals(String.format("Duplicate key : check the recommendationID (%d).", RECOMMENDATION_ID))).
+			verifyComplete();
+		
+		StepVerifier.create(recommendationRepository.countByProductID(2)).
+			expectNext(10L).verifyComplete();
+	}
+	
 	@Test
 	public void updateRecommendation() {
 		
@@ -184,6 +231,101 @@ public class RecommendationServiceTest {
 			jsonPath("$.content").isEqualTo("Yes! good product! Nice and good conception.");
 	}
 	
+	@Test
+	public void patchRecommendationRate() {
+		
+		asciiArt.display("PATCH RECOMMENDATION RATE");
+		
+		patchAndVerifyStatus(RECOMMENDATION_ID, "{\"rate\":4}", HttpStatus.OK).
+			jsonPath("$.rate").isEqualTo(4).
+			jsonPath("$.content").isEqualTo(CONTENT).
+			jsonPath("$.author").isEqualTo(AUTHOR);
+	}
+	
+	@Test
+	public void patchRecommendationNotFoundException() {
+		
+		asciiArt.display("PATCH RECOMMENDATION BUT NOT FOUND EXCEPTION");
+		
+		patchAndVerifyStatus(999, "{\"rate\":4}", HttpStatus.NOT_FOUND).
+			jsonPath("$.message").isEqualTo(String.format("Recommendation with recommendationID=%d doesn't not exists.", 999));
+	}
+	
+	@Test
+	public void getRecommendationStatistics() {
+		
+		asciiArt.display("GET RECOMMENDATION STATISTICS");
+		
+		/**
+		 * The rates of the setup : 1 then 3 to 22.
+		 */
+		getStatisticsAndVerifyStatus(PRODUCT_ID, HttpStatus.OK).
+			jsonPath("$.productID").isEqualTo(PRODUCT_ID).
+			jsonPath("$.count").isEqualTo(21).
+			jsonPath("$.averageRate").isEqualTo(251d / 21);
+		
+		patchAndVerifyStatus(RECOMMENDATION_ID, "{\"rate\":22}", HttpStatus.OK);
+		
+		getStatisticsAndVerifyStatus(PRODUCT_ID, HttpStatus.OK).
+			jsonPath("$.count").isEqualTo(21).
+			jsonPath("$.averageRate").isEqualTo(272d / 21);
+		
+		/**
+		 * The recommendation moves to another product.
+		 */
+		patchAndVerifyStatus(RECOMMENDATION_ID, "{\"productID\":2}", HttpStatus.OK);
+		
+		getStatisticsAndVerifyStatus(PRODUCT_ID, HttpStatus.OK).
+			jsonPath("$.count").isEqualTo(20).
+			jsonPath("$.averageRate").isEqualTo(250d / 20);
+		
+		getStatisticsAndVerifyStatus(2, HttpStatus.OK).
+			jsonPath("$.count").isEqualTo(1).
+			jsonPath("$.averageRate").isEqualTo(22d);
+		
+		deleteRecommendation(PRODUCT_ID, HttpStatus.OK);
+		
+		getStatisticsAndVerifyStatus(PRODUCT_ID, HttpStatus.OK).
+			jsonPath("$.count").isEqualTo(0).
+			jsonPath("$.averageRate").doesNotExist();
+	}
+	
+	@Test
+	public void driftedStatisticsAreRebuilt() {
+		
+		asciiArt.display("REBUILD RECOMMENDATION STATISTICS");
+		
+		/**
+		 * Increments without their recommendations, like a crash between both writes.
+		 */
+		statisticsRepository.increment(PRODUCT_ID, 5, 100).block();
+		statisticsRepository.increment(3, 1, 4).block();
+		
+		statistics.rebuild(Arrays.asList(PRODUCT_ID, 3)).block();
+		
+		getStatisticsAndVerifyStatus(PRODUCT_ID, HttpStatus.OK).
+			jsonPath("$.count").isEqualTo(21).
+			jsonPath("$.averageRate").isEqualTo(251d / 21);
+		
+		StepVerifier.create(statisticsRepository.findById(3)).verifyComplete();
+		
+		/**
+		 * A second rebuild changes nothing.
+		 */
+		statistics.rebuild(Arrays.asList(PRODUCT_ID)).block();
+		
+		getStatisticsAndVerifyStatus(PRODUCT_ID, HttpStatus.OK).
+			jsonPath("$.count").isEqualTo(21);
+	}
+	
+	@Test
+	public void getRecommendationStatisticsInvalidInputException() {
+		
+		asciiArt.display("GET RECOMMENDATION STATISTICS BUT INVALID INPUT EXCEPTION");
+		
+		getStatisticsAndVerifyStatus(0, HttpStatus.UNPROCESSABLE_ENTITY);
+	}
+	
 	@Test
 	public void deleteRecommendation() {
 		
@@ -259,6 +401,19 @@ public class RecommendationServiceTest {
 				expectBody();
 	}
 	
+	/**
+	 * @param productID
+	 * @param status
+	 * @return {@link BodyContentSpec}
+	 */
+	private BodyContentSpec getStatisticsAndVerifyStatus(Integer productID, HttpStatus status) {
+		
+		return client.get().uri(uri -> uri.path(basePath + "/" + Api.RECOMMENDATION_PATH + "/" + Api.STATISTICS_PATH).queryParam("productId", productID).build()).
+				accept(MediaType.APPLICATION_JSON).exchange().
+				expectStatus().isEqualTo(status).
+				expectBody();
+	}
+	
 	/**
 	 * @param body
 	 * @param status
@@ -272,6 +427,20 @@ public class RecommendationServiceTest {
 				expectBody();
 	}
 	
+	/**
+	 * @param body
+	 * @param status
+	 * @return flux of {@link RecommendationBatchResult}
+	 */
+	private Flux<RecommendationBatchResult> createInBulkAndVerifyStatus(Flux<Recommendation> body, HttpStatus status) {
+		
+		return client.post().uri(basePath + "/" + Api.RECOMMENDATION_PATH + "/" + Api.BATCH_PATH).
+				contentType(MediaType.APPLICATION_STREAM_JSON).
+				body(body, Recommendation.class).accept(MediaType.APPLICATION_STREAM_JSON).exchange().
+				expectStatus().isEqualTo(status).
+				returnResult(RecommendationBatchResult.class).getResponseBody();
+	}
+	
 	/**
 	 * @param body
 	 * @param status
@@ -285,6 +454,21 @@ public class RecommendationServiceTest {
 				expectBody();
 	}
 	
+	/**
+	 * @param recommendationID
+	 * @param patch : JSON merge patch
+	 * @param status
+	 * @return {@link BodyContentSpec}
+	 */
+	private BodyContentSpec patchAndVerifyStatus(Integer recommendationID, String patch, HttpStatus status) {
+		
+		return client.patch().uri(basePath + "/" + Api.RECOMMENDATION_PATH + "/" + recommendationID).
+				contentType(MediaType.valueOf("application/merge-patch+json")).
+				body(Mono.just(patch), String.class).accept(MediaType.APPLICATION_JSON).exchange().
+				expectStatus().isEqualTo(status).
+				expectBody();
+	}
+	
 	/**
 	 * @param recommendationID
 	 */
@@ -302,7 +486,24 @@ public class RecommendationServiceTest {
 		
 		Event<Integer> event = new Event<>(recommendationId, Event.Type.DELETE);
 		log.info(" > One message will be sent for a recommendation deletion ({}).", event.toString());
-		channel.input().send(MessageBuilder.withPayload(event).build());
+		
+		double consumed = consumedEvents();
+		input.send(MessageBuilder.withPayload(event).build());
+		
+		/**
+		 * The events are consumed asynchronously : wait for the acknowledgment.
+		 */
+		Mono.fromCallable(this::consumedEvents).
+			filter(count -> count > consumed).
+			repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50))).
+			block(Duration.ofSeconds(10));
+	}
+	
+	/**
+	 * @return number of events acknowledged or rejected by the consumer
+	 */
+	private double consumedEvents() {
+		return registry.find("consumer.events").counters().stream().mapToDouble(Counter::count).sum();
 	}
 	
 	public static class RecommendationModelBuilder {
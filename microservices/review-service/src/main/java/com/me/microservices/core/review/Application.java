@@ -1,5 +1,10 @@
 package com.me.microservices.core.review;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.Banner.Mode;
 import org.springframework.boot.SpringApplication;
@@ -7,13 +12,12 @@ import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.cloud.stream.annotation.EnableBinding;
-import org.springframework.cloud.stream.messaging.Sink;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.index.IndexInfo;
 import org.springframework.data.mongodb.core.index.IndexResolver;
 import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
 import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
@@ -25,11 +29,15 @@ import com.me.microservices.core.review.bo.ReviewEntity;
 
 import lombok.Getter;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-@EnableBinding(value = Sink.class)
-@EnableConfigurationProperties(value=Application.PaginationInformation.class)
+@Slf4j
+@EnableConfigurationProperties(value={Application.PaginationInformation.class, Application.BatchInformation.class, Application.ExportInformation.class, 
+		Application.ConsumerInformation.class})
 @EnableReactiveMongoRepositories
-@ComponentScan(basePackages= {"com.me.microservices.core", "com.me.handler.http"})
+@ComponentScan(basePackages= {"com.me.microservices.core.review", "com.me.handler.http", "com.me.api.trace", "com.me.api.metrics"})
 @SpringBootApplication
 public class Application {
 
@@ -53,9 +61,62 @@ public class Application {
 		private Integer defaultPageSize;
 	}
 	
+	/**
+	 * Bulk creation : number of reviews written with one insert.
+	 * Multi-key read : maximum number of productIDs in one request.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="api.batch")
+	public static class BatchInformation {
+		
+		private int chunkSize = 100;
+		private int maxKeys = 100;
+		private int readConcurrency = 8;
+	}
+	
+	/**
+	 * Export of the reviews : number of reviews read from the cursor by round-trip, and requested by the response.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="api.export")
+	public static class ExportInformation {
+		
+		private int batchSize = 500;
+	}
+	
+	/**
+	 * Consumption of the review events : concurrency, batches and retries before the rejection to the DLQ.
+	 * @author rudysaniez @since 0.0.1
+	 */
+	@Getter @Setter
+	@ConfigurationProperties(prefix="app.consumer")
+	public static class ConsumerInformation {
+		
+		private int concurrency = 4;
+		private long maxAttempts = 3;
+		private Duration backOffInitialInterval = Duration.ofMillis(500);
+		private Duration backOffMaxInterval = Duration.ofSeconds(1);
+		private int batchSize = 100;
+		private Duration batchWindow = Duration.ofMillis(200);
+	}
+	
+	/**
+	 * Indices replaced by the ones declared by {@link ReviewEntity}, dropped when they still exist.
+	 * Only these ones : the other indices of the collection may belong to another version of the service, or to a DBA.
+	 */
+	private static final Set<String> SUPERSEDED_INDICES = new HashSet<>(Arrays.asList("review_comp_IDX"));
+	
 	@Autowired
 	private ReactiveMongoOperations mongoTemplate;
 	
+	private volatile Mono<Void> indices = Mono.empty();
+	
+	/**
+	 * Create the indices declared by {@link ReviewEntity}, then drop the superseded ones.
+	 * The indices are created in the background : the event thread isn't blocked.
+	 */
 	@EventListener(ContextRefreshedEvent.class)
 	public void initIndicesAfterStartup() {
 
@@ -63,6 +124,24 @@ public class Application {
 		IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
 
 		ReactiveIndexOperations nomenclatureIndexOps = mongoTemplate.indexOps(ReviewEntity.class);
-		resolver.resolveIndexFor(ReviewEntity.class).forEach(e -> nomenclatureIndexOps.ensureIndex(e).block());
+		
+		indices = Flux.fromIterable(resolver.resolveIndexFor(ReviewEntity.class)).
+				concatMap(nomenclatureIndexOps::ensureIndex).
+				thenMany(nomenclatureIndexOps.getIndexInfo()).
+				map(IndexInfo::getName).
+				filter(SUPERSEDED_INDICES::contains).
+				concatMap(name -> nomenclatureIndexOps.dropIndex(name).thenReturn(name)).
+				doOnNext(name -> log.info(" > The superseded index {} has been dropped.", name)).
+				then().
+				cache();
+		
+		indices.subscribe(v -> {}, e -> log.error(" > The indices of {} can't be created.", ReviewEntity.class.getSimpleName(), e));
+	}
+	
+	/**
+	 * @return mono of {@link Void}, completed when the indices are created
+	 */
+	public Mono<Void> indices() {
+		return indices;
 	}
 }
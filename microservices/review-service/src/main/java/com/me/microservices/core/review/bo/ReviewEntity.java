@@ -19,8 +19,11 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * The reviewID is unique by itself, the reviews of a product are read by productID and sorted by reviewID.
+ */
 @Data @NoArgsConstructor
-@CompoundIndex(name="review_comp_IDX", unique=true, def="{'reviewID':1, 'productID':1}")
+@CompoundIndex(name="review_product_IDX", def="{'productID':1, 'reviewID':1}")
 @Document(collection = "reviews")
 public class ReviewEntity implements Serializable {
 
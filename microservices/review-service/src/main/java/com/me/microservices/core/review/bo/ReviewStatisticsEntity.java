@@ -0,0 +1,32 @@
+package com.me.microservices.core.review.bo;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of reviews of a product, one document by product : its id is the productID.
+ * @author rudysaniez @since 0.0.1
+ */
+@Data @NoArgsConstructor
+@Document(collection = "review-statistics")
+public class ReviewStatisticsEntity {
+	
+	@Id
+	private Integer productID;
+	
+	private long count;
+	
+	private LocalDateTime lastUpdate;
+	
+	/**
+	 * @param productID
+	 */
+	public ReviewStatisticsEntity(Integer productID) {
+		this.productID = productID;
+	}
+}
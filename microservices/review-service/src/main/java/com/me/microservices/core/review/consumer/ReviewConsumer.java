@@ -1,46 +1,236 @@
 package com.me.microservices.core.review.consumer;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cloud.stream.annotation.StreamListener;
-import org.springframework.cloud.stream.messaging.Sink;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
+import com.me.api.event.Acknowledgements;
 import com.me.api.event.Event;
+import com.me.api.trace.Span;
+import com.me.api.trace.TraceContext;
+import com.me.api.trace.Tracing;
+import com.me.handler.exception.InvalidInputException;
+import com.me.microservices.core.review.Application.ConsumerInformation;
 import com.me.microservices.core.review.api.ReviewsApi;
+import com.me.microservices.core.review.repository.ReviewRepository;
+import com.me.microservices.core.review.service.ReviewStatisticsService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+/**
+ * Reactive consumer of the review events, the function <i>reviewEvents</i> is bound to <i>input</i>.
+ * The events are buffered in batches (<i>batch-size</i> events or <i>batch-window</i>), the batches are processed with a bounded concurrency.
+ * The DELETE events of a batch become one <i>deleteMany</i> on the distinct productIDs, then the statistics of these products are removed, then all the messages of the batch are acknowledged.
+ * When a batch fails after the retries, its messages are processed one by one : only the poison messages are rejected to the DLQ.
+ * @author rudysaniez @since 0.0.1
+ */
 @Slf4j
-@Component
-public class ReviewConsumer {
-
+@Component(ReviewConsumer.FUNCTION_NAME)
+public class ReviewConsumer implements Function<Flux<Message<Event<Integer>>>, Mono<Void>> {
+	
+	public static final String FUNCTION_NAME = "reviewEvents";
+	public static final String BINDING_NAME = "input";
+	
 	private final ReviewsApi reviewService;
+	private final ReviewRepository reviewRepository;
+	private final ReviewStatisticsService statistics;
+	private final ConsumerInformation information;
+	private final Counter acknowledged;
+	private final Counter rejected;
+	private final Timer processing;
+	private final DistributionSummary batchSize;
+	private final Tracing tracing;
 	
-	@Autowired
-	public ReviewConsumer(ReviewsApi reviewService) {
+	public ReviewConsumer(ReviewsApi reviewService, ReviewRepository reviewRepository, ReviewStatisticsService statistics, 
+			ConsumerInformation information, MeterRegistry registry, Tracing tracing) {
+		
 		this.reviewService = reviewService;
+		this.reviewRepository = reviewRepository;
+		this.statistics = statistics;
+		this.information = information;
+		this.tracing = tracing;
+		this.acknowledged = Counter.builder("consumer.events").tag("binding", BINDING_NAME).tag("outcome", "acknowledged").register(registry);
+		this.rejected = Counter.builder("consumer.events").tag("binding", BINDING_NAME).tag("outcome", "rejected").register(registry);
+		this.processing = Timer.builder("consumer.events.processing").tag("binding", BINDING_NAME).register(registry);
+		this.batchSize = DistributionSummary.builder("consumer.events.batch").tag("binding", BINDING_NAME).register(registry);
 	}
 	
 	/**
-	 * @param event
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<Void> apply(Flux<Message<Event<Integer>>> messages) {
+		
+		/**
+		 * The timer of bufferTimeout emits a batch even without request : the batches wait in an unbounded buffer while all the 
+		 * slots of the flatMap are busy, instead of an overflow error. The messages in memory stay bounded by the prefetch of the 
+		 * binding, they are not acknowledged yet.
+		 */
+		return messages.
+				bufferTimeout(information.getBatchSize(), information.getBatchWindow()).
+				onBackpressureBuffer().
+				flatMap(batch -> consumeBatch(batch).
+						onErrorResume(e -> {
+							
+							log.error(" > A batch of {} event(s) has failed, the messages which aren't acknowledged are redelivered when the channel closes.", batch.size(), e);
+							return Mono.empty();
+						}), information.getConcurrency()).
+				then();
+	}
+	
+	/**
+	 * An error is never propagated, it would cancel the subscription of the binding.
+	 * @param batch
+	 * @return mono of {@link Void}, completed when all the messages of the batch are acknowledged or rejected
+	 */
+	private Mono<Void> consumeBatch(List<Message<Event<Integer>>> batch) {
+		
+		List<Message<Event<Integer>>> deletions = new ArrayList<>();
+		List<Message<Event<Integer>>> invalids = new ArrayList<>();
+		Set<Integer> productIDs = new LinkedHashSet<>();
+		
+		for(Message<Event<Integer>> message : batch) {
+			
+			Event<Integer> event = message.getPayload();
+			
+			if(event == null || !Event.Type.DELETE.equals(event.getType())) {
+				
+				Acknowledgements.ack(message);
+				acknowledged.increment();
+			}
+			else if(event.getKey() == null || event.getKey() < 1) {
+				invalids.add(message);
+			}
+			else {
+				
+				deletions.add(message);
+				productIDs.add(event.getKey());
+			}
+		}
+		
+		batchSize.record(batch.size());
+		long start = System.nanoTime();
+		List<Span> spans = consumerSpans(batch);
+		
+		return Flux.fromIterable(invalids).
+				concatMap(this::consume).
+				then(deleteAll(deletions, productIDs)).
+				doFinally(signal -> {
+					
+					processing.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+					spans.forEach(Span::end);
+				});
+	}
+	
+	/**
+	 * One consumer span per traced message, child of the span of the producer : the batch is attributed to each trace.
+	 * @param batch
+	 * @return the started spans
+	 */
+	private List<Span> consumerSpans(List<Message<Event<Integer>>> batch) {
+		
+		if(!tracing.isEnabled()) return Collections.emptyList();
+		
+		return batch.stream().
+				map(message -> TraceContext.parse(Objects.toString(message.getHeaders().get(TraceContext.TRACEPARENT), null))).
+				filter(Objects::nonNull).
+				map(parent -> tracing.start(FUNCTION_NAME, Span.Kind.CONSUMER, parent).tag("messaging.batch.size", batch.size())).
+				collect(Collectors.toList());
+	}
+	
+	/**
+	 * @param deletions : the messages of the DELETE events
+	 * @param productIDs : the distinct keys of the events
+	 * @return mono of {@link Void}
 	 */
-	@StreamListener(value = Sink.INPUT)
-	public void consume(@Payload(required = false) Event<Integer> event) {
+	private Mono<Void> deleteAll(List<Message<Event<Integer>>> deletions, Set<Integer> productIDs) {
 		
-		if(event == null)
-			return;
+		if(deletions.isEmpty()) return Mono.empty();
 		
-		log.info(" > Receive an event of type {}, created at {}", event.getType(), event.getCreationDate());
+		return Mono.defer(() -> reviewRepository.deleteByProductIDIn(productIDs).
+					flatMap(count -> statistics.deleted(productIDs).thenReturn(count))).
+				retryWhen(retry()).
+				doOnSuccess(count -> {
+					
+					log.info(" > {} review(s) of the productIDs {} have been deleted at {}", count, productIDs, LocalDateTime.now());
+					deletions.forEach(Acknowledgements::ack);
+					acknowledged.increment(deletions.size());
+				}).
+				then().
+				onErrorResume(e -> {
+					
+					log.warn(" > The batch of {} event(s) has failed, the events are processed one by one.", deletions.size(), e);
+					return Flux.fromIterable(deletions).concatMap(this::consume).then();
+				});
+	}
+	
+	/**
+	 * @param message
+	 * @return mono of {@link Void}, completed when the message is acknowledged or rejected
+	 */
+	private Mono<Void> consume(Message<Event<Integer>> message) {
+		
+		Event<Integer> event = message.getPayload();
+		
+		return Mono.defer(() -> handle(event)).
+				retryWhen(retry()).
+				doOnSuccess(v -> {
+					
+					Acknowledgements.ack(message);
+					acknowledged.increment();
+				}).
+				onErrorResume(e -> {
+					
+					log.error(" > The event {} has been rejected.", event, e);
+					Acknowledgements.reject(message);
+					rejected.increment();
+					return Mono.empty();
+				});
+	}
+	
+	/**
+	 * @param event
+	 * @return mono of {@link Void}
+	 */
+	private Mono<Void> handle(Event<Integer> event) {
 		
 		switch(event.getType()) {
 		
 		case DELETE:
-			reviewService.deleteReviews(event.getKey(), null).block();
-			log.info(" > The review(s) with productID={} has been deleted at {}", event.getKey(), LocalDateTime.now());
-			break;
+			return reviewService.deleteReviews(event.getKey(), null).
+					doOnSuccess(v -> log.info(" > The review(s) with productID={} has been deleted at {}", event.getKey(), LocalDateTime.now())).
+					then();
+		
+		default:
+			return Mono.empty();
 		}
 	}
+	
+	/**
+	 * An invalid event is never retried.
+	 * @return {@link Retry}
+	 */
+	private Retry retry() {
+		
+		return Retry.backoff(information.getMaxAttempts() - 1, information.getBackOffInitialInterval()).
+				maxBackoff(information.getBackOffMaxInterval()).
+				filter(e -> !(e instanceof InvalidInputException));
+	}
 }
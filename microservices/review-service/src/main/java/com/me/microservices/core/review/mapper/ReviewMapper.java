@@ -7,7 +7,10 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 
 import com.me.microservices.core.review.api.model.Review;
+import com.me.microservices.core.review.api.model.ReviewPatch;
+import com.me.microservices.core.review.api.model.ReviewStatistics;
 import com.me.microservices.core.review.bo.ReviewEntity;
+import com.me.microservices.core.review.bo.ReviewStatisticsEntity;
 
 @Mapper
 public interface ReviewMapper {
@@ -22,12 +25,30 @@ public interface ReviewMapper {
 	@Mapping(target = "id", ignore = true)
 	public ReviewEntity toEntity(Review review);
 	
+	/**
+	 * @param patch
+	 * @return {@link ReviewEntity} with the members of the patch, the other fields are null
+	 */
+	@Mappings(value = {@Mapping(target = "id", ignore = true), 
+			@Mapping(target = "withId", ignore = true), 
+			@Mapping(target = "version", ignore = true),
+			@Mapping(target = "reviewID", ignore = true),
+			@Mapping(target = "creationDate", ignore = true),
+			@Mapping(target = "updateDate", ignore = true)})
+	public ReviewEntity toEntity(ReviewPatch patch);
+	
 	/**
 	 * @param review
 	 * @return {@link Review}
 	 */
 	public Review toModel(ReviewEntity review);
 	
+	/**
+	 * @param statistics
+	 * @return {@link ReviewStatistics}
+	 */
+	public ReviewStatistics toModel(ReviewStatisticsEntity statistics);
+	
 	/**
 	 * @param reviews
 	 * @return list of {@link Review}
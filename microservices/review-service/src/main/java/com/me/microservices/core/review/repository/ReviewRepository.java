@@ -1,5 +1,7 @@
 package com.me.microservices.core.review.repository;
 
+import java.util.Collection;
+
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 
@@ -8,7 +10,7 @@ import com.me.microservices.core.review.bo.ReviewEntity;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface ReviewRepository extends ReactiveMongoRepository<ReviewEntity, String> {
+public interface ReviewRepository extends ReactiveMongoRepository<ReviewEntity, String>, ReviewRepositoryCustom {
 
 	/**
 	 * @param reviewID
@@ -16,6 +18,12 @@ public interface ReviewRepository extends ReactiveMongoRepository<ReviewEntity,
 	 */
 	public Mono<ReviewEntity> findByReviewID(Integer reviewID);
 	
+	/**
+	 * @param reviewIDs
+	 * @return flux of {@link ReviewEntity}
+	 */
+	public Flux<ReviewEntity> findByReviewIDIn(Collection<Integer> reviewIDs);
+	
 	/**
 	 * @param productID
 	 * @param page
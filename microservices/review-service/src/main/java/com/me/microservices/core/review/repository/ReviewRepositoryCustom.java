@@ -0,0 +1,65 @@
+package com.me.microservices.core.review.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.domain.Pageable;
+
+import com.me.microservices.core.review.bo.ReviewEntity;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+/**
+ * Queries which can't be derived from the method name.
+ * @author rudysaniez @since 0.0.1
+ */
+public interface ReviewRepositoryCustom {
+	
+	/**
+	 * One more element than the page size is read, it tells if a next page exists without a count query.
+	 * With <i>afterReviewID</i>, the page starts after this reviewID (keyset pagination) and the offset of the page is not used.
+	 * @param productID
+	 * @param afterReviewID : null for an offset pagination
+	 * @param page
+	 * @return flux of {@link ReviewEntity}, at most <i>page size + 1</i> elements
+	 */
+	public Flux<ReviewEntity> findSliceByProductID(Integer productID, Integer afterReviewID, Pageable page);
+	
+	/**
+	 * One <i>deleteMany</i> with <i>productID $in</i>, instead of one deletion by product.
+	 * @param productIDs
+	 * @return mono of the number of deleted {@link ReviewEntity}
+	 */
+	public Mono<Long> deleteByProductIDIn(Collection<Integer> productIDs);
+	
+	/**
+	 * Streamed read of all the reviews of a product, sorted by reviewID : one cursor, no skip, no count.
+	 * The cursor reads <i>batchSize</i> documents by round-trip, the next batch is read when the subscriber requests it.
+	 * @param productID
+	 * @param batchSize
+	 * @return flux of {@link ReviewEntity}
+	 */
+	public Flux<ReviewEntity> streamByProductID(Integer productID, int batchSize);
+	
+	/**
+	 * The review isn't read before : one <i>findAndModify</i> sets the author, the content, the productID, the subject and the update date, 
+	 * and increments the version. A save of the review read before this update fails with an optimistic locking error.
+	 * The <i>findAndModify</i> returns the previous review, the updated one is the previous one with the values applied by the update : 
+	 * a review moved to another product changes the statistics of both products.
+	 * @param reviewID
+	 * @param review : the new values
+	 * @return mono of the previous and of the updated {@link ReviewEntity}, empty when the reviewID doesn't exist
+	 */
+	public Mono<Tuple2<ReviewEntity, ReviewEntity>> updateByReviewID(Integer reviewID, ReviewEntity review);
+	
+	/**
+	 * Partial version of {@link #updateByReviewID(Integer, ReviewEntity)} : the null fields of the patch are left unchanged,
+	 * and the review isn't read before either. Without productID, the count of reviews doesn't change : the pair holds twice 
+	 * the stored review, returned by the <i>findAndModify</i>.
+	 * @param reviewID
+	 * @param patch : the fields to set, the others are null
+	 * @return mono of the previous and of the patched {@link ReviewEntity}, empty when the reviewID doesn't exist
+	 */
+	public Mono<Tuple2<ReviewEntity, ReviewEntity>> patchByReviewID(Integer reviewID, ReviewEntity patch);
+}
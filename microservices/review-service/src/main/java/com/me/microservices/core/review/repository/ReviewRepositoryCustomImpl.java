@@ -0,0 +1,164 @@
+package com.me.microservices.core.review.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.me.microservices.core.review.bo.ReviewEntity;
+import com.mongodb.client.result.DeleteResult;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * @author rudysaniez @since 0.0.1
+ */
+public class ReviewRepositoryCustomImpl implements ReviewRepositoryCustom {
+	
+	private final ReactiveMongoOperations operations;
+	
+	public ReviewRepositoryCustomImpl(ReactiveMongoOperations operations) {
+		this.operations = operations;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Flux<ReviewEntity> findSliceByProductID(Integer productID, Integer afterReviewID, Pageable page) {
+		
+		Criteria criteria = where("productID").is(productID);
+		if(afterReviewID != null) criteria = criteria.and("reviewID").gt(afterReviewID);
+		
+		Query query = Query.query(criteria).
+				with(page.getSort()).
+				skip(afterReviewID != null ? 0 : page.getOffset()).
+				limit(page.getPageSize() + 1);
+		
+		return operations.find(query, ReviewEntity.class);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<Long> deleteByProductIDIn(Collection<Integer> productIDs) {
+		
+		return operations.remove(Query.query(where("productID").in(productIDs)), ReviewEntity.class).
+				map(DeleteResult::getDeletedCount);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Flux<ReviewEntity> streamByProductID(Integer productID, int batchSize) {
+		
+		Query query = Query.query(where("productID").is(productID)).
+				with(Sort.by(Direction.ASC, "reviewID")).
+				cursorBatchSize(batchSize);
+		
+		return operations.find(query, ReviewEntity.class);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<Tuple2<ReviewEntity, ReviewEntity>> updateByReviewID(Integer reviewID, ReviewEntity review) {
+		
+		LocalDateTime updateDate = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		
+		Update update = new Update().
+				set("author", review.getAuthor()).
+				set("content", review.getContent()).
+				set("productID", review.getProductID()).
+				set("subject", review.getSubject()).
+				set("updateDate", updateDate).
+				inc("version", 1);
+		
+		return modify(reviewID, update, review, false, updateDate);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<Tuple2<ReviewEntity, ReviewEntity>> patchByReviewID(Integer reviewID, ReviewEntity patch) {
+		
+		LocalDateTime updateDate = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		
+		Update update = new Update();
+		if(patch.getAuthor() != null) update.set("author", patch.getAuthor());
+		if(patch.getContent() != null) update.set("content", patch.getContent());
+		if(patch.getProductID() != null) update.set("productID", patch.getProductID());
+		if(patch.getSubject() != null) update.set("subject", patch.getSubject());
+		
+		update.set("updateDate", updateDate).
+				inc("version", 1);
+		
+		/**
+		 * The count of reviews only changes when the review moves to another product, otherwise the stored review is returned.
+		 */
+		if(patch.getProductID() == null) {
+			
+			return operations.findAndModify(Query.query(where("reviewID").is(reviewID)), update, 
+					FindAndModifyOptions.options().returnNew(true), ReviewEntity.class).
+					map(stored -> Tuples.of(stored, stored));
+		}
+		
+		return modify(reviewID, update, patch, true, updateDate);
+	}
+	
+	/**
+	 * One <i>findAndModify</i> which returns the document before the update : the updated one is the previous one with the <i>$set</i> 
+	 * and the <i>$inc</i> which have just been applied, nothing else can change in the same operation.
+	 * @param reviewID
+	 * @param update
+	 * @param values : the values of the <i>$set</i>
+	 * @param partial : true when the null values are not in the <i>$set</i>
+	 * @param updateDate
+	 * @return mono of the previous and of the updated {@link ReviewEntity}, empty when the reviewID doesn't exist
+	 */
+	private Mono<Tuple2<ReviewEntity, ReviewEntity>> modify(Integer reviewID, Update update, ReviewEntity values, boolean partial, LocalDateTime updateDate) {
+		
+		return operations.findAndModify(Query.query(where("reviewID").is(reviewID)), update, 
+				FindAndModifyOptions.options().returnNew(false), ReviewEntity.class).
+				map(previous -> Tuples.of(previous, applied(previous, values, partial, updateDate)));
+	}
+	
+	/**
+	 * @param previous : the review before the <i>findAndModify</i>
+	 * @param values
+	 * @param partial
+	 * @param updateDate
+	 * @return the {@link ReviewEntity} such as written by the <i>findAndModify</i>
+	 */
+	private static ReviewEntity applied(ReviewEntity previous, ReviewEntity values, boolean partial, LocalDateTime updateDate) {
+		
+		ReviewEntity updated = new ReviewEntity();
+		updated.setId(previous.getId());
+		updated.setReviewID(previous.getReviewID());
+		updated.setAuthor(partial && values.getAuthor() == null ? previous.getAuthor() : values.getAuthor());
+		updated.setContent(partial && values.getContent() == null ? previous.getContent() : values.getContent());
+		updated.setProductID(partial && values.getProductID() == null ? previous.getProductID() : values.getProductID());
+		updated.setSubject(partial && values.getSubject() == null ? previous.getSubject() : values.getSubject());
+		updated.setVersion(previous.getVersion() != null ? previous.getVersion() + 1 : 1);
+		updated.setCreationDate(previous.getCreationDate());
+		updated.setUpdateDate(updateDate);
+		return updated;
+	}
+}
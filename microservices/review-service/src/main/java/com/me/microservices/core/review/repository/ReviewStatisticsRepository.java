@@ -0,0 +1,18 @@
+package com.me.microservices.core.review.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.me.microservices.core.review.bo.ReviewStatisticsEntity;
+
+import reactor.core.publisher.Mono;
+
+public interface ReviewStatisticsRepository extends ReactiveMongoRepository<ReviewStatisticsEntity, Integer>, ReviewStatisticsRepositoryCustom {
+	
+	/**
+	 * @param productIDs
+	 * @return mono of the number of deleted {@link ReviewStatisticsEntity}
+	 */
+	public Mono<Long> deleteByProductIDIn(Collection<Integer> productIDs);
+}
@@ -0,0 +1,28 @@
+package com.me.microservices.core.review.repository;
+
+import com.me.microservices.core.review.bo.ReviewStatisticsEntity;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes of the statistics : an increment by write of reviews, or a full recount.
+ * @author rudysaniez @since 0.0.1
+ */
+public interface ReviewStatisticsRepositoryCustom {
+	
+	/**
+	 * Upsert with <i>$inc</i> on the count : the statistics of a product are created by its first review.
+	 * @param productID
+	 * @param count : number of reviews added, negative when reviews are removed
+	 * @return mono of the updated {@link ReviewStatisticsEntity}
+	 */
+	public Mono<ReviewStatisticsEntity> increment(Integer productID, long count);
+	
+	/**
+	 * Recount of the reviews of the product with a <i>$group</i>, the result replaces the count : repeating it is harmless.
+	 * A review written while the recount runs may be missed until the next recount.
+	 * @param productID
+	 * @return mono of the recounted {@link ReviewStatisticsEntity}, empty when the product has no review and its statistics are removed
+	 */
+	public Mono<ReviewStatisticsEntity> rebuild(Integer productID);
+}
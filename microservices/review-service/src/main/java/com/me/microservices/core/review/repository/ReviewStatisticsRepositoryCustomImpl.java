@@ -0,0 +1,69 @@
+package com.me.microservices.core.review.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.time.LocalDateTime;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.me.microservices.core.review.bo.ReviewEntity;
+import com.me.microservices.core.review.bo.ReviewStatisticsEntity;
+
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * @author rudysaniez @since 0.0.1
+ */
+public class ReviewStatisticsRepositoryCustomImpl implements ReviewStatisticsRepositoryCustom {
+	
+	private final ReactiveMongoOperations operations;
+	
+	public ReviewStatisticsRepositoryCustomImpl(ReactiveMongoOperations operations) {
+		this.operations = operations;
+	}
+	
+	/**
+	 * When two first reviews of a product are saved at the same time, one upsert fails on the id : it's retried once as an update.
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ReviewStatisticsEntity> increment(Integer productID, long count) {
+		
+		Update update = new Update().
+				inc("count", count).
+				set("lastUpdate", LocalDateTime.now());
+		
+		return Mono.defer(() -> operations.findAndModify(Query.query(where("productID").is(productID)), update, 
+					FindAndModifyOptions.options().upsert(true).returnNew(true), ReviewStatisticsEntity.class)).
+				retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ReviewStatisticsEntity> rebuild(Integer productID) {
+		
+		Query query = Query.query(where("productID").is(productID));
+		
+		Aggregation count = Aggregation.newAggregation(
+				Aggregation.match(where("productID").is(productID)),
+				Aggregation.group("productID").count().as("count"));
+		
+		return operations.aggregate(count, ReviewEntity.class, Document.class).
+				next().
+				flatMap(total -> Mono.defer(() -> operations.findAndModify(query, new Update().
+							set("count", ((Number)total.get("count")).longValue()).
+							set("lastUpdate", LocalDateTime.now()), 
+						FindAndModifyOptions.options().upsert(true).returnNew(true), ReviewStatisticsEntity.class)).
+					retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance))).
+				switchIfEmpty(operations.remove(query, ReviewStatisticsEntity.class).then(Mono.empty()));
+	}
+}
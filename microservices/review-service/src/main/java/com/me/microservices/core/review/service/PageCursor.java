@@ -0,0 +1,44 @@
+package com.me.microservices.core.review.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.me.handler.exception.InvalidInputException;
+
+/**
+ * Opaque continuation token of the keyset pagination, it wraps the last reviewID of a page.
+ * @author rudysaniez @since 0.0.1
+ */
+public final class PageCursor {
+	
+	private static final String PREFIX = "reviewID:";
+	
+	private PageCursor() {}
+	
+	/**
+	 * @param reviewID : the last reviewID of the page
+	 * @return the cursor of the next page
+	 */
+	public static String encode(Integer reviewID) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + reviewID).getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * @param cursor
+	 * @return the last reviewID of the previous page
+	 * @throws InvalidInputException when the cursor hasn't been built by {@link #encode(Integer)}
+	 */
+	public static Integer decode(String cursor) {
+		
+		try {
+			
+			String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			if(!value.startsWith(PREFIX)) throw new IllegalArgumentException(value);
+			
+			return Integer.valueOf(value.substring(PREFIX.length()));
+		}
+		catch(IllegalArgumentException e) {
+			throw new InvalidInputException(String.format("The cursor %s is invalid.", cursor));
+		}
+	}
+}
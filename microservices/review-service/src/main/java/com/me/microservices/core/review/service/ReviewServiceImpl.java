@@ -1,7 +1,14 @@
 package com.me.microservices.core.review.service;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.mapstruct.factory.Mappers;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -14,17 +21,25 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
 
+import com.me.api.trace.ReactiveTracer;
 import com.me.handler.exception.InvalidInputException;
 import com.me.handler.exception.NotFoundException;
+import com.me.microservices.core.review.Application.BatchInformation;
+import com.me.microservices.core.review.Application.ExportInformation;
 import com.me.microservices.core.review.Application.PaginationInformation;
 import com.me.microservices.core.review.api.ReviewsApi;
 import com.me.microservices.core.review.api.model.PageMetadata;
 import com.me.microservices.core.review.api.model.PagedReview;
 import com.me.microservices.core.review.api.model.Review;
+import com.me.microservices.core.review.api.model.ReviewPatch;
+import com.me.microservices.core.review.api.model.ReviewBatchResult;
+import com.me.microservices.core.review.api.model.ReviewBatchResult.StatusEnum;
+import com.me.microservices.core.review.api.model.ReviewStatistics;
 import com.me.microservices.core.review.bo.ReviewEntity;
 import com.me.microservices.core.review.mapper.ReviewMapper;
 import com.me.microservices.core.review.repository.ReviewRepository;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -33,11 +48,20 @@ public class ReviewServiceImpl implements ReviewsApi {
 	private final ReviewRepository reviewRepository;
 	private final ReviewMapper mapper = Mappers.getMapper(ReviewMapper.class);
 	private final PaginationInformation pagination;
+	private final BatchInformation batch;
+	private final ExportInformation export;
+	private final ReactiveTracer tracer;
+	private final ReviewStatisticsService statistics;
 	
-	public ReviewServiceImpl(ReviewRepository reviewRepository, PaginationInformation pagination) {
+	public ReviewServiceImpl(ReviewRepository reviewRepository, PaginationInformation pagination, BatchInformation batch, ExportInformation export,
+			ReactiveTracer tracer, ReviewStatisticsService statistics) {
 		
 		this.reviewRepository = reviewRepository;
+		this.statistics = statistics;
 		this.pagination = pagination;
+		this.batch = batch;
+		this.export = export;
+		this.tracer = tracer;
 	}
 	
 	/**
@@ -51,42 +75,124 @@ public class ReviewServiceImpl implements ReviewsApi {
 		return reviewRepository.findByReviewID(reviewID).
 			switchIfEmpty(Mono.error(new NotFoundException(String.format("Review with reviewID=%d doesn't not exists.", reviewID)))).
 			map(mapper::toModel).map(r -> ResponseEntity.ok(r)).
-			log();
+			transform(tracer.mono("getReview", "reviewId", reviewID));
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Mono<ResponseEntity<PagedReview>> getReviewByProductId(Integer productID, Integer pageNumber, Integer pageSize, ServerWebExchange exchange) {
+	public Mono<ResponseEntity<PagedReview>> getReviewByProductId(Integer productID, Integer pageNumber, Integer pageSize, Boolean withTotal, String cursor, ServerWebExchange exchange) {
 		
 		if(productID < 1) throw new InvalidInputException("ProductId should be greater than 0.");
 		if(pageNumber == null || pageNumber < 0) pageNumber = pagination.getDefaultPageNumber();
 		if(pageSize == null || pageSize < 1) pageSize = pagination.getDefaultPageSize();
 		
-		Pageable page = PageRequest.of(pageNumber, pageSize, Sort.by(Direction.ASC, "reviewID"));
-		Integer pSize = pageSize;
+		/**
+		 * With a cursor, the page starts after the last reviewID of the previous page : no skip, no count.
+		 */
+		Integer afterReviewID = cursor != null ? PageCursor.decode(cursor) : null;
+		Pageable page = PageRequest.of(cursor != null ? 0 : pageNumber, pageSize, Sort.by(Direction.ASC, "reviewID"));
 		
-		return reviewRepository.countByProductID(productID).
-				log().
-				flatMap(count -> reviewRepository.findByProductID(productID, page).
-						map(mapper::toModel).
-						collectList().
-						map(list -> {
-							
-							PagedReview pageRecommendation = new PagedReview();
-							pageRecommendation.setContent(list);
-							
-							PageMetadata pageMetadata = new PageMetadata();
-							pageMetadata.setTotalElements(count);
-							pageMetadata.setSize(Integer.toUnsignedLong(page.getPageSize()));
-							pageMetadata.setNumber(Integer.toUnsignedLong(page.getPageNumber()));
-							pageMetadata.setTotalPages(count < pSize ? 1 : count % pSize == 0 ? count/pSize : ((count/pSize) + 1));
-							pageRecommendation.setPage(pageMetadata);
+		if(cursor != null || Boolean.FALSE.equals(withTotal)) {
+			
+			return reviewRepository.findSliceByProductID(productID, afterReviewID, page).
+					map(mapper::toModel).
+					collectList().
+					map(list -> {
+						
+						boolean hasNext = list.size() > page.getPageSize();
+						List<Review> content = hasNext ? list.subList(0, page.getPageSize()) : list;
+						
+						PagedReview pageReview = new PagedReview();
+						pageReview.setContent(content);
+						pageReview.setPage(pageMetadata(page, null, content, hasNext));
+						if(cursor != null) pageReview.getPage().setNumber(null);
+						
+						return ResponseEntity.ok(pageReview);
+					}).
+					transform(tracer.mono("getReviewByProductId", "productId", productID));
+		}
+		
+		return Mono.zip(reviewRepository.countByProductID(productID),
+				reviewRepository.findByProductID(productID, page).
+					map(mapper::toModel).
+					collectList()).
+				map(tuple -> {
+					
+					Long count = tuple.getT1();
+					
+					PagedReview pageReview = new PagedReview();
+					pageReview.setContent(tuple.getT2());
+					pageReview.setPage(pageMetadata(page, count, tuple.getT2(), (page.getOffset() + page.getPageSize()) < count));
+					
+					return ResponseEntity.ok(pageReview);
+				}).
+				transform(tracer.mono("getReviewByProductId", "productId", productID));
+	}
 	
-							return ResponseEntity.ok(pageRecommendation);
-						})
-				).log();
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<Review>>> getReviewsByProductIds(Flux<Integer> productIds, Integer pageSize, ServerWebExchange exchange) {
+		
+		int size = pageSize == null || pageSize < 1 ? pagination.getDefaultPageSize() : pageSize;
+		
+		return productIds.collect(Collectors.toCollection(LinkedHashSet<Integer>::new)).
+				map(ids -> {
+					
+					if(ids.isEmpty()) throw new InvalidInputException("ProductIds should not be empty.");
+					if(ids.size() > batch.getMaxKeys()) throw new InvalidInputException(String.format("ProductIds should not contain more than %d productIDs.", batch.getMaxKeys()));
+					if(ids.stream().anyMatch(id -> id == null || id < 1)) throw new InvalidInputException("ProductId should be greater than 0.");
+					
+					/**
+					 * One limited query by product, on the (productID, reviewID) index, in the order of the productIDs : the server reads at most <i>size</i> reviews by product.
+					 * The composite requests one more review than its page, the extra one tells it that a next page exists.
+					 */
+					Pageable page = PageRequest.of(0, size, Sort.by(Direction.ASC, "reviewID"));
+					
+					Flux<Review> reviews = Flux.fromIterable(ids).
+							sort().
+							flatMapSequential(id -> reviewRepository.findByProductID(id, page), batch.getReadConcurrency()).
+							map(mapper::toModel).
+							transform(tracer.flux("getReviewsByProductIds"));
+					
+					return ResponseEntity.ok(reviews);
+		});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<Review>>> exportReviews(Integer productID, ServerWebExchange exchange) {
+		
+		if(productID < 1) throw new InvalidInputException("ProductId should be greater than 0.");
+		
+		/**
+		 * The response requests the reviews by batch : one batch requested, one batch read from the cursor.
+		 */
+		Flux<Review> reviews = reviewRepository.streamByProductID(productID, export.getBatchSize()).
+				limitRate(export.getBatchSize()).
+				map(mapper::toModel).
+				transform(tracer.flux("exportReviews", "productId", productID));
+		
+		return Mono.just(ResponseEntity.ok(reviews));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<ReviewStatistics>> getReviewStatistics(Integer productID, ServerWebExchange exchange) {
+		
+		if(productID < 1) throw new InvalidInputException("ProductID should be greater than 0.");
+		
+		return statistics.get(productID).
+				map(mapper::toModel).
+				map(s -> ResponseEntity.ok(s)).
+				transform(tracer.mono("getReviewStatistics", "productId", productID));
 	}
 	
 	/**
@@ -106,9 +212,149 @@ public class ReviewServiceImpl implements ReviewsApi {
 		}).
 		flatMap(re -> reviewRepository.save(re).
 				onErrorMap(DataIntegrityViolationException.class, e -> new InvalidInputException(String.format("Duplicate key : check the reviewID (%d).", re.getReviewID())))).
+		flatMap(re -> statistics.created(Collections.singletonList(re)).thenReturn(re)).
 		map(mapper::toModel).
 		map(r -> ResponseEntity.status(HttpStatus.CREATED).body(r)).
-		log();
+		transform(tracer.mono("save"));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Flux<ReviewBatchResult>>> saveAll(Flux<Review> reviews, ServerWebExchange exchange) {
+		
+		Flux<ReviewBatchResult> results = reviews.
+				buffer(batch.getChunkSize()).
+				concatMap(chunk -> saveChunk(chunk).
+						collectList().
+						flatMapMany(chunkResults -> statistics.created(createdOf(chunkResults)).thenMany(Flux.fromIterable(chunkResults)))).
+				transform(tracer.flux("saveAll"));
+		
+		return Mono.just(ResponseEntity.ok(results));
+	}
+	
+	/**
+	 * @param results
+	 * @return the reviews created by a chunk, the results of a chunk update the statistics together
+	 */
+	private List<ReviewEntity> createdOf(List<ReviewBatchResult> results) {
+		
+		return results.stream().
+				filter(result -> StatusEnum.CREATED.equals(result.getStatus())).
+				map(result -> mapper.toEntity(result.getReview())).
+				collect(Collectors.toList());
+	}
+	
+	/**
+	 * One query to find the reviews already saved, then one insert for the others.
+	 * @param chunk
+	 * @return flux of {@link ReviewBatchResult}
+	 */
+	private Flux<ReviewBatchResult> saveChunk(List<Review> chunk) {
+		
+		List<ReviewBatchResult> rejected = new ArrayList<>();
+		Map<Integer, Review> candidates = new LinkedHashMap<>();
+		
+		for(Review r : chunk) {
+			
+			if(r.getReviewID() == null || r.getReviewID() < 1) 
+				rejected.add(rejected(r, "ReviewID should be greater than 0."));
+			else if(r.getProductID() == null || r.getProductID() < 1) 
+				rejected.add(rejected(r, "ProductID in Review should be greater than 0."));
+			else if(candidates.putIfAbsent(r.getReviewID(), r) != null) 
+				rejected.add(rejected(r, String.format("Duplicate key : the reviewID (%d) is present several times in the batch.", r.getReviewID())));
+		}
+		
+		if(candidates.isEmpty()) return Flux.fromIterable(rejected);
+		
+		return reviewRepository.findByReviewIDIn(candidates.keySet()).
+				map(ReviewEntity::getReviewID).
+				collectList().
+				flatMapMany(existing -> {
+					
+					List<ReviewBatchResult> results = new ArrayList<>(rejected);
+					Map<Integer, Review> toInsert = new LinkedHashMap<>(candidates);
+					
+					existing.forEach(id -> results.add(rejected(toInsert.remove(id), String.format("Duplicate key : check the reviewID (%d).", id))));
+					return Flux.concat(Flux.fromIterable(results), insert(new ArrayList<>(toInsert.values())));
+				});
+	}
+	
+	/**
+	 * Bulk insert. When a review has been created concurrently the bulk insert fails, 
+	 * the reviews are inserted one by one to know which one is rejected.
+	 * @param reviews
+	 * @return flux of {@link ReviewBatchResult}
+	 */
+	private Flux<ReviewBatchResult> insert(List<Review> reviews) {
+		
+		if(reviews.isEmpty()) return Flux.empty();
+		
+		LocalDateTime creationDate = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		
+		return reviewRepository.saveAll(reviews.stream().map(r -> toNewEntity(r, creationDate)).collect(Collectors.toList())).
+				map(mapper::toModel).
+				map(ReviewServiceImpl::created).
+				onErrorResume(DataIntegrityViolationException.class, e -> Flux.fromIterable(reviews).
+						concatMap(r -> insertOne(r, creationDate)));
+	}
+	
+	/**
+	 * @param review
+	 * @param creationDate : creation date of the failed bulk insert
+	 * @return mono of {@link ReviewBatchResult}
+	 */
+	private Mono<ReviewBatchResult> insertOne(Review review, LocalDateTime creationDate) {
+		
+		return reviewRepository.save(toNewEntity(review, creationDate)).
+				map(mapper::toModel).
+				map(ReviewServiceImpl::created).
+				onErrorResume(DataIntegrityViolationException.class, e -> reviewRepository.findByReviewID(review.getReviewID()).
+						filter(re -> creationDate.equals(re.getCreationDate())).
+						map(mapper::toModel).
+						map(ReviewServiceImpl::created).
+						defaultIfEmpty(rejected(review, String.format("Duplicate key : check the reviewID (%d).", review.getReviewID()))));
+	}
+	
+	/**
+	 * @param review
+	 * @param creationDate
+	 * @return {@link ReviewEntity}
+	 */
+	private ReviewEntity toNewEntity(Review review, LocalDateTime creationDate) {
+		
+		ReviewEntity re = mapper.toEntity(review);
+		re.setCreationDate(creationDate);
+		return re;
+	}
+	
+	/**
+	 * @param review
+	 * @return {@link ReviewBatchResult}
+	 */
+	private static ReviewBatchResult created(Review review) {
+		
+		ReviewBatchResult result = new ReviewBatchResult();
+		result.setReviewID(review.getReviewID());
+		result.setStatus(StatusEnum.CREATED);
+		result.setReview(review);
+		return result;
+	}
+	
+	/**
+	 * @param review
+	 * @param message
+	 * @return {@link ReviewBatchResult}
+	 */
+	private static ReviewBatchResult rejected(Review review, String message) {
+		
+		ReviewBatchResult result = new ReviewBatchResult();
+		result.setReviewID(review.getReviewID());
+		result.setStatus(StatusEnum.REJECTED);
+		result.setMessage(message);
+		result.setReview(review);
+		return result;
 	}
 
 	/**
@@ -119,38 +365,44 @@ public class ReviewServiceImpl implements ReviewsApi {
 		
 		if(reviewID < 1) throw new InvalidInputException("ReviewID should be greater than 0.");
 		
-		Mono<ReviewEntity> modelToEntity = review.map(r -> {
+		return review.map(r -> {
 			
 			if(r.getProductID() < 1) throw new InvalidInputException("ProductID in Review should be greater than 0.");
 			return r;
-		}).map(mapper::toEntity);
-		
-		return reviewRepository.findByReviewID(reviewID).
-			switchIfEmpty(Mono.error(new NotFoundException(String.format("Review with reviewID=%d doesn't not exists.", reviewID)))).
-			transform(m -> m.concatWith(modelToEntity).collectList().
-					map(list -> {
-						
-						Optional<ReviewEntity> reviewInDatabase = list.stream().filter(re -> re.getId() != null).findFirst();
-						Optional<ReviewEntity> reviewModel = list.stream().filter(re -> re.getId() == null).findFirst();
-						
-						if(reviewInDatabase.isPresent() && reviewModel.isPresent()) {
-							
-							reviewInDatabase.get().setAuthor(reviewModel.get().getAuthor());
-							reviewInDatabase.get().setContent(reviewModel.get().getContent());
-							reviewInDatabase.get().setProductID(reviewModel.get().getProductID());
-							reviewInDatabase.get().setSubject(reviewModel.get().getSubject());
-							reviewInDatabase.get().setUpdateDate(LocalDateTime.now());
-						}
-						
-						return reviewInDatabase.get();
-					})
-			).
-			flatMap(re -> reviewRepository.save(re).
-					onErrorMap(DataIntegrityViolationException.class, e -> new InvalidInputException(String.format("Duplicate key : check the reviewID (%d).", re.getReviewID())))
+			}).
+			map(mapper::toEntity).
+			flatMap(re -> reviewRepository.updateByReviewID(reviewID, re).
+					onErrorMap(DataIntegrityViolationException.class, e -> new InvalidInputException(String.format("Duplicate key : check the reviewID (%d).", reviewID)))
 			).
+			flatMap(change -> statistics.updated(change.getT1(), change.getT2()).thenReturn(change.getT2())).
+			switchIfEmpty(Mono.error(() -> new NotFoundException(String.format("Review with reviewID=%d doesn't not exists.", reviewID)))).
+			map(mapper::toModel).
+			map(r -> ResponseEntity.ok(r)).
+			transform(tracer.mono("update", "reviewId", reviewID));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Mono<ResponseEntity<Review>> patchReview(Integer reviewID, Mono<ReviewPatch> reviewPatch, ServerWebExchange exchange) {
+		
+		if(reviewID < 1) throw new InvalidInputException("ReviewID should be greater than 0.");
+		
+		return reviewPatch.map(r -> {
+			
+				if(r.getAuthor() == null && r.getContent() == null && r.getProductID() == null && r.getSubject() == null) 
+					throw new InvalidInputException("The patch of the review should have at least one member.");
+				if(r.getProductID() != null && r.getProductID() < 1) throw new InvalidInputException("ProductID in Review should be greater than 0.");
+				return r;
+			}).
+			map(mapper::toEntity).
+			flatMap(re -> reviewRepository.patchByReviewID(reviewID, re)).
+			flatMap(change -> statistics.updated(change.getT1(), change.getT2()).thenReturn(change.getT2())).
+			switchIfEmpty(Mono.error(() -> new NotFoundException(String.format("Review with reviewID=%d doesn't not exists.", reviewID)))).
 			map(mapper::toModel).
 			map(r -> ResponseEntity.ok(r)).
-			log();
+			transform(tracer.mono("patchReview", "reviewId", reviewID));
 	}
 
 	/**
@@ -162,7 +414,35 @@ public class ReviewServiceImpl implements ReviewsApi {
 		if(productID < 1) throw new InvalidInputException("ProductID should be greater than 0.");
 		
 		return reviewRepository.deleteByProductID(productID).
+				 then(statistics.deleted(Collections.singleton(productID))).
 				 map(v -> ResponseEntity.ok(v)).
-				 log();
+				 transform(tracer.mono("deleteReviews", "productId", productID));
+	}
+	
+	/**
+	 * @param page
+	 * @param count : total of elements, null when the count query has been skipped
+	 * @param content
+	 * @param hasNext
+	 * @return {@link PageMetadata} with the cursor of the next page
+	 */
+	private static PageMetadata pageMetadata(Pageable page, Long count, List<Review> content, boolean hasNext) {
+		
+		PageMetadata pageMetadata = new PageMetadata();
+		pageMetadata.setSize(Integer.toUnsignedLong(page.getPageSize()));
+		pageMetadata.setNumber(Integer.toUnsignedLong(page.getPageNumber()));
+		pageMetadata.setHasNext(hasNext);
+		
+		if(hasNext && !content.isEmpty()) 
+			pageMetadata.setNextCursor(PageCursor.encode(content.get(content.size() - 1).getReviewID()));
+		
+		if(count != null) {
+			
+			long pSize = page.getPageSize();
+			pageMetadata.setTotalElements(count);
+			pageMetadata.setTotalPages(count < pSize ? 1 : count % pSize == 0 ? count/pSize : ((count/pSize) + 1));
+		}
+		
+		return pageMetadata;
 	}
 }
@@ -0,0 +1,127 @@
+package com.me.microservices.core.review.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+
+import com.me.microservices.core.review.bo.ReviewEntity;
+import com.me.microservices.core.review.bo.ReviewStatisticsEntity;
+import com.me.microservices.core.review.repository.ReviewStatisticsRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the number of reviews of each product up to date : the writes of reviews increment or decrement the count of their product,
+ * the deletion of the reviews of a product deletes its statistics. The count isn't computed from the reviews on each read.
+ * The increment is a separate write, done after the reviews without a transaction (a standalone database has none) : the count can drift.
+ * A failed increment triggers a recount of the products. A failed recount is logged and counted in <i>statistics.rebuild.failures</i>, 
+ * the write of the reviews isn't failed for it. If the service stops between both writes, only a later recount repairs the count.
+ * @author rudysaniez @since 0.0.1
+ */
+@Slf4j
+@Service
+public class ReviewStatisticsService {
+	
+	private final ReviewStatisticsRepository repository;
+	private final Counter rebuilds;
+	private final Counter rebuildFailures;
+	
+	public ReviewStatisticsService(ReviewStatisticsRepository repository, MeterRegistry registry) {
+		
+		this.repository = repository;
+		this.rebuilds = Counter.builder("statistics.rebuilds").register(registry);
+		this.rebuildFailures = Counter.builder("statistics.rebuild.failures").register(registry);
+	}
+	
+	/**
+	 * @param productID
+	 * @return mono of {@link ReviewStatisticsEntity}, a count of 0 when the product has no review
+	 */
+	public Mono<ReviewStatisticsEntity> get(Integer productID) {
+		
+		return repository.findById(productID).
+				defaultIfEmpty(new ReviewStatisticsEntity(productID));
+	}
+	
+	/**
+	 * @param reviews : the created reviews, counted with one increment by product
+	 * @return mono of {@link Void}
+	 */
+	public Mono<Void> created(Collection<ReviewEntity> reviews) {
+		
+		Map<Integer, Long> counts = new TreeMap<>();
+		reviews.forEach(re -> counts.merge(re.getProductID(), 1L, Long::sum));
+		
+		return Flux.fromIterable(counts.entrySet()).
+				concatMap(e -> repository.increment(e.getKey(), e.getValue())).
+				then().
+				transform(increment -> recountOnError(increment, counts.keySet()));
+	}
+	
+	/**
+	 * Only a review moved to another product changes the counts.
+	 * @param previous
+	 * @param updated
+	 * @return mono of {@link Void}
+	 */
+	public Mono<Void> updated(ReviewEntity previous, ReviewEntity updated) {
+		
+		if(Objects.equals(previous.getProductID(), updated.getProductID())) return Mono.empty();
+		
+		return repository.increment(previous.getProductID(), -1).
+				then(repository.increment(updated.getProductID(), 1)).
+				then().
+				transform(increment -> recountOnError(increment, Arrays.asList(previous.getProductID(), updated.getProductID())));
+	}
+	
+	/**
+	 * @param productIDs : products whose reviews have all been deleted
+	 * @return mono of {@link Void}
+	 */
+	public Mono<Void> deleted(Collection<Integer> productIDs) {
+		
+		return repository.deleteByProductIDIn(productIDs).then().
+				transform(deletion -> recountOnError(deletion, productIDs));
+	}
+	
+	/**
+	 * @param productIDs
+	 * @return mono of {@link Void}, completed when the reviews of the products have been counted again
+	 */
+	public Mono<Void> rebuild(Collection<Integer> productIDs) {
+		
+		return Flux.fromIterable(productIDs).
+				concatMap(repository::rebuild).
+				then();
+	}
+	
+	/**
+	 * @param write : the writes of the counts
+	 * @param productIDs : the products whose counts are written
+	 * @return mono of {@link Void}, never in error : a count which can't be recounted is only reported
+	 */
+	private Mono<Void> recountOnError(Mono<Void> write, Collection<Integer> productIDs) {
+		
+		return write.onErrorResume(e -> {
+			
+			log.warn(" > The review counts of the products {} can't be written, they are recounted : {}", productIDs, e.toString());
+			rebuilds.increment();
+			
+			return rebuild(productIDs).
+					onErrorResume(re -> {
+						
+						rebuildFailures.increment();
+						log.error(" > The review counts of the products {} can't be recounted.", productIDs, re);
+						return Mono.empty();
+					});
+		});
+	}
+}
@@ -4,8 +4,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.bson.Document;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -14,8 +18,10 @@ import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.me.microservices.core.review.Application;
 import com.me.microservices.core.review.bo.ReviewEntity;
 import com.me.microservices.core.review.repository.ReviewRepository;
 import com.me.microservices.core.review.service.AsciiArtService;
@@ -26,6 +32,8 @@ public class ReviewEntityTest {
 
 	@Autowired ReviewRepository reviewRepository;
 	@Autowired AsciiArtService artService;
+	@Autowired Application application;
+	@Autowired ReactiveMongoOperations mongoTemplate;
 	ReviewEntity savedReview;
 	
 	private static final Integer REVIEW_ID = 999;
@@ -41,6 +49,7 @@ public class ReviewEntityTest {
 		
 		artService.display("SETUP");
 		
+		application.indices().block();
 		reviewRepository.deleteAll().block();
 		
 		ReviewEntity reviewEntity = new ReviewEntity(null, REVIEW_ID, PRODUCT_ID, AUTHOR, SUBJECT, CONTENT);
@@ -107,6 +116,41 @@ public class ReviewEntityTest {
 		reviewRepository.save(entity).block();
 	}
 	
+	@Test
+	public void findByProductIDUsesTheProductIndex() {
+		
+		/**
+		 * Reviews of another product : an index on reviewID alone would scan them.
+		 */
+		reviewRepository.saveAll(IntStream.rangeClosed(1, 50).mapToObj(i -> new ReviewEntity(null, i, PRODUCT_ID + 1, AUTHOR, SUBJECT, CONTENT)).collect(Collectors.toList())).blockLast();
+		
+		Document explain = mongoTemplate.executeCommand(new Document("explain", new Document("find", "reviews").
+				append("filter", new Document("productID", PRODUCT_ID)).
+				append("sort", new Document("reviewID", 1))).
+				append("verbosity", "queryPlanner")).block();
+		
+		Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+		
+		assertThat(stages(winningPlan)).contains("IXSCAN").doesNotContain("SORT", "COLLSCAN");
+		assertThat(winningPlan.toJson()).contains("review_product_IDX");
+	}
+	
+	/**
+	 * @param plan
+	 * @return the stages of the plan, from the root to the leaves
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<String> stages(Document plan) {
+		
+		List<String> stages = new ArrayList<>();
+		stages.add(plan.getString("stage"));
+		
+		if(plan.containsKey("inputStage")) stages.addAll(stages(plan.get("inputStage", Document.class)));
+		if(plan.containsKey("inputStages")) ((List<Document>)plan.get("inputStages")).forEach(d -> stages.addAll(stages(d)));
+		
+		return stages;
+	}
+	
 	/**
 	 * @param expectedReview
 	 * @param actualReview
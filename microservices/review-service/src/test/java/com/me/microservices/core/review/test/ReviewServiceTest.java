@@ -1,5 +1,13 @@
 package com.me.microservices.core.review.test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.junit.Before;
@@ -7,12 +15,13 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.system.OutputCaptureRule;
-import org.springframework.cloud.stream.messaging.Sink;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -22,12 +31,29 @@ import org.springframework.util.MultiValueMap;
 
 import com.me.api.Api;
 import com.me.api.event.Event;
+import com.me.api.metrics.OperationTagsContributor;
+import com.me.api.metrics.RepositoryMetricsInterceptor;
+import com.me.api.trace.InMemorySpanExporter;
+import com.me.api.trace.Span;
+import com.me.api.trace.SpanExporter;
+import com.me.api.trace.TraceContext;
+import com.me.microservices.core.review.Application;
+import com.me.microservices.core.review.api.model.PagedReview;
 import com.me.microservices.core.review.api.model.Review;
+import com.me.microservices.core.review.api.model.ReviewBatchResult;
+import com.me.microservices.core.review.api.model.ReviewBatchResult.StatusEnum;
+import com.me.microservices.core.review.consumer.ReviewConsumer;
 import com.me.microservices.core.review.repository.ReviewRepository;
+import com.me.microservices.core.review.repository.ReviewStatisticsRepository;
 import com.me.microservices.core.review.service.AsciiArtService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 @Slf4j
 @RunWith(SpringRunner.class)
@@ -36,10 +62,18 @@ public class ReviewServiceTest {
 
 	@Autowired WebTestClient client;
 	@Autowired ReviewRepository reviewRepository;
+	@Autowired Application application;
+	@Autowired ReviewStatisticsRepository statisticsRepository;
 	@Autowired AsciiArtService asciiArt;
 	
+	@Autowired @Qualifier(ReviewConsumer.BINDING_NAME)
+	private MessageChannel input;
+	
+	@Autowired
+	private MeterRegistry registry;
+	
 	@Autowired
-	private Sink channel;
+	private SpanExporter spanExporter;
 	
 	@Rule
 	public OutputCaptureRule output = new OutputCaptureRule();
@@ -54,6 +88,7 @@ public class ReviewServiceTest {
 	
 	private static final Integer PRODUCT_ID = 1;
 	private static final Integer PRODUCT_ID_PART_1 = 1;
+	private static final Integer PRODUCT_ID_PART_2 = 2;
 	
 	private static final String SUBJECT = "Washing machine";
 	private static final String CONTENT = "Good product. The installation is simply.";
@@ -64,7 +99,9 @@ public class ReviewServiceTest {
 		
 		asciiArt.display("SETUP");
 		
+		application.indices().block();
 		reviewRepository.deleteAll().log().block();
+		statisticsRepository.deleteAll().block();
 		
 		Review model = new Review().reviewID(REVIEW_ID).author(AUTHOR).
 				content(CONTENT).productID(PRODUCT_ID).subject(SUBJECT);
@@ -81,6 +118,73 @@ public class ReviewServiceTest {
 			jsonPath("$.content").isEqualTo(CONTENT);
 	}
 	
+	@Test(timeout=5000)
+	public void getReviewIsTimed() throws InterruptedException {
+		
+		asciiArt.display("GET REVIEW METRICS");
+		
+		getAndVerifyStatus(REVIEW_ID, HttpStatus.OK);
+		
+		/**
+		 * The server timer is recorded when the response is completed, a bit after the client has read it.
+		 */
+		Timer operation = null;
+		while((operation = registry.find("http.server.requests").tag(OperationTagsContributor.OPERATION_TAG, "getReview").timer()) == null) Thread.sleep(10);
+		
+		assertTrue(operation.count() > 0);
+		
+		Timer query = registry.get(RepositoryMetricsInterceptor.METRIC_NAME).
+				tag("repository", "ReviewRepository").tag("method", "findByReviewID").tag("state", "SUCCESS").
+				timer();
+		
+		assertTrue(query.count() > 0);
+	}
+	
+	@Test(timeout=5000)
+	public void getReviewIsTraced() throws InterruptedException {
+		
+		asciiArt.display("GET REVIEW TRACE");
+		
+		TraceContext caller = TraceContext.root(true);
+		
+		client.get().uri(uri -> uri.pathSegment("api", "v1", Api.REVIEW_PATH, String.valueOf(REVIEW_ID)).build()).
+			header(TraceContext.TRACEPARENT, caller.traceparent()).
+			accept(MediaType.APPLICATION_JSON).exchange().
+			expectStatus().isOk().
+			expectHeader().valueMatches(TraceContext.TRACEPARENT, "00-" + caller.getTraceId() + "-[0-9a-f]{16}-01");
+		
+		/**
+		 * The server span ends when the response is completed.
+		 */
+		List<Span> spans;
+		while((spans = spans(caller.getTraceId())).stream().noneMatch(span -> Span.Kind.SERVER.equals(span.getKind()))) Thread.sleep(10);
+		
+		Span server = spans.stream().filter(span -> Span.Kind.SERVER.equals(span.getKind())).findFirst().get();
+		assertEquals(caller.getSpanId(), server.getParentSpanId());
+		assertEquals("getReview", server.getTags().get("operation"));
+		
+		Span query = spans.stream().filter(span -> "ReviewRepository.findByReviewID".equals(span.getName())).findFirst().get();
+		assertEquals(server.getContext().getSpanId(), query.getParentSpanId());
+	}
+	
+	@Test(timeout=10000)
+	public void deleteReviewEventIsTraced() throws InterruptedException {
+		
+		asciiArt.display("DELETE REVIEW EVENT TRACE");
+		
+		TraceContext producer = TraceContext.root(true);
+		
+		input.send(MessageBuilder.withPayload(new Event<>(PRODUCT_ID, Event.Type.DELETE)).
+				setHeader(TraceContext.TRACEPARENT, producer.traceparent()).
+				build());
+		
+		List<Span> spans;
+		while((spans = spans(producer.getTraceId())).isEmpty()) Thread.sleep(10);
+		
+		assertEquals(Span.Kind.CONSUMER, spans.get(0).getKind());
+		assertEquals(producer.getSpanId(), spans.get(0).getParentSpanId());
+	}
+	
 	@Test
 	public void getPagedReview() {
 		
@@ -110,7 +214,126 @@ public class ReviewServiceTest {
 		
 		getAndVerifyStatus(params, HttpStatus.OK).
 			jsonPath("$.content[0].author").isEqualTo(AUTHOR + "_11").
-			jsonPath("$.content[0].reviewID").isEqualTo(REVIEW_ID + 10);
+			jsonPath("$.content[0].reviewID").isEqualTo(REVIEW_ID + 10).
+			jsonPath("$.page.hasNext").isEqualTo(false);
+	}
+	
+	@Test
+	public void getPagedReviewWithoutTotal() {
+		
+		asciiArt.display("GET PAGED REVIEW WITHOUT TOTAL");
+		
+		IntStream.rangeClosed(REVIEW_ID_BEGIN_PART1, REVIEW_ID_END_PART1).
+			mapToObj(i ->  new Review().reviewID(i).productID(PRODUCT_ID_PART_1).author(AUTHOR + "_" + i).
+					subject(SUBJECT + "_" + i).content(CONTENT)).
+			forEach(model -> createAndVerifyStatus(model, HttpStatus.CREATED));
+		
+		MultiValueMap<String, String> params = new LinkedMultiValueMap<>(4);
+		params.add("productId", "1");
+		params.add("pageNumber", "2");
+		params.add("pageSize", "5");
+		params.add("withTotal", "false");
+		
+		getAndVerifyStatus(params, HttpStatus.OK).
+			jsonPath("$.content.length()").isEqualTo(5).
+			jsonPath("$.content[0].reviewID").isEqualTo(REVIEW_ID + 10).
+			jsonPath("$.page.hasNext").isEqualTo(false).
+			jsonPath("$.page.totalElements").doesNotExist();
+		
+		params.set("pageNumber", "1");
+		
+		getAndVerifyStatus(params, HttpStatus.OK).
+			jsonPath("$.content[0].reviewID").isEqualTo(REVIEW_ID + 5).
+			jsonPath("$.page.hasNext").isEqualTo(true);
+	}
+	
+	@Test
+	public void getPagedReviewWithCursor() {
+		
+		asciiArt.display("GET PAGED REVIEW WITH CURSOR");
+		
+		IntStream.rangeClosed(REVIEW_ID_BEGIN_PART1, REVIEW_ID_END_PART1).
+			mapToObj(i ->  new Review().reviewID(i).productID(PRODUCT_ID_PART_1).author(AUTHOR + "_" + i).
+					subject(SUBJECT + "_" + i).content(CONTENT)).
+			forEach(model -> createAndVerifyStatus(model, HttpStatus.CREATED));
+		
+		MultiValueMap<String, String> params = new LinkedMultiValueMap<>(3);
+		params.add("productId", "1");
+		params.add("pageSize", "10");
+		
+		PagedReview first = client.get().uri(uri -> uri.pathSegment("api", "v1", Api.REVIEW_PATH).queryParams(params).build()).
+				accept(MediaType.APPLICATION_JSON).exchange().
+				expectStatus().isOk().
+				expectBody(PagedReview.class).returnResult().getResponseBody();
+		
+		assertEquals(true, first.getPage().getHasNext());
+		assertNotNull(first.getPage().getNextCursor());
+		
+		params.add("cursor", first.getPage().getNextCursor());
+		
+		getAndVerifyStatus(params, HttpStatus.OK).
+			jsonPath("$.content.length()").isEqualTo(5).
+			jsonPath("$.content[0].reviewID").isEqualTo(REVIEW_ID + 10).
+			jsonPath("$.page.hasNext").isEqualTo(false).
+			jsonPath("$.page.nextCursor").doesNotExist();
+		
+		params.set("cursor", "not-a-cursor");
+		
+		getAndVerifyStatus(params, HttpStatus.UNPROCESSABLE_ENTITY);
+	}
+	
+	@Test
+	public void getReviewsByProductIds() {
+		
+		asciiArt.display("GET REVIEWS BY PRODUCT IDS");
+		
+		IntStream.rangeClosed(REVIEW_ID_BEGIN_PART1, REVIEW_ID_END_PART1).
+			mapToObj(i ->  new Review().reviewID(i).productID(i % 2 == 0 ? PRODUCT_ID_PART_1 : PRODUCT_ID_PART_2).author(AUTHOR + "_" + i).
+					subject(SUBJECT + "_" + i).content(CONTENT)).
+			forEach(model -> createAndVerifyStatus(model, HttpStatus.CREATED));
+		
+		Flux<Review> reviews = client.post().uri(uri -> uri.pathSegment("api", "v1", Api.REVIEW_PATH, Api.BATCH_GET_PATH).queryParam("pageSize", 2).build()).
+				contentType(MediaType.APPLICATION_JSON).bodyValue(Arrays.asList(PRODUCT_ID_PART_2, PRODUCT_ID_PART_1, PRODUCT_ID_PART_2)).
+				accept(MediaType.APPLICATION_STREAM_JSON).exchange().
+				expectStatus().isOk().
+				returnResult(Review.class).getResponseBody();
+		
+		StepVerifier.create(reviews.map(r -> r.getProductID() + "/" + r.getReviewID())).
+			expectNext(PRODUCT_ID_PART_1 + "/" + REVIEW_ID, PRODUCT_ID_PART_1 + "/" + REVIEW_ID_BEGIN_PART1).
+			expectNext(PRODUCT_ID_PART_2 + "/" + (REVIEW_ID_BEGIN_PART1 + 1), PRODUCT_ID_PART_2 + "/" + (REVIEW_ID_BEGIN_PART1 + 3)).
+			verifyComplete();
+		
+		client.post().uri(uri -> uri.pathSegment("api", "v1", Api.REVIEW_PATH, Api.BATCH_GET_PATH).build()).
+			contentType(MediaType.APPLICATION_JSON).bodyValue(Arrays.asList(PRODUCT_ID_PART_1, REVIEW_ID_INVALID_INPUT)).
+			accept(MediaType.APPLICATION_JSON).exchange().
+			expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY).
+			expectBody().jsonPath("$.message").isEqualTo("ProductId should be greater than 0.");
+	}
+	
+	@Test
+	public void exportReviews() {
+		
+		asciiArt.display("EXPORT REVIEWS");
+		
+		List<Review> reviews = IntStream.rangeClosed(REVIEW_ID_BEGIN_PART1, REVIEW_ID_END_PART1).
+			mapToObj(i ->  new Review().reviewID(i).productID(PRODUCT_ID_PART_1).author(AUTHOR + "_" + i).
+					subject(SUBJECT + "_" + i).content(CONTENT)).
+			collect(Collectors.toList());
+		
+		createInBulkAndVerifyStatus(reviews, MediaType.APPLICATION_JSON, HttpStatus.OK);
+		
+		for(MediaType mediaType : Arrays.asList(MediaType.APPLICATION_STREAM_JSON, MediaType.TEXT_EVENT_STREAM)) {
+			
+			Flux<Review> exported = client.get().uri(uri -> uri.pathSegment("api", "v1", Api.REVIEW_PATH, Api.EXPORT_PATH).queryParam("productId", PRODUCT_ID_PART_1).build()).
+					accept(mediaType).exchange().
+					expectStatus().isOk().
+					returnResult(Review.class).getResponseBody();
+			
+			StepVerifier.create(exported.map(Review::getReviewID)).
+				expectNext(REVIEW_ID).
+				expectNextSequence(IntStream.rangeClosed(REVIEW_ID_BEGIN_PART1, REVIEW_ID_END_PART1).boxed().collect(Collectors.toList())).
+				verifyComplete();
+		}
 	}
 	
 	@Test
@@ -155,6 +378,114 @@ public class ReviewServiceTest {
 			jsonPath("$.message").isEqualTo("ReviewID should be greater than 0.");
 	}
 	
+	@Test
+	public void createReviewsInBulk() {
+		
+		asciiArt.display("CREATE REVIEWS IN BULK");
+		
+		List<Review> reviews = IntStream.rangeClosed(REVIEW_ID_BEGIN_PART1, REVIEW_ID_END_PART1).
+			mapToObj(i ->  new Review().reviewID(i).productID(PRODUCT_ID_PART_1).author(AUTHOR + "_" + i).
+					subject(SUBJECT + "_" + i).content(CONTENT)).
+			collect(Collectors.toList());
+		
+		createInBulkAndVerifyStatus(reviews, MediaType.APPLICATION_JSON, HttpStatus.OK).
+			jsonPath("$.length()").isEqualTo(reviews.size()).
+			jsonPath("$[0].status").isEqualTo(StatusEnum.CREATED.getValue());
+		
+		assertEquals(Long.valueOf(REVIEW_ID_END_PART1), reviewRepository.count().block());
+	}
+	
+	@Test
+	public void createReviewsInBulkWithRejectedReviews() {
+		
+		asciiArt.display("CREATE REVIEWS IN BULK WITH REJECTED REVIEWS");
+		
+		Flux<Review> reviews = Flux.just(
+				new Review().reviewID(REVIEW_ID).productID(PRODUCT_ID).author(AUTHOR).subject(SUBJECT).content(CONTENT),
+				new Review().reviewID(REVIEW_ID_INVALID_INPUT).productID(PRODUCT_ID).author(AUTHOR).subject(SUBJECT).content(CONTENT),
+				new Review().reviewID(REVIEW_ID_BEGIN_PART1).productID(PRODUCT_ID).author(AUTHOR).subject(SUBJECT).content(CONTENT),
+				new Review().reviewID(REVIEW_ID_BEGIN_PART1).productID(PRODUCT_ID).author(AUTHOR).subject(SUBJECT).content(CONTENT));
+		
+		Flux<ReviewBatchResult> results = client.post().uri(uri -> uri.pathSegment("api", "v1", Api.REVIEW_PATH, Api.BATCH_PATH).build()).
+				contentType(MediaType.APPLICATION_STREAM_JSON).
+				body(reviews, Review.class).accept(MediaType.APPLICATION_STREAM_JSON).exchange().
+				expectStatus().isOk().
+				returnResult(ReviewBatchResult.class).getResponseBody();
+		
+		StepVerifier.create(results.filter(r -> StatusEnum.REJECTED.equals(r.getStatus())).map(ReviewBatchResult::getMessage).collectList()).
+			assertNext(messages -> {
+				assertEquals(3, messages.size());
+				assertEquals(true, messages.contains(String.format("Duplicate key : check the reviewID (%d).", REVIEW_ID)));
+				assertEquals(true, messages.contains("ReviewID should be greater than 0."));
+			}).
+			verifyComplete();
+		
+		assertEquals(Long.valueOf(2), reviewRepository.count().block());
+	}
+	
+	@Test
+	public void patchReview() {
+		
+		asciiArt.display("PATCH REVIEW");
+		
+		patchAndVerifyStatus(REVIEW_ID, "{\"subject\":\"Very nice\"}", HttpStatus.OK).
+			jsonPath("$.subject").isEqualTo("Very nice").
+			jsonPath("$.content").isEqualTo(CONTENT);
+	}
+	
+	@Test
+	public void patchReviewNotFoundException() {
+		
+		asciiArt.display("PATCH REVIEW BUT NOT FOUND EXCEPTION");
+		
+		patchAndVerifyStatus(REVIEW_ID_NOT_FOUND, "{\"subject\":\"Very nice\"}", HttpStatus.NOT_FOUND).
+			jsonPath("$.message").isEqualTo(String.format("Review with reviewID=%d doesn't not exists.", REVIEW_ID_NOT_FOUND));
+	}
+	
+	@Test
+	public void getReviewStatistics() {
+		
+		asciiArt.display("GET REVIEW STATISTICS");
+		
+		IntStream.rangeClosed(REVIEW_ID_BEGIN_PART1, 5).
+			mapToObj(i ->  new Review().reviewID(i).productID(PRODUCT_ID_PART_2).author(AUTHOR + "_" + i).
+					subject(SUBJECT + "_" + i).content(CONTENT)).
+			forEach(model -> createAndVerifyStatus(model, HttpStatus.CREATED));
+		
+		getStatisticsAndVerifyStatus(PRODUCT_ID_PART_1, HttpStatus.OK).
+			jsonPath("$.productID").isEqualTo(PRODUCT_ID_PART_1).
+			jsonPath("$.count").isEqualTo(1);
+		
+		getStatisticsAndVerifyStatus(PRODUCT_ID_PART_2, HttpStatus.OK).
+			jsonPath("$.count").isEqualTo(4);
+		
+		/**
+		 * The review moves to another product.
+		 */
+		patchAndVerifyStatus(REVIEW_ID, "{\"productID\":2}", HttpStatus.OK);
+		
+		getStatisticsAndVerifyStatus(PRODUCT_ID_PART_1, HttpStatus.OK).
+			jsonPath("$.count").isEqualTo(0);
+		
+		getStatisticsAndVerifyStatus(PRODUCT_ID_PART_2, HttpStatus.OK).
+			jsonPath("$.count").isEqualTo(5);
+		
+		sendDeleteReviewEvent(PRODUCT_ID_PART_2);
+		
+		getStatisticsAndVerifyStatus(PRODUCT_ID_PART_2, HttpStatus.OK).
+			jsonPath("$.count").isEqualTo(0).
+			jsonPath("$.lastUpdate").doesNotExist();
+	}
+	
+	@Test
+	public void getReviewStatisticsInvalidInputException() {
+		
+		asciiArt.display("GET REVIEW STATISTICS BUT INVALID INPUT");
+		
+		getStatisticsAndVerifyStatus(0, HttpStatus.UNPROCESSABLE_ENTITY).
+			jsonPath("$.message").isEqualTo("ProductID should be greater than 0.");
+	}
+	
 	@Test
 	public void deleteReview() {
 		
@@ -171,6 +502,28 @@ public class ReviewServiceTest {
 		sendDeleteReviewEvent(PRODUCT_ID);
 	}
 	
+	@Test
+	public void deleteReviewsAsynchronousInBatch() {
+		
+		asciiArt.display("DELETE REVIEWS ASYNCHRONOUS IN BATCH");
+		
+		IntStream.rangeClosed(REVIEW_ID_BEGIN_PART1, REVIEW_ID_END_PART1).
+			mapToObj(i ->  new Review().reviewID(i).productID(i % 4 + 1).author(AUTHOR + "_" + i).
+					subject(SUBJECT + "_" + i).content(CONTENT)).
+			forEach(model -> createAndVerifyStatus(model, HttpStatus.CREATED));
+		
+		Long remaining = reviewRepository.countByProductID(4).block();
+		double rejected = registry.get("consumer.events").tag("outcome", "rejected").counter().count();
+		
+		/**
+		 * The duplicated productID is deleted once, the invalid productID is rejected alone.
+		 */
+		sendDeleteReviewEvents(1, 2, 2, 3, REVIEW_ID_INVALID_INPUT);
+		
+		assertEquals(remaining, reviewRepository.count().block());
+		assertEquals(rejected + 1, registry.get("consumer.events").tag("outcome", "rejected").counter().count(), 0);
+	}
+	
 	@Test
 	public void deleteReviewBadRequest() {
 		
@@ -214,6 +567,19 @@ public class ReviewServiceTest {
 				expectBody();
 	}
 	
+	/**
+	 * @param productID
+	 * @param status
+	 * @return {@link BodyContentSpec}
+	 */
+	private BodyContentSpec getStatisticsAndVerifyStatus(Integer productID, HttpStatus status) {
+		
+		return client.get().uri(uri -> uri.pathSegment("api", "v1", Api.REVIEW_PATH, Api.STATISTICS_PATH).queryParam("productId", productID).build()).
+				accept(MediaType.APPLICATION_JSON).exchange().
+				expectStatus().isEqualTo(status).
+				expectBody();
+	}
+	
 	/**
 	 * @param body
 	 * @param status
@@ -227,6 +593,36 @@ public class ReviewServiceTest {
 				expectBody();
 	}
 	
+	/**
+	 * @param body
+	 * @param mediaType
+	 * @param status
+	 * @return {@link BodyContentSpec}
+	 */
+	private BodyContentSpec createInBulkAndVerifyStatus(List<Review> body, MediaType mediaType, HttpStatus status) {
+		
+		return client.post().uri(uri -> uri.pathSegment("api", "v1", Api.REVIEW_PATH, Api.BATCH_PATH).build()).
+				contentType(mediaType).
+				body(Flux.fromIterable(body), Review.class).accept(mediaType).exchange().
+				expectStatus().isEqualTo(status).
+				expectBody();
+	}
+	
+	/**
+	 * @param reviewID
+	 * @param patch : JSON merge patch
+	 * @param status
+	 * @return {@link BodyContentSpec}
+	 */
+	private BodyContentSpec patchAndVerifyStatus(Integer reviewID, String patch, HttpStatus status) {
+		
+		return client.patch().uri(uri -> uri.pathSegment("api", "v1", Api.REVIEW_PATH, String.valueOf(reviewID)).build()).
+				contentType(MediaType.valueOf("application/merge-patch+json")).
+				body(Mono.just(patch), String.class).accept(MediaType.APPLICATION_JSON).exchange().
+				expectStatus().isEqualTo(status).
+				expectBody();
+	}
+	
 	/**
 	 * @param reviewID
 	 * @param status
@@ -240,13 +636,49 @@ public class ReviewServiceTest {
 				expectBody();
 	}
 	
+	/**
+	 * @param traceId
+	 * @return the spans of the trace
+	 */
+	private List<Span> spans(String traceId) {
+		return ((InMemorySpanExporter)spanExporter).getSpans(traceId);
+	}
+	
 	/**
 	 * @param reviewId
 	 */
 	public void sendDeleteReviewEvent(Integer reviewId) {
+		sendDeleteReviewEvents(reviewId);
+	}
+	
+	/**
+	 * The events are sent without waiting between them, they are consumed in the same batch.
+	 * @param productIDs
+	 */
+	public void sendDeleteReviewEvents(Integer... productIDs) {
+		
+		double consumed = consumedEvents();
+		
+		for(Integer productID : productIDs) {
+			
+			Event<Integer> event = new Event<>(productID, Event.Type.DELETE);
+			log.info(" > One message will be sent for a review deletion ({}).", event.toString());
+			input.send(MessageBuilder.withPayload(event).build());
+		}
 		
-		Event<Integer> event = new Event<>(reviewId, Event.Type.DELETE);
-		log.info(" > One message will be sent for a review deletion ({}).", event.toString());
-		channel.input().send(MessageBuilder.withPayload(event).build());
+		/**
+		 * The events are consumed asynchronously : wait for the acknowledgment or the rejection of all the events.
+		 */
+		Mono.fromCallable(this::consumedEvents).
+			filter(count -> count >= consumed + productIDs.length).
+			repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50))).
+			block(Duration.ofSeconds(10));
+	}
+	
+	/**
+	 * @return number of events acknowledged or rejected by the consumer
+	 */
+	private double consumedEvents() {
+		return registry.find("consumer.events").counters().stream().mapToDouble(Counter::count).sum();
 	}
 }